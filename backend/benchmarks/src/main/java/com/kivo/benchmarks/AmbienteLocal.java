@@ -0,0 +1,110 @@
+package com.kivo.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dependências da aplicação para as ferramentas de medição: Postgres e Kafka embutidos
+ * (ou os de {@code -Durl} e {@code -Dkafka}) e o {@link ServidorStub} no lugar da BrasilAPI
+ * e do MockAPI, com latência de {@code -Dlatencia.cambio} e {@code -Dlatencia.saldo} e fração
+ * de respostas 503 de {@code -Derros.cambio} e {@code -Derros.saldo} (0 a 1).
+ */
+class AmbienteLocal implements AutoCloseable {
+
+    private final ServidorStub stub;
+    private final EmbeddedPostgres postgres;
+    private final EmbeddedKafkaKraftBroker broker;
+    private final Map<String, String> propriedades = new LinkedHashMap<>();
+
+    AmbienteLocal() throws IOException {
+        String url = System.getProperty("url");
+        String kafka = System.getProperty("kafka");
+
+        stub = new ServidorStub(Duration.ofMillis(Long.getLong("latencia.cambio", 50)),
+                Duration.ofMillis(Long.getLong("latencia.saldo", 80)),
+                Double.parseDouble(System.getProperty("erros.cambio", "0")),
+                Double.parseDouble(System.getProperty("erros.saldo", "0")));
+        if (url == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            url = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+        } else {
+            postgres = null;
+        }
+        if (kafka == null) {
+            broker = new EmbeddedKafkaKraftBroker(1, 1);
+            broker.afterPropertiesSet();
+            kafka = broker.getBrokersAsString();
+        } else {
+            broker = null;
+        }
+
+        propriedades.put("spring.datasource.url", url);
+        propriedades.put("spring.datasource.username",
+                System.getProperty("usuario", postgres != null ? "postgres" : "kivo_user"));
+        propriedades.put("spring.datasource.password",
+                System.getProperty("senha", postgres != null ? "postgres" : "kivo_pass"));
+        propriedades.put("spring.kafka.bootstrap-servers", kafka);
+        propriedades.put("kivo.http.brasilapi.url", stub.urlBrasilApi().toString());
+        propriedades.put("kivo.http.mockapi.url", stub.urlMockApi().toString());
+        propriedades.put("kivo.arquivo.diretorio", Files.createTempDirectory("kivo-carga-arquivo").toString());
+    }
+
+    /** Propriedades que apontam a aplicação para este ambiente. */
+    Map<String, String> propriedades() {
+        return new LinkedHashMap<>(propriedades);
+    }
+
+    ServidorStub stub() {
+        return stub;
+    }
+
+    String descricao() {
+        return "postgres=%s, kafka=%s".formatted(
+                postgres != null ? "embutido" : propriedades.get("spring.datasource.url"),
+                broker != null ? "embutido" : propriedades.get("spring.kafka.bootstrap-servers"));
+    }
+
+    /**
+     * Junta as propriedades com os argumentos da linha de comando. Argumentos repetidos viram
+     * lista no Spring, então os {@code --nome=valor} da linha de comando substituem os do mapa.
+     */
+    static List<String> argumentos(Map<String, String> propriedades, String[] args) {
+        Map<String, String> todas = new LinkedHashMap<>(propriedades);
+        List<String> argumentos = new ArrayList<>();
+        for (String argumento : args) {
+            int igual = argumento.indexOf('=');
+            if (argumento.startsWith("--") && igual > 2) {
+                todas.put(argumento.substring(2, igual), argumento.substring(igual + 1));
+            } else {
+                argumentos.add(argumento);
+            }
+        }
+        todas.forEach((nome, valor) -> argumentos.add("--" + nome + "=" + valor));
+        return argumentos;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (broker != null) {
+                broker.destroy();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao encerrar o Postgres embutido", e);
+        } finally {
+            stub.close();
+        }
+    }
+}
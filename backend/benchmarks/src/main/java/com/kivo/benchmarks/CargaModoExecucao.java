@@ -0,0 +1,185 @@
+package com.kivo.benchmarks;
+
+import com.kivo.api.infraestrutura.web.FiltroConcorrencia;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carga de clientes concorrentes contra a camada web em modo plataforma ou virtual.
+ *
+ * Sobe um Tomcat com a mesma configuração de threads do backend (Spring MVC e o
+ * {@link FiltroConcorrencia}) e um endpoint que reproduz o perfil de uma requisição da
+ * API: uma consulta curta segurando uma de {@code conexoes} conexões, como o pool do
+ * Hikari, e uma chamada de saída bloqueante. Não é JMH: o que interessa é a vazão com
+ * milhares de clientes simultâneos, não o custo de uma operação.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar -Dmodo=virtual -Dclientes=2000 com.kivo.benchmarks.CargaModoExecucao
+ * </pre>
+ */
+public class CargaModoExecucao {
+
+    public static void main(String[] args) throws Exception {
+        String modo = System.getProperty("modo", "plataforma");
+        int clientes = Integer.getInteger("clientes", 1000);
+        Duration aquecimento = Duration.parse("PT" + System.getProperty("aquecimento", "5s"));
+        Duration duracao = Duration.parse("PT" + System.getProperty("duracao", "20s"));
+        boolean virtual = "virtual".equals(modo);
+
+        if (virtual && Runtime.version().feature() < 21) {
+            System.err.println("Modo virtual exige Java 21+; JVM atual: " + Runtime.version());
+            System.exit(1);
+        }
+
+        // Argumentos de linha de comando sobrepõem o application.properties do backend, que está no classpath.
+        try (ConfigurableApplicationContext contexto = SpringApplication.run(Servidor.class,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--kivo.web.requisicoes-simultaneas=" + System.getProperty("limite", "4000"),
+                "--kivo.web.espera-vaga=" + System.getProperty("espera-vaga", "2s"),
+                "--logging.level.root=WARN")) {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + porta + "/operacao");
+
+            System.out.printf("modo=%s clientes=%d java=%s%n", modo, clientes, Runtime.version());
+            rodada(uri, clientes, aquecimento, false);
+            rodada(uri, clientes, duracao, true);
+        }
+    }
+
+    private static void rodada(URI uri, int clientes, Duration duracao, boolean relatar) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newCachedThreadPool())
+                .build();
+        HttpRequest requisicao = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+
+        Timer latencia = Timer.builder("carga.latencia")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(new SimpleMeterRegistry());
+        LongAdder sucesso = new LongAdder();
+        LongAdder recusadas = new LongAdder();
+        LongAdder falhas = new LongAdder();
+        AtomicBoolean rodando = new AtomicBoolean(true);
+        CountDownLatch fim = new CountDownLatch(clientes);
+
+        List<Thread> threads = new ArrayList<>(clientes);
+        for (int i = 0; i < clientes; i++) {
+            Thread cliente = new Thread(() -> {
+                try {
+                    while (rodando.get()) {
+                        long inicio = System.nanoTime();
+                        try {
+                            int status = http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status == 200) {
+                                latencia.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                                sucesso.increment();
+                            } else {
+                                recusadas.increment();
+                            }
+                        } catch (Exception e) {
+                            falhas.increment();
+                        }
+                    }
+                } finally {
+                    fim.countDown();
+                }
+            }, "cliente-" + i);
+            cliente.setDaemon(true);
+            threads.add(cliente);
+        }
+
+        long inicio = System.nanoTime();
+        threads.forEach(Thread::start);
+        Thread.sleep(duracao.toMillis());
+        rodando.set(false);
+        fim.await(60, TimeUnit.SECONDS);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        if (relatar) {
+            HistogramSnapshot snapshot = latencia.takeSnapshot();
+            StringBuilder percentis = new StringBuilder();
+            for (ValueAtPercentile p : snapshot.percentileValues()) {
+                percentis.append(String.format(" p%.0f=%.1fms", p.percentile() * 100, p.value(TimeUnit.MILLISECONDS)));
+            }
+            System.out.printf("vazao=%.0f req/s ok=%d 503=%d falhas=%d%s%n",
+                    sucesso.sum() / segundos, sucesso.sum(), recusadas.sum(), falhas.sum(), percentis);
+        }
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    @Import({FiltroConcorrencia.class, Servidor.Operacao.class})
+    static class Servidor {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @RestController
+        static class Operacao {
+
+            private final Semaphore conexoes = new Semaphore(Integer.getInteger("conexoes", 20), true);
+            private final long latenciaConsulta = Long.getLong("latencia.consulta", 2);
+            private final long latenciaSaida = Long.getLong("latencia.saida", 100);
+
+            @GetMapping("/operacao")
+            public ResponseEntity<Void> operacao() throws InterruptedException {
+                if (!conexoes.tryAcquire(3, TimeUnit.SECONDS)) {
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+                }
+                try {
+                    Thread.sleep(latenciaConsulta);
+                } finally {
+                    conexoes.release();
+                }
+                Thread.sleep(latenciaSaida);
+                return ResponseEntity.ok().build();
+            }
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.kivo.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kivo.api.KivoApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Teste de carga ponta a ponta do backend completo, sem nenhuma dependência externa.
+ *
+ * Sobe um Postgres embutido, um broker Kafka embutido (KRaft) e o {@link ServidorStub} no
+ * lugar da BrasilAPI e do MockAPI, e inicia a aplicação na mesma JVM apontando para eles.
+ * Depois cadastra {@code usuarios} contas com {@code transacoes-iniciais} transações cada
+ * e dispara o roteiro em carga aberta: cada endpoint recebe requisições na taxa pedida,
+ * sem esperar as anteriores terminarem. A latência é medida a partir do horário agendado,
+ * então a espera de uma requisição atrasada pelo próprio gerador também é contada.
+ *
+ * Argumentos de linha de comando vão para a aplicação, como no {@code java -jar} do backend.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar -Dtaxas=registro=200,extrato=50 -Dduracao=60 \
+ *     com.kivo.benchmarks.CargaPontaAPonta --kivo.registro.agrupado.habilitado=true
+ * </pre>
+ */
+public class CargaPontaAPonta {
+
+    private static final String SENHA = "senha-carga";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private record Conta(String id, String email, String token) {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Double> taxas = taxas(System.getProperty("taxas",
+                "cadastro=1,login=2,registro=50,extrato=10,analise=5,exportar=0.5"));
+        Duration aquecimento = Duration.ofSeconds(Long.getLong("aquecimento", 15));
+        Duration duracao = Duration.ofSeconds(Long.getLong("duracao", 60));
+        int usuarios = Integer.getInteger("usuarios", 20);
+        int transacoesIniciais = Integer.getInteger("transacoes-iniciais", 50);
+
+        try (AmbienteLocal ambiente = new AmbienteLocal()) {
+            Map<String, String> propriedades = ambiente.propriedades();
+            propriedades.put("server.port", "0");
+            propriedades.put("logging.level.root", "WARN");
+            List<String> argumentos = AmbienteLocal.argumentos(propriedades, args);
+
+            long inicioAplicacao = System.nanoTime();
+            try (ConfigurableApplicationContext contexto = SpringApplication.run(KivoApplication.class,
+                    argumentos.toArray(String[]::new))) {
+                int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+                System.out.printf("aplicacao pronta em %.1fs na porta %d (%s)%n",
+                        (System.nanoTime() - inicioAplicacao) / 1e9, porta, ambiente.descricao());
+
+                Roteiro roteiro = new Roteiro(URI.create("http://127.0.0.1:" + porta));
+                roteiro.preparar(usuarios, transacoesIniciais);
+                Map<String, Estatistica> resultado = roteiro.executar(taxas, aquecimento, duracao);
+
+                relatar(resultado, duracao, System.out);
+                String csv = System.getProperty("csv");
+                if (csv != null) {
+                    try (PrintStream saida = new PrintStream(Files.newOutputStream(Path.of(csv)))) {
+                        relatar(resultado, duracao, saida);
+                    }
+                }
+                System.out.printf("chamadas ao stub: cambio=%d (%d com erro) saldo=%d (%d com erro)%n",
+                        ambiente.stub().chamadasCambio(), ambiente.stub().errosCambio(),
+                        ambiente.stub().chamadasSaldo(), ambiente.stub().errosSaldo());
+            }
+        }
+    }
+
+    /**
+     * As operações do roteiro e o gerador de carga aberta. Cada endpoint tem a própria
+     * thread geradora; as respostas chegam pelo executor do {@link HttpClient}.
+     */
+    private static class Roteiro {
+
+        private final URI base;
+        private final HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newCachedThreadPool())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        private final List<Conta> contas = new ArrayList<>();
+        private final AtomicLong sequencia = new AtomicLong();
+        private final AtomicInteger pendentes = new AtomicInteger();
+        private final int maxPendentes = Integer.getInteger("max-pendentes", 2000);
+
+        private final Map<String, Function<ThreadLocalRandom, HttpRequest>> operacoes = new LinkedHashMap<>();
+
+        Roteiro(URI base) {
+            this.base = base;
+            operacoes.put("cadastro", r -> post("/usuarios", null, novoUsuario(r)));
+            operacoes.put("login", r -> {
+                Conta conta = sortear(r);
+                return post("/login", null, "{\"email\":\"%s\",\"senha\":\"%s\"}".formatted(conta.email(), SENHA));
+            });
+            operacoes.put("registro", r -> {
+                Conta conta = sortear(r);
+                return post("/transacoes", conta.token(), novaTransacao(r, conta));
+            });
+            operacoes.put("extrato", r -> {
+                Conta conta = sortear(r);
+                return get("/transacoes/extrato?limite=50&usuarioId=" + conta.id(), conta.token());
+            });
+            operacoes.put("analise", r -> {
+                Conta conta = sortear(r);
+                LocalDate hoje = LocalDate.now();
+                return get("/transacoes/analise?usuarioId=%s&inicio=%s&fim=%s"
+                        .formatted(conta.id(), hoje.minusDays(30), hoje), conta.token());
+            });
+            operacoes.put("exportar", r -> {
+                Conta conta = sortear(r);
+                return get("/transacoes/exportar?usuarioId=" + conta.id(), conta.token());
+            });
+        }
+
+        void preparar(int usuarios, int transacoesIniciais) throws Exception {
+            long inicio = System.nanoTime();
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            for (int i = 0; i < usuarios; i++) {
+                String corpo = novoUsuario(r);
+                JsonNode usuario = JSON.readTree(enviar(post("/usuarios", null, corpo)));
+                String email = usuario.get("email").asText();
+                JsonNode token = JSON.readTree(enviar(post("/login", null,
+                        "{\"email\":\"%s\",\"senha\":\"%s\"}".formatted(email, SENHA))));
+                contas.add(new Conta(usuario.get("id").asText(), email, token.get("token").asText()));
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<String>> envios = new ArrayList<>();
+                for (Conta conta : contas) {
+                    for (int i = 0; i < transacoesIniciais; i++) {
+                        envios.add(executor.submit(() -> enviar(post("/transacoes", conta.token(),
+                                novaTransacao(ThreadLocalRandom.current(), conta)))));
+                    }
+                }
+                for (Future<String> envio : envios) {
+                    envio.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            System.out.printf("preparacao: %d usuarios e %d transacoes em %.1fs%n",
+                    contas.size(), contas.size() * transacoesIniciais, (System.nanoTime() - inicio) / 1e9);
+        }
+
+        Map<String, Estatistica> executar(Map<String, Double> taxas, Duration aquecimento, Duration duracao)
+                throws InterruptedException {
+            long inicio = System.nanoTime();
+            long inicioMedicao = inicio + aquecimento.toNanos();
+            long fim = inicioMedicao + duracao.toNanos();
+
+            Map<String, Estatistica> estatisticas = new LinkedHashMap<>();
+            List<Thread> geradores = new ArrayList<>();
+            for (Map.Entry<String, Double> taxa : taxas.entrySet()) {
+                Function<ThreadLocalRandom, HttpRequest> operacao = operacoes.get(taxa.getKey());
+                if (operacao == null) {
+                    throw new IllegalArgumentException("Operação desconhecida: " + taxa.getKey()
+                            + " (disponíveis: " + operacoes.keySet() + ")");
+                }
+                Estatistica estatistica = new Estatistica(taxa.getValue());
+                estatisticas.put(taxa.getKey(), estatistica);
+
+                long periodo = (long) (1e9 / taxa.getValue());
+                Thread gerador = new Thread(() -> {
+                    for (long agendado = inicio; agendado < fim; agendado += periodo) {
+                        long espera = agendado - System.nanoTime();
+                        if (espera > 0) {
+                            LockSupport.parkNanos(espera);
+                        }
+                        disparar(operacao.apply(ThreadLocalRandom.current()), agendado,
+                                agendado >= inicioMedicao ? estatistica : null);
+                    }
+                }, "gerador-" + taxa.getKey());
+                gerador.setDaemon(true);
+                geradores.add(gerador);
+            }
+
+            geradores.forEach(Thread::start);
+            for (Thread gerador : geradores) {
+                gerador.join();
+            }
+            // Espera as respostas em voo da janela medida.
+            long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (pendentes.get() > 0 && System.nanoTime() < prazo) {
+                Thread.sleep(50);
+            }
+            return estatisticas;
+        }
+
+        private void disparar(HttpRequest requisicao, long agendado, Estatistica estatistica) {
+            if (pendentes.incrementAndGet() > maxPendentes) {
+                pendentes.decrementAndGet();
+                if (estatistica != null) {
+                    estatistica.recusadas.increment();
+                }
+                return;
+            }
+            http.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding()).whenComplete((resposta, erro) -> {
+                pendentes.decrementAndGet();
+                if (estatistica == null) {
+                    return;
+                }
+                if (erro == null && resposta.statusCode() < 400) {
+                    estatistica.registrar(System.nanoTime() - agendado);
+                } else {
+                    estatistica.erros.increment();
+                }
+            });
+        }
+
+        private String enviar(HttpRequest requisicao) throws IOException, InterruptedException {
+            HttpResponse<String> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+            if (resposta.statusCode() >= 400) {
+                throw new IllegalStateException(requisicao.method() + " " + requisicao.uri().getPath()
+                        + " respondeu " + resposta.statusCode() + ": " + resposta.body());
+            }
+            return resposta.body();
+        }
+
+        private Conta sortear(ThreadLocalRandom r) {
+            return contas.get(r.nextInt(contas.size()));
+        }
+
+        private String novoUsuario(ThreadLocalRandom r) {
+            long n = sequencia.incrementAndGet();
+            return "{\"nome\":\"Carga %d\",\"email\":\"carga-%d-%d@kivo.com\",\"senha\":\"%s\",\"cpf\":\"%s\"}"
+                    .formatted(n, n, System.nanoTime(), SENHA, cpf(r));
+        }
+
+        /** Mistura de compras, depósitos, saques e transferências, com uma em cada dez em dólar. */
+        private String novaTransacao(ThreadLocalRandom r, Conta conta) {
+            int sorteio = r.nextInt(100);
+            String tipo = sorteio < 50 ? "COMPRA" : sorteio < 70 ? "DEPOSITO" : sorteio < 85 ? "SAQUE" : "TRANSFERENCIA";
+            String destinatario = "";
+            if ("TRANSFERENCIA".equals(tipo)) {
+                Conta outra = sortear(r);
+                if (outra == conta) {
+                    outra = contas.get((contas.indexOf(conta) + 1) % contas.size());
+                }
+                if (outra == conta) {
+                    tipo = "COMPRA";
+                } else {
+                    destinatario = ",\"destinatarioId\":\"" + outra.id() + "\"";
+                }
+            }
+            String moeda = r.nextInt(10) == 0 ? "USD" : "BRL";
+            String[] categorias = {"ALIMENTACAO", "TRANSPORTE", "LAZER", "SAUDE", "EDUCACAO", "OUTROS"};
+            return "{\"valor\":%d.%02d,\"tipo\":\"%s\",\"usuarioId\":\"%s\",\"categoria\":\"%s\",\"moeda\":\"%s\"%s}"
+                    .formatted(1 + r.nextInt(300), r.nextInt(100), tipo, conta.id(),
+                            categorias[r.nextInt(categorias.length)], moeda, destinatario);
+        }
+
+        private HttpRequest post(String caminho, String token, String corpo) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(caminho))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        }
+
+        private HttpRequest get(String caminho, String token) {
+            return HttpRequest.newBuilder(base.resolve(caminho))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+        }
+    }
+
+    /** Latências das respostas de sucesso de um endpoint na janela medida. */
+    private static class Estatistica {
+
+        private final double taxaAlvo;
+        private final LongAdder erros = new LongAdder();
+        private final LongAdder recusadas = new LongAdder();
+        private long[] latencias = new long[4096];
+        private int total;
+
+        Estatistica(double taxaAlvo) {
+            this.taxaAlvo = taxaAlvo;
+        }
+
+        synchronized void registrar(long nanos) {
+            if (total == latencias.length) {
+                latencias = Arrays.copyOf(latencias, total * 2);
+            }
+            latencias[total++] = nanos;
+        }
+
+        synchronized long[] ordenadas() {
+            long[] ordenadas = Arrays.copyOf(latencias, total);
+            Arrays.sort(ordenadas);
+            return ordenadas;
+        }
+    }
+
+    private static void relatar(Map<String, Estatistica> resultado, Duration duracao, PrintStream saida) {
+        double segundos = duracao.toNanos() / 1e9;
+        saida.println("endpoint,taxa_alvo,req/s,ok,erros,recusadas,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+        resultado.forEach((endpoint, estatistica) -> {
+            long[] ordenadas = estatistica.ordenadas();
+            saida.printf("%s,%.1f,%.1f,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f%n", endpoint, estatistica.taxaAlvo,
+                    ordenadas.length / segundos, ordenadas.length, estatistica.erros.sum(), estatistica.recusadas.sum(),
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.90), percentil(ordenadas, 0.99),
+                    percentil(ordenadas, 0.999), ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1] / 1e6);
+        });
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+
+    private static Map<String, Double> taxas(String texto) {
+        Map<String, Double> taxas = new LinkedHashMap<>();
+        for (String par : texto.split(",")) {
+            String[] partes = par.trim().split("=");
+            double taxa = Double.parseDouble(partes[1]);
+            if (taxa > 0) {
+                taxas.put(partes[0], taxa);
+            }
+        }
+        return taxas;
+    }
+
+    /** CPF aleatório com os dígitos verificadores corretos, exigidos pelo cadastro. */
+    static String cpf(ThreadLocalRandom r) {
+        int[] digitos = new int[11];
+        for (int i = 0; i < 9; i++) {
+            digitos[i] = r.nextInt(10);
+        }
+        for (int posicao = 9; posicao < 11; posicao++) {
+            int soma = 0;
+            for (int i = 0; i < posicao; i++) {
+                soma += digitos[i] * (posicao + 1 - i);
+            }
+            int resto = soma % 11;
+            digitos[posicao] = resto < 2 ? 0 : 11 - resto;
+        }
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digito : digitos) {
+            cpf.append(digito);
+        }
+        return cpf.toString();
+    }
+}
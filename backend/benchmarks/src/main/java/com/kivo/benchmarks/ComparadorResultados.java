@@ -0,0 +1,86 @@
+package com.kivo.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dois resultados do JMH em JSON (uma referência e a execução atual) e termina
+ * com código 1 se algum benchmark piorou mais que a {@code tolerancia} relativa. Em
+ * {@code thrpt} pior é menor; nos demais modos pior é maior. Benchmarks presentes em só
+ * um dos arquivos são listados e não contam como regressão.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar -Dtolerancia=0.10 com.kivo.benchmarks.ComparadorResultados \
+ *     referencia.json jmh-resultados.json
+ * </pre>
+ */
+public class ComparadorResultados {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: ComparadorResultados <referencia.json> <atual.json>");
+            System.exit(2);
+        }
+        double tolerancia = Double.parseDouble(System.getProperty("tolerancia", "0.10"));
+
+        Map<String, JsonNode> referencia = ler(new File(args[0]));
+        Map<String, JsonNode> atual = ler(new File(args[1]));
+
+        int regressoes = 0;
+        System.out.println("benchmark,unidade,referencia,atual,variacao,situacao");
+        for (Map.Entry<String, JsonNode> entrada : atual.entrySet()) {
+            JsonNode resultado = entrada.getValue();
+            String modo = resultado.path("mode").asText();
+            String unidade = resultado.path("primaryMetric").path("scoreUnit").asText();
+            double valorAtual = resultado.path("primaryMetric").path("score").asDouble();
+
+            JsonNode anterior = referencia.remove(entrada.getKey());
+            if (anterior == null) {
+                System.out.printf("%s,%s,,%.3f,,novo%n", entrada.getKey(), unidade, valorAtual);
+                continue;
+            }
+            double valorAnterior = anterior.path("primaryMetric").path("score").asDouble();
+            double variacao = (valorAtual - valorAnterior) / valorAnterior;
+            double piora = "thrpt".equals(modo) ? -variacao : variacao;
+
+            String situacao = piora > tolerancia ? "REGRESSAO" : piora < -tolerancia ? "melhora" : "ok";
+            if (piora > tolerancia) {
+                regressoes++;
+            }
+            System.out.printf("%s,%s,%.3f,%.3f,%+.1f%%,%s%n", entrada.getKey(), unidade,
+                    valorAnterior, valorAtual, variacao * 100, situacao);
+        }
+        for (String ausente : referencia.keySet()) {
+            System.out.printf("%s,,,,,ausente%n", ausente);
+        }
+
+        if (regressoes > 0) {
+            System.err.printf("%d benchmark(s) acima da tolerância de %.0f%%%n", regressoes, tolerancia * 100);
+            System.exit(1);
+        }
+    }
+
+    /** Indexa os resultados por benchmark, modo e parâmetros. */
+    private static Map<String, JsonNode> ler(File arquivo) throws IOException {
+        Map<String, JsonNode> resultados = new LinkedHashMap<>();
+        for (JsonNode resultado : new ObjectMapper().readTree(arquivo)) {
+            StringBuilder chave = new StringBuilder(resultado.path("benchmark").asText())
+                    .append(':').append(resultado.path("mode").asText());
+
+            Map<String, String> parametros = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> campos = resultado.path("params").fields();
+            campos.forEachRemaining(campo -> parametros.put(campo.getKey(), campo.getValue().asText()));
+            parametros.forEach((nome, valor) -> chave.append(' ').append(nome).append('=').append(valor));
+
+            resultados.put(chave.toString(), resultado);
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,49 @@
+package com.kivo.benchmarks;
+
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.StatusTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Linhas de extrato sintéticas para os benchmarks: todos os tipos e categorias em rodízio,
+ * metade das transferências recebidas e uma em cada sete em dólar.
+ */
+final class DadosExtrato {
+
+    private DadosExtrato() {}
+
+    static List<LinhaExtratoDTO> linhas(UUID conta, int quantidade) {
+        UUID outraConta = UUID.randomUUID();
+        LocalDateTime agora = LocalDateTime.now();
+
+        TipoTransacao[] tipos = TipoTransacao.values();
+        CategoriaTransacao[] categorias = CategoriaTransacao.values();
+
+        List<LinhaExtratoDTO> linhas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            TipoTransacao tipo = tipos[i % tipos.length];
+            boolean recebida = tipo == TipoTransacao.TRANSFERENCIA && i % 2 == 0;
+
+            linhas.add(new LinhaExtratoDTO(
+                    UUID.randomUUID(),
+                    BigDecimal.valueOf(1 + (i % 5000), 2).add(BigDecimal.TEN),
+                    tipo,
+                    categorias[i % categorias.length],
+                    StatusTransacao.APPROVED,
+                    i % 7 == 0 ? "USD" : "BRL",
+                    i % 7 == 0 ? new BigDecimal("5.4321") : BigDecimal.ONE,
+                    agora.minusMinutes(i),
+                    recebida ? outraConta : conta,
+                    tipo == TipoTransacao.TRANSFERENCIA ? (recebida ? conta : outraConta) : null
+            ));
+        }
+        return linhas;
+    }
+}
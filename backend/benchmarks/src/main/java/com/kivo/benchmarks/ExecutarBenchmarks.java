@@ -0,0 +1,24 @@
+package com.kivo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entrada do {@code benchmarks.jar}: repassa os argumentos ao {@link org.openjdk.jmh.Main}
+ * e, quando nenhum formato de resultado é pedido, grava o resultado em JSON em
+ * {@code jmh-resultados.json} para comparação com {@link ComparadorResultados}.
+ */
+public class ExecutarBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        List<String> argumentos = new ArrayList<>(Arrays.asList(args));
+        if (!argumentos.contains("-rf")) {
+            argumentos.addAll(List.of("-rf", "json"));
+            if (!argumentos.contains("-rff")) {
+                argumentos.addAll(List.of("-rff", "jmh-resultados.json"));
+            }
+        }
+        org.openjdk.jmh.Main.main(argumentos.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,41 @@
+package com.kivo.benchmarks;
+
+import com.kivo.api.infraestrutura.seguranca.ConfiguracoesSeguranca;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt do {@code passwordEncoder} da aplicação: {@code codificar} é o cadastro de usuário
+ * e {@code conferir} é o login. Os dois custam o mesmo por construção; o número mostra
+ * quantos logins por segundo cada núcleo aguenta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashSenhaBenchmark {
+
+    private static final String SENHA = "senha-do-benchmark";
+
+    private final PasswordEncoder encoder = new ConfiguracoesSeguranca().passwordEncoder();
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        hash = encoder.encode(SENHA);
+    }
+
+    @Benchmark
+    public String codificar() {
+        return encoder.encode(SENHA);
+    }
+
+    @Benchmark
+    public boolean conferir() {
+        return encoder.matches(SENHA, hash);
+    }
+}
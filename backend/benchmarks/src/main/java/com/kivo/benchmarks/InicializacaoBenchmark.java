@@ -0,0 +1,326 @@
+package com.kivo.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Tempo de subida e da primeira requisição do backend empacotado, cada rodada num processo novo.
+ *
+ * Compara as variantes do jar de {@code -Djar}:
+ * <ul>
+ *   <li>{@code padrao}: {@code java -jar} do jar executável, como no Dockerfile padrão.</li>
+ *   <li>{@code extraido}: o jar extraído com {@code -Djarmode=tools}, com as dependências em {@code lib/}.</li>
+ *   <li>{@code cds}: o extraído com um arquivo AppCDS treinado.</li>
+ *   <li>{@code aot}: o extraído com {@code -Dspring.aot.enabled=true}; exige o jar de {@code mvn -Paot package}.</li>
+ *   <li>{@code aot-cds}: AOT com o arquivo AppCDS treinado com AOT (o alvo {@code aot-cds} do Dockerfile).</li>
+ * </ul>
+ *
+ * Os arquivos CDS saem de uma rodada de treino com {@code -XX:ArchiveClassesAtExit} e
+ * {@code spring.context.exit=onRefresh} contra o mesmo {@link AmbienteLocal}. Antes das medições
+ * uma rodada de aquecimento cadastra o usuário e deixa o banco migrado. As variantes se alternam
+ * a cada repetição. Por rodada: {@code pronto_s}, do exec até o servidor responder HTTP;
+ * {@code spring_s}, o "Started ... in" do log; {@code login_ms} e {@code extrato_ms}, a primeira
+ * requisição de cada uma. No fim, a mediana por variante. Argumentos {@code --nome=valor} vão para a aplicação.
+ *
+ * <pre>
+ * (cd .. &amp;&amp; mvn -Paot -DskipTests package)
+ * java -cp target/benchmarks.jar -Drepeticoes=5 com.kivo.benchmarks.InicializacaoBenchmark \
+ *     --kivo.inicializacao.documentacao-adiada=true
+ * </pre>
+ */
+public class InicializacaoBenchmark {
+
+    private static final String SENHA = "senha-inicializacao";
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Pattern INICIADA = Pattern.compile("Started KivoApplication in ([0-9.]+) seconds");
+    private static final Duration LIMITE_SUBIDA = Duration.ofMinutes(2);
+
+    private record Variante(String nome, List<String> opcoes, Path jar) {}
+
+    private record Medicao(String variante, int rodada, double prontoS, double springS, double loginMs, double extratoMs) {
+
+        String csv() {
+            return "%s,%d,%.2f,%.2f,%.1f,%.1f".formatted(variante, rodada, prontoS, springS, loginMs, extratoMs);
+        }
+    }
+
+    private record Usuario(String id, String email) {}
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("jar", "../target/kivo-0.0.1-SNAPSHOT-exec.jar")).toAbsolutePath();
+        List<String> nomes = Arrays.asList(System.getProperty("variantes", "padrao,extraido,cds,aot,aot-cds").split(","));
+        int repeticoes = Integer.getInteger("repeticoes", 5);
+        String java = System.getProperty("java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        Path trabalho = Files.createTempDirectory("kivo-inicializacao");
+
+        if (!aotProcessado(jar) && (nomes.contains("aot") || nomes.contains("aot-cds"))) {
+            System.out.println("o jar não passou pelo Spring AOT (mvn -Paot package); variantes aot ignoradas");
+            nomes = nomes.stream().filter(n -> !n.startsWith("aot")).toList();
+        }
+
+        try (AmbienteLocal ambiente = new AmbienteLocal()) {
+            Map<String, String> propriedades = ambiente.propriedades();
+            propriedades.put("logging.level.root", "WARN");
+            propriedades.put("logging.level.com.kivo.api.KivoApplication", "INFO");
+
+            Path extraido = extrair(java, jar, trabalho);
+            Map<String, Variante> variantes = new LinkedHashMap<>();
+            for (String nome : nomes) {
+                variantes.put(nome, switch (nome) {
+                    case "padrao" -> new Variante(nome, List.of(), jar);
+                    case "extraido" -> new Variante(nome, List.of(), extraido);
+                    case "cds" -> new Variante(nome, treinar(java, List.of(), extraido, trabalho.resolve("cds.jsa"),
+                            propriedades, args), extraido);
+                    case "aot" -> new Variante(nome, List.of("-Dspring.aot.enabled=true"), extraido);
+                    case "aot-cds" -> new Variante(nome, treinar(java, List.of("-Dspring.aot.enabled=true"), extraido,
+                            trabalho.resolve("aot.jsa"), propriedades, args), extraido);
+                    default -> throw new IllegalArgumentException("Variante desconhecida: " + nome);
+                });
+            }
+
+            Variante aquecimento = variantes.values().iterator().next();
+            Usuario usuario = preparar(java, aquecimento, propriedades, args, trabalho);
+            System.out.printf("usuario de teste criado com a variante %s (%s)%n", aquecimento.nome(), ambiente.descricao());
+
+            List<Medicao> medicoes = new ArrayList<>();
+            System.out.println("variante,rodada,pronto_s,spring_s,login_ms,extrato_ms");
+            for (int rodada = 1; rodada <= repeticoes; rodada++) {
+                for (Variante variante : variantes.values()) {
+                    Medicao medicao = medir(java, variante, rodada, usuario, propriedades, args, trabalho);
+                    medicoes.add(medicao);
+                    System.out.println(medicao.csv());
+                }
+            }
+
+            System.out.println();
+            System.out.println("variante,mediana_pronto_s,mediana_spring_s,mediana_login_ms,mediana_extrato_ms");
+            for (String nome : variantes.keySet()) {
+                List<Medicao> daVariante = medicoes.stream().filter(m -> m.variante().equals(nome)).toList();
+                System.out.printf("%s,%.2f,%.2f,%.1f,%.1f%n", nome,
+                        mediana(daVariante.stream().mapToDouble(Medicao::prontoS).toArray()),
+                        mediana(daVariante.stream().mapToDouble(Medicao::springS).toArray()),
+                        mediana(daVariante.stream().mapToDouble(Medicao::loginMs).toArray()),
+                        mediana(daVariante.stream().mapToDouble(Medicao::extratoMs).toArray()));
+            }
+
+            String csv = System.getProperty("csv");
+            if (csv != null) {
+                try (PrintStream saida = new PrintStream(Files.newOutputStream(Path.of(csv)))) {
+                    saida.println("variante,rodada,pronto_s,spring_s,login_ms,extrato_ms");
+                    medicoes.forEach(m -> saida.println(m.csv()));
+                }
+            }
+        }
+    }
+
+    private static boolean aotProcessado(Path jar) throws IOException {
+        try (JarFile arquivo = new JarFile(jar.toFile())) {
+            return arquivo.getEntry("BOOT-INF/classes/com/kivo/api/KivoApplication__ApplicationContextInitializer.class") != null;
+        }
+    }
+
+    /** Extrai o jar executável no layout que o AppCDS aceita: um jar da aplicação e as dependências em lib/. */
+    private static Path extrair(String java, Path jar, Path trabalho) throws IOException, InterruptedException {
+        Path destino = trabalho.resolve("extraido");
+        executar(trabalho.resolve("extracao.log"), java, "-Djarmode=tools", "-jar", jar.toString(),
+                "extract", "--destination", destino.toString());
+        try (Stream<Path> arquivos = Files.list(destino)) {
+            return arquivos.filter(p -> p.toString().endsWith(".jar")).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Jar extraído não encontrado em " + destino));
+        }
+    }
+
+    /** Rodada de treino: sobe o contexto, sai logo depois do refresh e grava as classes carregadas no arquivo CDS. */
+    private static List<String> treinar(String java, List<String> opcoes, Path jar, Path arquivoCds,
+                                        Map<String, String> propriedades, String[] args)
+            throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        List<String> comando = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=" + arquivoCds,
+                "-Dspring.context.exit=onRefresh"));
+        comando.addAll(opcoes);
+        comando.addAll(List.of("-jar", jar.toString()));
+        comando.addAll(argumentos(propriedades, 0, args));
+        executar(Path.of(arquivoCds + ".log"), comando.toArray(String[]::new));
+        if (!Files.exists(arquivoCds)) {
+            throw new IllegalStateException("Treino não gerou " + arquivoCds + "; veja " + arquivoCds + ".log");
+        }
+        System.out.printf("arquivo %s treinado em %.1fs (%d MB)%n", arquivoCds.getFileName(),
+                (System.nanoTime() - inicio) / 1e9, Files.size(arquivoCds) >> 20);
+
+        List<String> comArquivo = new ArrayList<>(opcoes);
+        comArquivo.add("-XX:SharedArchiveFile=" + arquivoCds);
+        return comArquivo;
+    }
+
+    private static Usuario preparar(String java, Variante variante, Map<String, String> propriedades,
+                                    String[] args, Path trabalho) throws Exception {
+        int porta = portaLivre();
+        Process processo = iniciar(java, variante, porta, propriedades, args, trabalho.resolve("aquecimento.log"));
+        try {
+            Cliente cliente = new Cliente(porta);
+            cliente.aguardar(processo, System.nanoTime(), trabalho.resolve("aquecimento.log"));
+            String email = "inicializacao-" + System.nanoTime() + "@kivo.com";
+            JsonNode usuario = JSON.readTree(cliente.enviar(cliente.post("/usuarios", null,
+                    "{\"nome\":\"Inicializacao\",\"email\":\"%s\",\"senha\":\"%s\",\"cpf\":\"%s\"}"
+                            .formatted(email, SENHA, CargaPontaAPonta.cpf(ThreadLocalRandom.current())))));
+            return new Usuario(usuario.get("id").asText(), email);
+        } finally {
+            encerrar(processo);
+        }
+    }
+
+    private static Medicao medir(String java, Variante variante, int rodada, Usuario usuario,
+                                 Map<String, String> propriedades, String[] args, Path trabalho) throws Exception {
+        int porta = portaLivre();
+        Path log = trabalho.resolve(variante.nome() + "-" + rodada + ".log");
+        long inicio = System.nanoTime();
+        Process processo = iniciar(java, variante, porta, propriedades, args, log);
+        try {
+            Cliente cliente = new Cliente(porta);
+            cliente.aguardar(processo, inicio, log);
+            double pronto = (System.nanoTime() - inicio) / 1e9;
+
+            long inicioLogin = System.nanoTime();
+            JsonNode token = JSON.readTree(cliente.enviar(cliente.post("/login", null,
+                    "{\"email\":\"%s\",\"senha\":\"%s\"}".formatted(usuario.email(), SENHA))));
+            double login = (System.nanoTime() - inicioLogin) / 1e6;
+
+            long inicioExtrato = System.nanoTime();
+            cliente.enviar(cliente.get("/transacoes/extrato?limite=50&usuarioId=" + usuario.id(),
+                    token.get("token").asText()));
+            double extrato = (System.nanoTime() - inicioExtrato) / 1e6;
+
+            return new Medicao(variante.nome(), rodada, pronto, tempoSpring(log), login, extrato);
+        } finally {
+            encerrar(processo);
+        }
+    }
+
+    private static Process iniciar(String java, Variante variante, int porta, Map<String, String> propriedades,
+                                   String[] args, Path log) throws IOException {
+        List<String> comando = new ArrayList<>(List.of(java));
+        comando.addAll(variante.opcoes());
+        comando.addAll(List.of("-jar", variante.jar().toString()));
+        comando.addAll(argumentos(propriedades, porta, args));
+        return new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+    }
+
+    private static List<String> argumentos(Map<String, String> propriedades, int porta, String[] args) {
+        Map<String, String> comPorta = new LinkedHashMap<>(propriedades);
+        comPorta.put("server.port", String.valueOf(porta));
+        return AmbienteLocal.argumentos(comPorta, args);
+    }
+
+    private static void executar(Path log, String... comando) throws IOException, InterruptedException {
+        Process processo = new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        if (!processo.waitFor(LIMITE_SUBIDA.toSeconds(), TimeUnit.SECONDS)) {
+            processo.destroyForcibly();
+            throw new IllegalStateException("Tempo esgotado em " + comando[comando.length - 1] + "; veja " + log);
+        }
+    }
+
+    private static void encerrar(Process processo) throws InterruptedException {
+        processo.destroy();
+        if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+            processo.destroyForcibly().waitFor();
+        }
+    }
+
+    private static double tempoSpring(Path log) throws IOException {
+        Matcher m = INICIADA.matcher(Files.readString(log));
+        return m.find() ? Double.parseDouble(m.group(1)) : Double.NaN;
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double mediana(double[] valores) {
+        if (valores.length == 0) {
+            return Double.NaN;
+        }
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        int meio = ordenados.length / 2;
+        return ordenados.length % 2 == 1 ? ordenados[meio] : (ordenados[meio - 1] + ordenados[meio]) / 2;
+    }
+
+    private static class Cliente {
+
+        private final URI base;
+        private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        Cliente(int porta) {
+            this.base = URI.create("http://127.0.0.1:" + porta);
+        }
+
+        /** Espera o servidor responder qualquer coisa; o health exige token, então 401 também conta. */
+        void aguardar(Process processo, long inicio, Path log) throws InterruptedException {
+            HttpRequest sonda = HttpRequest.newBuilder(base.resolve("/actuator/health")).GET().build();
+            while (System.nanoTime() - inicio < LIMITE_SUBIDA.toNanos()) {
+                if (!processo.isAlive()) {
+                    throw new IllegalStateException("A aplicação terminou durante a subida; veja " + log);
+                }
+                try {
+                    http.send(sonda, HttpResponse.BodyHandlers.discarding());
+                    return;
+                } catch (IOException e) {
+                    Thread.sleep(10);
+                }
+            }
+            throw new IllegalStateException("A aplicação não subiu em " + LIMITE_SUBIDA + "; veja " + log);
+        }
+
+        String enviar(HttpRequest requisicao) throws IOException, InterruptedException {
+            HttpResponse<String> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+            if (resposta.statusCode() >= 400) {
+                throw new IllegalStateException(requisicao.method() + " " + requisicao.uri().getPath()
+                        + " respondeu " + resposta.statusCode() + ": " + resposta.body());
+            }
+            return resposta.body();
+        }
+
+        HttpRequest post(String caminho, String token, String corpo) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(caminho))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        }
+
+        HttpRequest get(String caminho, String token) {
+            return HttpRequest.newBuilder(base.resolve(caminho))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.kivo.benchmarks;
+
+import com.kivo.api.infraestrutura.persistencia.GeradorUuidV7;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Inserção de transações com chave UUID v4 (aleatória) contra v7 (ordenada no tempo) num
+ * Postgres de verdade. Cada variante escreve numa tabela própria com o mesmo formato de
+ * {@code tb_transacoes}, em lotes JDBC, e no fim são impressos a vazão e o tamanho da
+ * tabela e do índice da chave primária. Não é JMH: o efeito aparece quando o índice
+ * deixa de caber no cache, então interessa o volume, não o custo de uma inserção.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar -Durl=jdbc:postgresql://localhost:5432/kivo_db \
+ *     -Dusuario=kivo_user -Dsenha=kivo_pass -Dlinhas=5000000 com.kivo.benchmarks.InsercaoChavesBenchmark
+ * </pre>
+ */
+public class InsercaoChavesBenchmark {
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("url", "jdbc:postgresql://localhost:5432/kivo_db?reWriteBatchedInserts=true");
+        String usuario = System.getProperty("usuario", "kivo_user");
+        String senha = System.getProperty("senha", "kivo_pass");
+        int linhas = Integer.getInteger("linhas", 2_000_000);
+
+        try (Connection conexao = DriverManager.getConnection(url, usuario, senha)) {
+            conexao.setAutoCommit(false);
+            System.out.printf("linhas=%d lote=%d%n", linhas, TAMANHO_LOTE);
+            executar(conexao, "bench_chaves_v4", UUID::randomUUID, linhas);
+            executar(conexao, "bench_chaves_v7", GeradorUuidV7::gerar, linhas);
+        }
+    }
+
+    private static void executar(Connection conexao, String tabela, Supplier<UUID> chaves, int linhas) throws SQLException {
+        try (Statement ddl = conexao.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + tabela);
+            ddl.execute("CREATE TABLE " + tabela + " (id uuid PRIMARY KEY, usuario_id uuid NOT NULL, "
+                    + "valor numeric(38,2) NOT NULL, data timestamp NOT NULL, tipo varchar(20) NOT NULL)");
+        }
+        conexao.commit();
+
+        UUID conta = UUID.randomUUID();
+        long inicio = System.nanoTime();
+        try (PreparedStatement insert = conexao.prepareStatement(
+                "INSERT INTO " + tabela + " (id, usuario_id, valor, data, tipo) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= linhas; i++) {
+                insert.setObject(1, chaves.get());
+                insert.setObject(2, conta);
+                insert.setBigDecimal(3, BigDecimal.valueOf(i % 10_000, 2));
+                insert.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                insert.setString(5, "COMPRA");
+                insert.addBatch();
+
+                if (i % TAMANHO_LOTE == 0) {
+                    insert.executeBatch();
+                    conexao.commit();
+                }
+            }
+            insert.executeBatch();
+            conexao.commit();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        try (Statement consulta = conexao.createStatement();
+             ResultSet rs = consulta.executeQuery("SELECT pg_size_pretty(pg_relation_size('" + tabela + "')), "
+                     + "pg_size_pretty(pg_relation_size('" + tabela + "_pkey'))")) {
+            rs.next();
+            System.out.printf("%s: %.0f linhas/s em %.1fs, tabela %s, índice pk %s%n",
+                    tabela, linhas / segundos, segundos, rs.getString(1), rs.getString(2));
+        }
+        conexao.commit();
+    }
+}
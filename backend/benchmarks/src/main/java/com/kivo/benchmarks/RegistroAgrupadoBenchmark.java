@@ -0,0 +1,179 @@
+package com.kivo.benchmarks;
+
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import com.kivo.api.dominio.modelo.Transacao;
+import com.kivo.api.dominio.modelo.Usuario;
+import com.kivo.api.infraestrutura.persistencia.ColetorLote;
+import com.kivo.api.infraestrutura.persistencia.EscritorTransacoes;
+import com.kivo.api.infraestrutura.persistencia.GeradorUuidV7;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Curvas de latência contra vazão do registro de transações num Postgres de verdade:
+ * um commit por transação (o caminho de {@code ServicoTransacao.registrar}) contra o
+ * commit em grupo de {@link ColetorLote} com algumas janelas. Os dois usam o mesmo
+ * {@link EscritorTransacoes}, então a diferença é só quantas transações cada commit leva.
+ *
+ * Para cada modo e cada nível de concorrência, {@code C} threads registram em laço fechado
+ * por {@code duracao}; cada linha impressa é um ponto da curva (vazão, p50, p99, lote médio).
+ * Precisa de um banco já migrado; as linhas criadas são removidas no fim.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar -Durl=jdbc:postgresql://localhost:5432/kivo_db \
+ *     -Dconcorrencias=1,8,32,128 -Djanelas=0ms,2ms,5ms -Dduracao=15s com.kivo.benchmarks.RegistroAgrupadoBenchmark
+ * </pre>
+ */
+public class RegistroAgrupadoBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("url", "jdbc:postgresql://localhost:5432/kivo_db?reWriteBatchedInserts=true");
+        int[] concorrencias = Arrays.stream(System.getProperty("concorrencias", "1,8,32,128").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        List<Duration> janelas = Arrays.stream(System.getProperty("janelas", "0ms,2ms,5ms").split(","))
+                .map(RegistroAgrupadoBenchmark::duracao).toList();
+        Duration duracao = duracao(System.getProperty("duracao", "10s"));
+        int tamanhoLote = Integer.getInteger("tamanhoLote", 200);
+        int escritores = Integer.getInteger("escritores", 2);
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(System.getProperty("usuario", "kivo_user"));
+        config.setPassword(System.getProperty("senha", "kivo_pass"));
+        config.setMaximumPoolSize(Integer.getInteger("conexoes", 20));
+
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            EscritorTransacoes escritor = new EscritorTransacoes(jdbc,
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+            Usuario usuario = criarUsuario(jdbc);
+
+            try {
+                System.out.println("modo,janela,concorrencia,tx/s,p50_ms,p99_ms,max_ms,lote_medio");
+                for (int c : concorrencias) {
+                    medir("individual", "-", c, duracao, t -> escritor.inserir(List.of(t)), usuario, () -> 1.0);
+                }
+                for (Duration janela : janelas) {
+                    AtomicLong lotes = new AtomicLong();
+                    AtomicLong gravadas = new AtomicLong();
+                    try (ColetorLote<Transacao, Transacao> coletor = new ColetorLote<>("bench", janela, tamanhoLote,
+                            10_000, escritores, lote -> {
+                                escritor.inserir(lote.stream().map(ColetorLote.Pendente::pedido).toList());
+                                lotes.incrementAndGet();
+                                gravadas.addAndGet(lote.size());
+                                lote.forEach(p -> p.concluir(p.pedido()));
+                            })) {
+                        for (int c : concorrencias) {
+                            lotes.set(0);
+                            gravadas.set(0);
+                            medir("agrupado", janela.toMillis() + "ms", c, duracao, t -> coletor.enviar(t).join(), usuario,
+                                    () -> lotes.get() == 0 ? 0 : (double) gravadas.get() / lotes.get());
+                        }
+                    }
+                }
+            } finally {
+                limpar(jdbc, usuario.getId());
+            }
+        }
+    }
+
+    private static void medir(String modo, String janela, int concorrencia, Duration duracao,
+                              Consumer<Transacao> registrar, Usuario usuario,
+                              DoubleSupplier loteMedio) throws InterruptedException {
+        long fim = System.nanoTime() + duracao.toNanos();
+        long[][] latencias = new long[concorrencia][];
+        int[] contagens = new int[concorrencia];
+        CountDownLatch pronto = new CountDownLatch(concorrencia);
+
+        for (int i = 0; i < concorrencia; i++) {
+            int indice = i;
+            Thread thread = new Thread(() -> {
+                long[] amostras = new long[4096];
+                int n = 0;
+                while (System.nanoTime() < fim) {
+                    Transacao transacao = new Transacao(BigDecimal.valueOf(1 + n % 500, 2), TipoTransacao.COMPRA,
+                            CategoriaTransacao.ALIMENTACAO, usuario, null, BigDecimal.ONE, "BRL");
+                    transacao.setId(GeradorUuidV7.gerar());
+                    long inicio = System.nanoTime();
+                    registrar.accept(transacao);
+                    if (n == amostras.length) {
+                        amostras = Arrays.copyOf(amostras, n * 2);
+                    }
+                    amostras[n++] = System.nanoTime() - inicio;
+                }
+                latencias[indice] = amostras;
+                contagens[indice] = n;
+                pronto.countDown();
+            });
+            thread.start();
+        }
+        pronto.await();
+
+        int total = Arrays.stream(contagens).sum();
+        long[] todas = new long[total];
+        int posicao = 0;
+        for (int i = 0; i < concorrencia; i++) {
+            System.arraycopy(latencias[i], 0, todas, posicao, contagens[i]);
+            posicao += contagens[i];
+        }
+        Arrays.sort(todas);
+
+        System.out.printf("%s,%s,%d,%.0f,%.2f,%.2f,%.2f,%.1f%n", modo, janela, concorrencia,
+                total / (duracao.toNanos() / 1e9), percentil(todas, 0.50), percentil(todas, 0.99),
+                todas.length == 0 ? 0 : todas[todas.length - 1] / 1e6, loteMedio.getAsDouble());
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+
+    private static Usuario criarUsuario(JdbcTemplate jdbc) throws ReflectiveOperationException {
+        UUID id = GeradorUuidV7.gerar();
+        String sufixo = id.toString().substring(24);
+        jdbc.update("INSERT INTO tb_usuarios (id, nome, email, senha, cpf) VALUES (?, ?, ?, ?, ?)",
+                id, "Benchmark", "bench-" + sufixo + "@kivo", "-", sufixo.substring(1));
+
+        // O benchmark não passa pelo JPA; o id é atribuído direto no campo.
+        Usuario usuario = new Usuario();
+        Field campoId = Usuario.class.getDeclaredField("id");
+        campoId.setAccessible(true);
+        campoId.set(usuario, id);
+        return usuario;
+    }
+
+    private static void limpar(JdbcTemplate jdbc, UUID usuarioId) {
+        jdbc.update("DELETE FROM tb_outbox o USING tb_transacoes t WHERE t.id = o.transacao_id AND t.usuario_id = ?", usuarioId);
+        jdbc.update("DELETE FROM tb_lancamentos WHERE conta_id = ?", usuarioId);
+        jdbc.update("DELETE FROM tb_transacoes WHERE usuario_id = ?", usuarioId);
+        jdbc.update("DELETE FROM tb_usuarios WHERE id = ?", usuarioId);
+    }
+
+    private static Duration duracao(String texto) {
+        String valor = texto.trim();
+        if (valor.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(valor.substring(0, valor.length() - 2)));
+        }
+        if (valor.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(valor.substring(0, valor.length() - 1)));
+        }
+        return Duration.parse(valor);
+    }
+}
@@ -0,0 +1,73 @@
+package com.kivo.benchmarks;
+
+import com.kivo.api.aplicacao.dto.ExtratoDTO;
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
+import com.kivo.api.aplicacao.servico.ServicoRelatorio;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderização do extrato em PDF sem banco: as transações são geradas em memória uma
+ * única vez e o PDF é escrito num stream que só conta bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class RenderizacaoExtratoBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int linhas;
+
+    private final ServicoRelatorio relatorio = new ServicoRelatorio();
+    private final ExtratoDTO cabecalho = new ExtratoDTO("Cliente Benchmark", new BigDecimal("15234.90"), List.of(), null);
+    private final UUID conta = UUID.randomUUID();
+    private List<LinhaExtratoDTO> transacoes;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        transacoes = DadosExtrato.linhas(conta, linhas);
+    }
+
+    @Benchmark
+    public long renderizarExtrato(Blackhole bh) {
+        ContadorBytes saida = new ContadorBytes(bh);
+
+        ServicoRelatorio.ExtratoPdf pdf = relatorio.iniciarExtrato(cabecalho, conta, saida);
+        for (LinhaExtratoDTO t : transacoes) {
+            pdf.adicionar(t);
+        }
+        pdf.concluir();
+
+        return saida.bytes;
+    }
+
+    private static class ContadorBytes extends OutputStream {
+
+        private final Blackhole bh;
+        private long bytes;
+
+        ContadorBytes(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bh.consume(b);
+            bytes += len;
+        }
+    }
+}
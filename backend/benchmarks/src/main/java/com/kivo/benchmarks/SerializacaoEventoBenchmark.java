@@ -0,0 +1,100 @@
+package com.kivo.benchmarks;
+
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import com.kivo.api.dominio.modelo.Transacao;
+import com.kivo.api.dominio.modelo.Usuario;
+import com.kivo.api.infraestrutura.mensageria.DesserializadorEventoTransacao;
+import com.kivo.api.infraestrutura.mensageria.EventoTransacao;
+import com.kivo.api.infraestrutura.mensageria.SerializadorEventoTransacao;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o caminho antigo (entidade {@link Transacao} em JSON, com cabeçalho de tipo)
+ * com o {@link EventoTransacao} binário. O tamanho de cada payload é impresso no setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacaoEventoBenchmark {
+
+    private static final String TOPICO = "transaction.requested";
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+    private final SerializadorEventoTransacao binarioSerializer = new SerializadorEventoTransacao();
+    private final DesserializadorEventoTransacao binarioDeserializer = new DesserializadorEventoTransacao();
+
+    private Transacao transacao;
+    private EventoTransacao evento;
+    private RecordHeaders cabecalhosJson;
+    private byte[] payloadJson;
+    private byte[] payloadBinario;
+
+    @Setup
+    public void preparar() throws ReflectiveOperationException {
+        jsonDeserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.VALUE_DEFAULT_TYPE, Transacao.class.getName()
+        ), false);
+
+        transacao = new Transacao(
+                new BigDecimal("1234.56"),
+                TipoTransacao.TRANSFERENCIA,
+                CategoriaTransacao.LAZER,
+                usuario("Maria Silva"),
+                usuario("João Souza"),
+                new BigDecimal("5.4321"),
+                "USD"
+        );
+        transacao.setId(UUID.randomUUID());
+        evento = EventoTransacao.de(transacao);
+
+        cabecalhosJson = new RecordHeaders();
+        payloadJson = jsonSerializer.serialize(TOPICO, cabecalhosJson, transacao);
+        payloadBinario = binarioSerializer.serialize(TOPICO, evento);
+
+        System.out.printf("%nPayload JSON: %d bytes | binário: %d bytes%n", payloadJson.length, payloadBinario.length);
+    }
+
+    @Benchmark
+    public byte[] serializarJson() {
+        return jsonSerializer.serialize(TOPICO, new RecordHeaders(), transacao);
+    }
+
+    @Benchmark
+    public byte[] serializarBinario() {
+        return binarioSerializer.serialize(TOPICO, EventoTransacao.de(transacao));
+    }
+
+    @Benchmark
+    public Object desserializarJson() {
+        return jsonDeserializer.deserialize(TOPICO, cabecalhosJson, payloadJson);
+    }
+
+    @Benchmark
+    public EventoTransacao desserializarBinario() {
+        return binarioDeserializer.deserialize(TOPICO, payloadBinario);
+    }
+
+    private static Usuario usuario(String nome) throws ReflectiveOperationException {
+        Usuario usuario = new Usuario(nome, nome.replace(' ', '.').toLowerCase() + "@kivo.com",
+                "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BkN5H5bWsp0yYQzq8vEGfp0H5c6u", "123.456.789-00");
+        Field id = Usuario.class.getDeclaredField("id");
+        id.setAccessible(true);
+        id.set(usuario, UUID.randomUUID());
+        return usuario;
+    }
+}
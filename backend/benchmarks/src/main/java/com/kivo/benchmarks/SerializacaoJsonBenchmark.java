@@ -0,0 +1,66 @@
+package com.kivo.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kivo.api.aplicacao.dto.CursorExtrato;
+import com.kivo.api.aplicacao.dto.ExtratoDTO;
+import com.kivo.api.aplicacao.dto.TransacaoSaidaDTO;
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.StatusTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Corpo das respostas em JSON com o {@link ObjectMapper} configurado como o do Spring Boot:
+ * uma página de {@link ExtratoDTO} (o tamanho padrão e o máximo de {@code GET /transacoes/extrato})
+ * e o {@link TransacaoSaidaDTO} devolvido pelo registro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoJsonBenchmark {
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @State(Scope.Benchmark)
+    public static class Pagina {
+
+        @Param({"50", "200"})
+        private int linhas;
+
+        private ExtratoDTO extrato;
+
+        @Setup
+        public void preparar() {
+            extrato = new ExtratoDTO("Cliente Benchmark", new BigDecimal("15234.90"),
+                    DadosExtrato.linhas(UUID.randomUUID(), linhas),
+                    new CursorExtrato(LocalDateTime.now(), UUID.randomUUID()).codificar());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Resposta {
+
+        private final TransacaoSaidaDTO transacao = new TransacaoSaidaDTO(UUID.randomUUID(), new BigDecimal("1234.56"),
+                TipoTransacao.COMPRA, CategoriaTransacao.ALIMENTACAO, StatusTransacao.PENDING,
+                new BigDecimal("5.4321"), LocalDateTime.now());
+    }
+
+    @Benchmark
+    public byte[] serializarExtrato(Pagina pagina) throws JsonProcessingException {
+        return MAPPER.writeValueAsBytes(pagina.extrato);
+    }
+
+    @Benchmark
+    public byte[] serializarTransacao(Resposta resposta) throws JsonProcessingException {
+        return MAPPER.writeValueAsBytes(resposta.transacao);
+    }
+}
@@ -0,0 +1,147 @@
+package com.kivo.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Substituto local da BrasilAPI e do MockAPI, com latência fixa e taxa de erros por upstream.
+ *
+ * <ul>
+ *   <li>{@code GET /brasilapi/cambio/v1/cotacao/{moeda}/{data}}: uma cotação de venda fixa.</li>
+ *   <li>{@code POST /mockapi/saldoInicial}: guarda o saldo do usuário em memória.</li>
+ *   <li>{@code GET /mockapi/saldoInicial?usuarioId=}: devolve o saldo guardado, ou lista vazia.</li>
+ * </ul>
+ *
+ * Com taxa de erros, essa fração das chamadas (sorteada a cada uma) responde 503 depois da
+ * mesma latência, sem atender a rota, para exercitar o circuit breaker de cada upstream.
+ * As URLs base vão em {@code kivo.http.brasilapi.url} e {@code kivo.http.mockapi.url}.
+ */
+class ServidorStub implements AutoCloseable {
+
+    private static final Pattern COTACAO = Pattern.compile("/brasilapi/cambio/v1/cotacao/([A-Z]{3})/([0-9-]{10})");
+    private static final Pattern USUARIO_ID = Pattern.compile("\"usuarioId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern SALDO = Pattern.compile("\"saldo\"\\s*:\\s*([0-9.]+)");
+
+    private final HttpServer servidor;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, String> saldos = new ConcurrentHashMap<>();
+    private final AtomicLong chamadasCambio = new AtomicLong();
+    private final AtomicLong chamadasSaldo = new AtomicLong();
+    private final AtomicLong errosCambio = new AtomicLong();
+    private final AtomicLong errosSaldo = new AtomicLong();
+
+    ServidorStub(Duration latenciaCambio, Duration latenciaSaldo, double taxaErrosCambio, double taxaErrosSaldo) throws IOException {
+        if (taxaErrosCambio < 0 || taxaErrosCambio > 1 || taxaErrosSaldo < 0 || taxaErrosSaldo > 1) {
+            throw new IllegalArgumentException("Taxas de erro precisam estar entre 0 e 1");
+        }
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        servidor.setExecutor(executor);
+        servidor.createContext("/brasilapi/", troca ->
+                responder(troca, latenciaCambio, taxaErrosCambio, chamadasCambio, errosCambio, this::cotacao));
+        servidor.createContext("/mockapi/saldoInicial", troca ->
+                responder(troca, latenciaSaldo, taxaErrosSaldo, chamadasSaldo, errosSaldo, this::saldo));
+        servidor.start();
+    }
+
+    URI urlBrasilApi() {
+        return URI.create("http://127.0.0.1:" + servidor.getAddress().getPort() + "/brasilapi");
+    }
+
+    URI urlMockApi() {
+        return URI.create("http://127.0.0.1:" + servidor.getAddress().getPort() + "/mockapi");
+    }
+
+    long chamadasCambio() { return chamadasCambio.get(); }
+    long chamadasSaldo() { return chamadasSaldo.get(); }
+    long errosCambio() { return errosCambio.get(); }
+    long errosSaldo() { return errosSaldo.get(); }
+
+    private record Resposta(int status, String corpo) {}
+
+    @FunctionalInterface
+    private interface Rota {
+        Resposta atender(HttpExchange troca) throws IOException;
+    }
+
+    private void responder(HttpExchange troca, Duration latencia, double taxaErros,
+                           AtomicLong contador, AtomicLong erros, Rota rota) throws IOException {
+        try (troca) {
+            contador.incrementAndGet();
+            Resposta resposta;
+            if (taxaErros > 0 && ThreadLocalRandom.current().nextDouble() < taxaErros) {
+                erros.incrementAndGet();
+                resposta = new Resposta(503, "{\"message\":\"erro simulado\"}");
+            } else {
+                resposta = rota.atender(troca);
+            }
+            if (!latencia.isZero()) {
+                Thread.sleep(latencia.toMillis());
+            }
+
+            byte[] corpo = resposta.corpo().getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", "application/json");
+            troca.sendResponseHeaders(resposta.status(), corpo.length == 0 ? -1 : corpo.length);
+            if (corpo.length > 0) {
+                try (OutputStream saida = troca.getResponseBody()) {
+                    saida.write(corpo);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Resposta cotacao(HttpExchange troca) {
+        Matcher m = COTACAO.matcher(troca.getRequestURI().getPath());
+        if (!m.matches()) {
+            return new Resposta(404, "{\"message\":\"rota desconhecida\"}");
+        }
+        return new Resposta(200, """
+                {"moeda":"%s","data":"%s","cotacoes":[{"cotacao_compra":5.4300,"cotacao_venda":5.4321,"tipo_boletim":"FECHAMENTO"}]}"""
+                .formatted(m.group(1), m.group(2)));
+    }
+
+    private Resposta saldo(HttpExchange troca) throws IOException {
+        if ("POST".equals(troca.getRequestMethod())) {
+            String corpo;
+            try (InputStream entrada = troca.getRequestBody()) {
+                corpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            Matcher usuario = USUARIO_ID.matcher(corpo);
+            Matcher saldo = SALDO.matcher(corpo);
+            if (!usuario.find() || !saldo.find()) {
+                return new Resposta(400, "{\"message\":\"corpo inválido\"}");
+            }
+            saldos.put(usuario.group(1), saldo.group(1));
+            return new Resposta(201, corpo);
+        }
+
+        String consulta = troca.getRequestURI().getQuery();
+        String usuarioId = consulta != null && consulta.startsWith("usuarioId=") ? consulta.substring(10) : "";
+        String saldo = saldos.get(usuarioId);
+        return new Resposta(200, saldo == null ? "[]"
+                : "[{\"id\":\"1\",\"usuarioId\":\"%s\",\"saldo\":%s}]".formatted(usuarioId, saldo));
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        executor.shutdownNow();
+    }
+}
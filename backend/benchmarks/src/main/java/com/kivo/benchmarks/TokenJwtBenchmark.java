@@ -0,0 +1,39 @@
+package com.kivo.benchmarks;
+
+import com.kivo.api.dominio.modelo.Usuario;
+import com.kivo.api.infraestrutura.seguranca.ServicoToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão do token no login e verificação em toda requisição autenticada
+ * ({@code FiltroSeguranca}), com HMAC-SHA256.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenJwtBenchmark {
+
+    private final ServicoToken servico = new ServicoToken("segredo-de-benchmark");
+    private final Usuario usuario = new Usuario("Maria Silva", "maria.silva@kivo.com", "-", "123.456.789-00");
+    private String token;
+
+    @Setup
+    public void preparar() {
+        token = servico.gerar(usuario);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return servico.gerar(usuario);
+    }
+
+    @Benchmark
+    public String verificarToken() {
+        return servico.getSubject(token);
+    }
+}
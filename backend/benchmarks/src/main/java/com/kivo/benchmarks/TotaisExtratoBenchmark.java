@@ -0,0 +1,44 @@
+package com.kivo.benchmarks;
+
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
+import com.kivo.api.aplicacao.servico.ServicoRelatorio;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * O laço de entradas e saídas do extrato isolado do PDF, para separar o custo das somas
+ * em {@link java.math.BigDecimal} do custo da renderização.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class TotaisExtratoBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int linhas;
+
+    private final UUID conta = UUID.randomUUID();
+    private List<LinhaExtratoDTO> transacoes;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        transacoes = DadosExtrato.linhas(conta, linhas);
+    }
+
+    @Benchmark
+    public void somarTotais(Blackhole bh) {
+        ServicoRelatorio.TotaisExtrato totais = new ServicoRelatorio.TotaisExtrato(conta);
+        for (LinhaExtratoDTO t : transacoes) {
+            totais.somar(t);
+        }
+        bh.consume(totais.entradas());
+        bh.consume(totais.saidas());
+    }
+}
@@ -0,0 +1,29 @@
+package com.kivo.api.aplicacao.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+public record CursorExtrato(LocalDateTime data, UUID id) {
+
+    private static final String SEPARADOR = "|";
+
+    public String codificar() {
+        String bruto = data + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorExtrato decodificar(String cursor) {
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = bruto.indexOf(SEPARADOR);
+            return new CursorExtrato(
+                    LocalDateTime.parse(bruto.substring(0, separador)),
+                    UUID.fromString(bruto.substring(separador + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de extrato inválido");
+        }
+    }
+}
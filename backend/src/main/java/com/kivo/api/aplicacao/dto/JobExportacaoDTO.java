@@ -0,0 +1,20 @@
+package com.kivo.api.aplicacao.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record JobExportacaoDTO(
+        UUID id,
+        UUID usuarioId,
+        StatusExportacao status,
+        String erro,
+        LocalDateTime criadoEm,
+        LocalDateTime concluidoEm
+) {
+    public enum StatusExportacao {
+        PENDENTE,
+        PROCESSANDO,
+        CONCLUIDO,
+        FALHOU
+    }
+}
@@ -0,0 +1,26 @@
+package com.kivo.api.aplicacao.dto;
+
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.StatusTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Linha de extrato lida direto das colunas de {@code tb_transacoes}: remetente e
+ * destinatário vêm só como ids, sem carregar os usuários.
+ */
+public record LinhaExtratoDTO(
+        UUID id,
+        BigDecimal valor,
+        TipoTransacao tipo,
+        CategoriaTransacao categoria,
+        StatusTransacao status,
+        String moeda,
+        BigDecimal taxaCambio,
+        LocalDateTime data,
+        UUID remetenteId,
+        UUID destinatarioId
+) {}
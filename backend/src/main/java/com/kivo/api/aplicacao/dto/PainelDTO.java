@@ -0,0 +1,17 @@
+package com.kivo.api.aplicacao.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Dados do painel. Componentes que não responderam dentro do prazo vêm nulos e são
+ * listados em {@code indisponiveis}.
+ */
+public record PainelDTO(
+        String usuario,
+        BigDecimal saldo,
+        List<LinhaExtratoDTO> recentes,
+        List<AnaliseDiariaDTO> serieDiaria,
+        List<AnaliseCategoriaDTO> categorias,
+        List<String> indisponiveis
+) {}
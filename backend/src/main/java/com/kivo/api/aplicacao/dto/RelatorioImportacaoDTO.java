@@ -0,0 +1,19 @@
+package com.kivo.api.aplicacao.dto;
+
+import java.util.List;
+
+public record RelatorioImportacaoDTO(
+        int totalLinhas,
+        int importados,
+        int rejeitados,
+        List<LinhaImportacao> linhas
+) {
+    public record LinhaImportacao(int linha, String email, StatusLinha status, String mensagem) {}
+
+    public enum StatusLinha {
+        IMPORTADO,
+        INCOMPLETO,
+        DUPLICADO,
+        ERRO
+    }
+}
@@ -0,0 +1,15 @@
+package com.kivo.api.aplicacao.dto;
+
+import java.math.BigDecimal;
+
+public record TotalLancamentosDTO(Long quantidade, BigDecimal soma) {
+
+    public TotalLancamentosDTO {
+        if (quantidade == null) {
+            quantidade = 0L;
+        }
+        if (soma == null) {
+            soma = BigDecimal.ZERO;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.kivo.api.aplicacao.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Versão do extrato de uma conta: muda quando entra um lançamento e quando um lançamento
+ * é efetivado, ou seja, sempre que o saldo muda.
+ */
+public record VersaoExtratoDTO(
+        Long quantidade,
+        Long efetivados,
+        LocalDateTime ultimaMovimentacao
+) {
+    /**
+     * Identifica o documento emitido na data informada, que também vai impressa nele.
+     */
+    public String identificador(LocalDate emissao) {
+        long marca = ultimaMovimentacao != null ? ultimaMovimentacao.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        long saldo = efetivados != null ? efetivados : 0L;
+        return quantidade + "-" + saldo + "-" + marca + "-" + emissao.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
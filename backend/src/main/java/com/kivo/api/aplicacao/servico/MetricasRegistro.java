@@ -0,0 +1,121 @@
+package com.kivo.api.aplicacao.servico;
+
+import com.kivo.api.dominio.modelo.StatusTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latência do registro de transações, com histograma e marcada por {@code tipo} e {@code moeda}:
+ *
+ * <ul>
+ *   <li>{@code kivo.registro.duracao}: a chamada inteira, com commit ({@code caminho} individual ou agrupado).</li>
+ *   <li>{@code kivo.registro.etapa}: cada etapa ({@code usuario}, {@code destinatario}, {@code cambio},
+ *       {@code gravacao}, {@code commit} e, no caminho agrupado, {@code lote}).</li>
+ *   <li>{@code kivo.transacao.conclusao}: da criação da transação até o consumidor gravar
+ *       APPROVED ou REJECTED, medida no commit do consumidor.</li>
+ * </ul>
+ *
+ * A moeda vem do cliente; só as de {@code kivo.registro.metricas.moedas} viram valor de tag,
+ * as demais aparecem como {@code OUTRAS}.
+ */
+@Component
+public class MetricasRegistro {
+
+    private static final String OUTRAS = "OUTRAS";
+
+    private final MeterRegistry registry;
+    private final Set<String> moedas;
+
+    public MetricasRegistro(MeterRegistry registry,
+                            @Value("${kivo.registro.metricas.moedas:BRL,USD,EUR}") Set<String> moedas) {
+        this.registry = registry;
+        this.moedas = moedas;
+    }
+
+    public <T> T etapa(String etapa, TipoTransacao tipo, String moeda, Supplier<T> acao) {
+        long inicio = System.nanoTime();
+        try {
+            return acao.get();
+        } finally {
+            registrarEtapa(etapa, tipo, moeda, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Mede o commit da transação corrente como a etapa {@code commit}. Sem transação ativa não faz nada.
+     */
+    public void medirCommit(TipoTransacao tipo, String moeda) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private long inicio;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                inicio = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                registrarEtapa("commit", tipo, moeda, System.nanoTime() - inicio);
+            }
+        });
+    }
+
+    public void registrarDuracao(String caminho, TipoTransacao tipo, String moeda, boolean sucesso, long nanos) {
+        Timer.builder("kivo.registro.duracao")
+                .description("Duração do registro de uma transação, do início da chamada ao commit")
+                .tag("caminho", caminho)
+                .tag("tipo", tipo.name())
+                .tag("moeda", tagMoeda(moeda))
+                .tag("resultado", sucesso ? "sucesso" : "falha")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Tempo desde a criação da transação até o status final. Registre só depois do commit
+     * do consumidor; o relógio é o de cada instância, então a medida inclui a diferença entre eles.
+     */
+    public void registrarConclusao(TipoTransacao tipo, String moeda, StatusTransacao status, LocalDateTime criacao) {
+        Timer.builder("kivo.transacao.conclusao")
+                .description("Tempo entre o registro da transação e a gravação do status final pelo consumidor")
+                .tag("tipo", tipo.name())
+                .tag("moeda", tagMoeda(moeda))
+                .tag("status", status.name())
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Duration.between(criacao, LocalDateTime.now()));
+    }
+
+    private void registrarEtapa(String etapa, TipoTransacao tipo, String moeda, long nanos) {
+        Timer.builder("kivo.registro.etapa")
+                .description("Duração de cada etapa do registro de transações")
+                .tag("etapa", etapa)
+                .tag("tipo", tipo.name())
+                .tag("moeda", tagMoeda(moeda))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String tagMoeda(String moeda) {
+        String codigo = moeda == null ? "BRL" : moeda.toUpperCase(Locale.ROOT);
+        return moedas.contains(codigo) ? codigo : OUTRAS;
+    }
+}
@@ -0,0 +1,338 @@
+package com.kivo.api.aplicacao.servico;
+
+import com.kivo.api.aplicacao.dto.TotalLancamentosDTO;
+import com.kivo.api.dominio.modelo.SaldoConta;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import com.kivo.api.dominio.repositorio.RepositorioSaldo;
+import com.kivo.api.dominio.repositorio.RepositorioUsuario;
+import com.kivo.api.infraestrutura.cliente.ClienteSaldoMock;
+import com.kivo.api.infraestrutura.mensageria.EventoTransacao;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Saldos das contas mantidos em memória pela instância dona de cada conta.
+ *
+ * Os eventos são particionados pela conta que movimentam, então só o consumidor da
+ * partição de uma conta altera o saldo dela. Só ele carrega a conta em memória, em
+ * {@link #processar}; quando a partição é revogada, {@link #liberar} grava e descarta as
+ * contas dela. As consultas usam a memória quando a conta está carregada aqui e, nos
+ * demais casos, leem o saldo do banco sem guardá-lo.
+ *
+ * Cada conta tem o saldo de trabalho, que o processamento altera antes do commit, e o
+ * saldo confirmado, que é o que as consultas e o snapshot enxergam. Os locks listrados
+ * separam o processamento da gravação do snapshot.
+ *
+ * O valor de referência de uma conta é o saldo inicial somado aos lançamentos efetivados.
+ * O snapshot em {@code tb_saldos} recebe valores absolutos e só avança: a gravação exige
+ * mais lançamentos efetivados do que os que já estão lá. Ao carregar uma conta, o snapshot
+ * é conferido pela quantidade de lançamentos efetivados no livro e, se estiver defasado,
+ * o saldo é refeito a partir do livro só em memória; o banco é atualizado na próxima
+ * gravação.
+ */
+@Service
+public class MotorSaldo {
+
+    private static final Logger log = LoggerFactory.getLogger(MotorSaldo.class);
+
+    private static final String SQL_GRAVAR_SNAPSHOT = """
+        UPDATE tb_saldos
+        SET saldo = ?, lancamentos_efetivados = ?, atualizado_em = now()
+        WHERE conta_id = ? AND lancamentos_efetivados < ?
+    """;
+
+    private final RepositorioSaldo saldoRepository;
+    private final RepositorioUsuario usuarioRepository;
+    private final ClienteSaldoMock mockSaldoClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, Conta> contas = new ConcurrentHashMap<>();
+    private final ReentrantLock[] listras;
+
+    public MotorSaldo(RepositorioSaldo saldoRepository,
+                      RepositorioUsuario usuarioRepository,
+                      ClienteSaldoMock mockSaldoClient,
+                      JdbcTemplate jdbcTemplate,
+                      MeterRegistry registry,
+                      @Value("${kivo.saldos.listras:1024}") int quantidadeListras) {
+        this.saldoRepository = saldoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.mockSaldoClient = mockSaldoClient;
+        this.jdbcTemplate = jdbcTemplate;
+
+        this.listras = new ReentrantLock[Integer.highestOneBit(Math.max(quantidadeListras, 1) * 2 - 1)];
+        for (int i = 0; i < listras.length; i++) {
+            listras[i] = new ReentrantLock();
+        }
+
+        Gauge.builder("kivo.saldos.contas", contas, Map::size)
+                .description("Contas com saldo carregado em memória")
+                .register(registry);
+    }
+
+    public BigDecimal consultar(UUID contaId) {
+        Conta conta = contas.get(contaId);
+        return conta != null ? conta.saldoConfirmado : ler(contaId).saldo();
+    }
+
+    /**
+     * Registra o saldo inicial de uma conta nova, na transação de quem cadastra o usuário.
+     */
+    public void registrarConta(UUID contaId, BigDecimal saldoInicial) {
+        saldoRepository.inserirSeAusente(contaId, saldoInicial);
+    }
+
+    /**
+     * Aplica os eventos de uma partição na ordem recebida. Débitos que deixariam a conta de
+     * origem negativa são rejeitados; créditos de transferência são sempre aplicados e não
+     * entram no resultado. Os saldos de trabalho mudam imediatamente; se a transação do
+     * banco em andamento for desfeita, os movimentos são revertidos.
+     */
+    public ResultadoSaldo processar(int particao, List<EventoTransacao> eventos) {
+        List<UUID> aprovadas = new ArrayList<>(eventos.size());
+        List<UUID> rejeitadas = new ArrayList<>();
+        List<Movimento> movimentos = new ArrayList<>(eventos.size());
+
+        for (EventoTransacao evento : eventos) {
+            if (evento.credito()) {
+                creditar(particao, evento, movimentos);
+            } else if (aplicar(particao, evento, movimentos)) {
+                aprovadas.add(evento.id());
+            } else {
+                rejeitadas.add(evento.id());
+            }
+        }
+
+        concluirAoFimDaTransacao(movimentos);
+        return new ResultadoSaldo(aprovadas, rejeitadas);
+    }
+
+    @Scheduled(fixedDelayString = "${kivo.saldos.intervalo-snapshot:5s}")
+    public void gravarSnapshot() {
+        gravar(contas.values());
+    }
+
+    /**
+     * Grava e descarta as contas das partições que esta instância deixou de consumir.
+     * Chamado pelo consumidor que perdeu as partições, entre um lote e outro, então não há
+     * processamento delas em andamento; o lock de cada conta afasta a gravação periódica.
+     */
+    public void liberar(Collection<Integer> particoes) {
+        List<Conta> liberadas = new ArrayList<>();
+        for (Conta conta : contas.values()) {
+            if (particoes.contains(conta.particao)) {
+                executarComLock(conta, () -> contas.remove(conta.id, conta));
+                liberadas.add(conta);
+            }
+        }
+        gravar(liberadas);
+        log.debug("{} contas das partições {} liberadas", liberadas.size(), particoes);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravarSnapshot();
+    }
+
+    private void gravar(Collection<Conta> selecionadas) {
+        List<Object[]> linhas = new ArrayList<>();
+        List<Conta> incluidas = new ArrayList<>();
+
+        for (Conta conta : selecionadas) {
+            executarComLock(conta, () -> {
+                if (conta.lancamentos > conta.lancamentosGravados) {
+                    linhas.add(new Object[]{conta.saldoConfirmado, conta.lancamentos, conta.id, conta.lancamentos});
+                    incluidas.add(conta);
+                }
+                return true;
+            });
+        }
+
+        if (linhas.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(SQL_GRAVAR_SNAPSHOT, linhas);
+            log.debug("Snapshot de saldos gravado para {} contas", linhas.size());
+        } catch (DataAccessException e) {
+            log.warn("Falha ao gravar snapshot de saldos, nova tentativa na próxima rodada: {}", e.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < incluidas.size(); i++) {
+            Conta conta = incluidas.get(i);
+            long gravados = (Long) linhas.get(i)[1];
+            executarComLock(conta, () -> {
+                conta.lancamentosGravados = Math.max(conta.lancamentosGravados, gravados);
+                return true;
+            });
+        }
+    }
+
+    private boolean aplicar(int particao, EventoTransacao evento, List<Movimento> movimentos) {
+        Conta origem = obter(evento.usuarioId(), particao);
+        BigDecimal valor = evento.valor();
+
+        return executarComLock(origem, () -> {
+            if (evento.tipo() == TipoTransacao.DEPOSITO) {
+                movimentar(origem, valor, movimentos);
+                return true;
+            }
+            if (origem.saldo.compareTo(valor) < 0) {
+                return false;
+            }
+            movimentar(origem, valor.negate(), movimentos);
+            return true;
+        });
+    }
+
+    private void creditar(int particao, EventoTransacao evento, List<Movimento> movimentos) {
+        Conta destino = obter(evento.destinatarioId(), particao);
+        executarComLock(destino, () -> {
+            movimentar(destino, evento.valor(), movimentos);
+            return true;
+        });
+    }
+
+    private void movimentar(Conta conta, BigDecimal valor, List<Movimento> movimentos) {
+        conta.saldo = conta.saldo.add(valor);
+        movimentos.add(new Movimento(conta, valor));
+    }
+
+    private void concluirAoFimDaTransacao(List<Movimento> movimentos) {
+        if (movimentos.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            movimentos.forEach(this::confirmar);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    movimentos.forEach(m -> confirmar(m));
+                } else {
+                    movimentos.forEach(m -> executarComLock(m.conta(), () -> {
+                        m.conta().saldo = m.conta().saldo.subtract(m.valor());
+                        return true;
+                    }));
+                }
+            }
+        });
+    }
+
+    private void confirmar(Movimento movimento) {
+        Conta conta = movimento.conta();
+        executarComLock(conta, () -> {
+            conta.saldoConfirmado = conta.saldoConfirmado.add(movimento.valor());
+            conta.lancamentos++;
+            return true;
+        });
+    }
+
+    /**
+     * Carrega a conta fora de qualquer lock (são consultas ao banco e, para contas sem
+     * snapshot, uma chamada ao MockAPI) e publica com {@code putIfAbsent}.
+     */
+    private Conta obter(UUID contaId, int particao) {
+        Conta conta = contas.get(contaId);
+        if (conta != null) {
+            return conta;
+        }
+
+        Conta carregada = new Conta(contaId, particao, ler(contaId));
+        Conta existente = contas.putIfAbsent(contaId, carregada);
+        return existente != null ? existente : carregada;
+    }
+
+    private SaldoLivro ler(UUID contaId) {
+        SaldoConta snapshot = saldoRepository.findById(contaId).orElseGet(() -> semear(contaId));
+        TotalLancamentosDTO livro = saldoRepository.totalizarLancamentosEfetivados(contaId);
+
+        if (livro.quantidade() == snapshot.getLancamentosEfetivados()) {
+            return new SaldoLivro(snapshot.getSaldo(), livro.quantidade(), snapshot.getLancamentosEfetivados());
+        }
+
+        log.debug("Snapshot de saldo da conta {} defasado ({} de {} lançamentos), usando o livro",
+                contaId, snapshot.getLancamentosEfetivados(), livro.quantidade());
+        return new SaldoLivro(snapshot.getSaldoInicial().add(livro.soma()),
+                livro.quantidade(), snapshot.getLancamentosEfetivados());
+    }
+
+    private SaldoConta semear(UUID contaId) {
+        if (!usuarioRepository.existsById(contaId)) {
+            throw new EntityNotFoundException("Usuário não encontrado");
+        }
+
+        saldoRepository.inserirSeAusente(contaId, mockSaldoClient.buscarSaldo(contaId.toString()));
+        return saldoRepository.findById(contaId).orElseThrow();
+    }
+
+    private boolean executarComLock(Conta conta, BooleanSupplier acao) {
+        ReentrantLock lock = listra(conta.id);
+        lock.lock();
+        try {
+            return acao.getAsBoolean();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock listra(UUID contaId) {
+        return listras[indiceListra(contaId)];
+    }
+
+    private int indiceListra(UUID contaId) {
+        int h = contaId.hashCode();
+        return (h ^ (h >>> 16)) & (listras.length - 1);
+    }
+
+    public record ResultadoSaldo(List<UUID> aprovadas, List<UUID> rejeitadas) {}
+
+    private record Movimento(Conta conta, BigDecimal valor) {}
+
+    private record SaldoLivro(BigDecimal saldo, long lancamentos, long lancamentosGravados) {}
+
+    private static class Conta {
+
+        private final UUID id;
+        private final int particao;
+        private BigDecimal saldo;
+        private volatile BigDecimal saldoConfirmado;
+        private long lancamentos;
+        private long lancamentosGravados;
+
+        Conta(UUID id, int particao, SaldoLivro livro) {
+            this.id = id;
+            this.particao = particao;
+            this.saldo = livro.saldo();
+            this.saldoConfirmado = livro.saldo();
+            this.lancamentos = livro.lancamentos();
+            this.lancamentosGravados = livro.lancamentosGravados();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.kivo.api.aplicacao.servico;
+
+import com.kivo.api.aplicacao.dto.JobExportacaoDTO;
+import com.kivo.api.aplicacao.dto.JobExportacaoDTO.StatusExportacao;
+import com.kivo.api.dominio.repositorio.RepositorioLancamento;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exportação assíncrona do extrato em PDF.
+ *
+ * Cada pedido vira um job executado no pool limitado de relatórios e gravado em disco.
+ * O arquivo é identificado pela versão do extrato (quantidade de lançamentos, quantos
+ * deles já estão no saldo e data do último) e pela data de emissão, que vão impressos no
+ * documento; pedidos repetidos de um extrato inalterado no mesmo dia reaproveitam o
+ * mesmo job ou o arquivo já gerado. O download síncrono usa o arquivo em cache quando
+ * existe e, caso contrário, renderiza direto na resposta, limitado pelo mesmo número de
+ * renderizações simultâneas.
+ */
+@Service
+public class ServicoExportacao {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicoExportacao.class);
+
+    @Autowired
+    private ServicoTransacao transacaoService;
+
+    @Autowired
+    private RepositorioLancamento lancamentoRepository;
+
+    @Autowired
+    @Qualifier("executorRelatorios")
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${kivo.exportacao.diretorio:${java.io.tmpdir}/kivo-extratos}")
+    private Path diretorio;
+
+    @Value("${kivo.exportacao.retencao-jobs:30m}")
+    private Duration retencaoJobs;
+
+    @Value("${kivo.exportacao.retencao-arquivos:24h}")
+    private Duration retencaoArquivos;
+
+    private final Map<UUID, JobExportacao> jobs = new ConcurrentHashMap<>();
+    private final Map<Path, JobExportacao> jobsPorArquivo = new ConcurrentHashMap<>();
+    private final Semaphore renderizacoesDiretas;
+
+    public ServicoExportacao(@Value("${kivo.exportacao.renderizacoes-simultaneas:2}") int renderizacoesSimultaneas) {
+        this.renderizacoesDiretas = new Semaphore(renderizacoesSimultaneas);
+    }
+
+    public JobExportacaoDTO solicitar(UUID usuarioId) {
+        return obterJob(usuarioId).paraDTO();
+    }
+
+    public JobExportacaoDTO consultar(UUID jobId) {
+        return buscarJob(jobId).paraDTO();
+    }
+
+    public Optional<Path> buscarArquivo(UUID jobId) {
+        JobExportacao job = buscarJob(jobId);
+        return job.status == StatusExportacao.CONCLUIDO ? Optional.of(job.arquivo) : Optional.empty();
+    }
+
+    /**
+     * Arquivo já gerado para a versão atual do extrato, se houver.
+     */
+    public Optional<Path> buscarArquivoAtual(UUID usuarioId) {
+        Path arquivo = arquivoDaVersaoAtual(usuarioId);
+        return Files.exists(arquivo) ? Optional.of(arquivo) : Optional.empty();
+    }
+
+    /**
+     * Reserva uma renderização direta na resposta HTTP. Fechar a reserva a libera uma
+     * única vez, então quem escreve o PDF e o fim da requisição podem fechá-la.
+     */
+    public Reserva reservarRenderizacao() {
+        if (!renderizacoesDiretas.tryAcquire()) {
+            throw new TaskRejectedException("Limite de renderizações simultâneas atingido");
+        }
+        return new Reserva();
+    }
+
+    public final class Reserva implements AutoCloseable {
+
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        private Reserva() {}
+
+        @Override
+        public void close() {
+            if (liberada.compareAndSet(false, true)) {
+                renderizacoesDiretas.release();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kivo.exportacao.intervalo-limpeza:5m}")
+    public void limparExpirados() {
+        Instant limiteJobs = Instant.now().minus(retencaoJobs);
+        jobs.values().removeIf(job -> {
+            boolean expirado = job.resultado.isDone() && job.criadoEm.isBefore(limiteJobs);
+            if (expirado) {
+                jobsPorArquivo.remove(job.arquivo, job);
+            }
+            return expirado;
+        });
+
+        if (!Files.isDirectory(diretorio)) {
+            return;
+        }
+
+        Instant limiteArquivos = Instant.now().minus(retencaoArquivos);
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*.pdf")) {
+            for (Path arquivo : arquivos) {
+                if (!jobsPorArquivo.containsKey(arquivo)
+                        && Files.getLastModifiedTime(arquivo).toInstant().isBefore(limiteArquivos)) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao limpar extratos exportados: {}", e.getMessage());
+        }
+    }
+
+    private Path arquivoDaVersaoAtual(UUID usuarioId) {
+        String versao = lancamentoRepository.findVersaoExtrato(usuarioId).identificador(LocalDate.now());
+        return diretorio.resolve(usuarioId + "-" + versao + ".pdf");
+    }
+
+    private JobExportacao obterJob(UUID usuarioId) {
+        Path arquivo = arquivoDaVersaoAtual(usuarioId);
+
+        JobExportacao job = jobsPorArquivo.compute(arquivo, (chave, existente) -> {
+            if (existente != null && existente.status != StatusExportacao.FALHOU) {
+                return existente;
+            }
+            return iniciarJob(usuarioId, arquivo);
+        });
+        jobs.putIfAbsent(job.id, job);
+        return job;
+    }
+
+    private JobExportacao iniciarJob(UUID usuarioId, Path arquivo) {
+        JobExportacao job = new JobExportacao(usuarioId, arquivo);
+
+        if (Files.exists(arquivo)) {
+            job.concluir();
+            return job;
+        }
+
+        executor.execute(() -> renderizar(job));
+        return job;
+    }
+
+    private void renderizar(JobExportacao job) {
+        job.status = StatusExportacao.PROCESSANDO;
+        try {
+            Files.createDirectories(diretorio);
+            Path parcial = Files.createTempFile(diretorio, job.usuarioId.toString(), ".parcial");
+
+            try (OutputStream saida = Files.newOutputStream(parcial)) {
+                var cabecalho = transacaoService.buscarCabecalhoExtrato(job.usuarioId);
+                transacaoService.escreverExtratoPdf(cabecalho, job.usuarioId, saida);
+            } catch (RuntimeException | IOException e) {
+                Files.deleteIfExists(parcial);
+                throw e;
+            }
+
+            Files.move(parcial, job.arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            removerVersoesAnteriores(job);
+            job.concluir();
+
+        } catch (Exception e) {
+            log.error("Falha ao gerar extrato do usuário {}", job.usuarioId, e);
+            job.falhar(e);
+        }
+    }
+
+    private void removerVersoesAnteriores(JobExportacao job) throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, job.usuarioId + "-*.pdf")) {
+            for (Path arquivo : arquivos) {
+                if (!arquivo.equals(job.arquivo) && !jobsPorArquivo.containsKey(arquivo)) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        }
+    }
+
+    private JobExportacao buscarJob(UUID jobId) {
+        JobExportacao job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Job de exportação não encontrado");
+        }
+        return job;
+    }
+
+    private static class JobExportacao {
+
+        private final UUID id = UUID.randomUUID();
+        private final UUID usuarioId;
+        private final Path arquivo;
+        private final Instant criadoEm = Instant.now();
+        private final CompletableFuture<Path> resultado = new CompletableFuture<>();
+        private volatile StatusExportacao status = StatusExportacao.PENDENTE;
+        private volatile String erro;
+        private volatile LocalDateTime concluidoEm;
+
+        JobExportacao(UUID usuarioId, Path arquivo) {
+            this.usuarioId = usuarioId;
+            this.arquivo = arquivo;
+        }
+
+        void concluir() {
+            concluidoEm = LocalDateTime.now();
+            status = StatusExportacao.CONCLUIDO;
+            resultado.complete(arquivo);
+        }
+
+        void falhar(Exception e) {
+            concluidoEm = LocalDateTime.now();
+            erro = e.getMessage();
+            status = StatusExportacao.FALHOU;
+            resultado.completeExceptionally(e);
+        }
+
+        JobExportacaoDTO paraDTO() {
+            return new JobExportacaoDTO(id, usuarioId, status, erro,
+                    LocalDateTime.ofInstant(criadoEm, ZoneId.systemDefault()), concluidoEm);
+        }
+    }
+}
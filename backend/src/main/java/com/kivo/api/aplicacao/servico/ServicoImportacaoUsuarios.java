@@ -0,0 +1,269 @@
+package com.kivo.api.aplicacao.servico;
+
+import com.kivo.api.aplicacao.dto.RelatorioImportacaoDTO;
+import com.kivo.api.aplicacao.dto.RelatorioImportacaoDTO.LinhaImportacao;
+import com.kivo.api.aplicacao.dto.RelatorioImportacaoDTO.StatusLinha;
+import com.kivo.api.dominio.repositorio.RepositorioUsuario;
+import com.kivo.api.infraestrutura.cliente.ClienteSaldoMock;
+import com.kivo.api.infraestrutura.persistencia.GeradorUuidV7;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Importação de usuários em massa a partir de planilha.
+ *
+ * A planilha é lida em streaming (SAX) e processada em lotes: duplicidades são
+ * verificadas contra os e-mails/CPFs já carregados, as senhas são cifradas em
+ * paralelo, cada lote é inserido com JDBC batch e commit próprio, e as contas no
+ * MockAPI são criadas de forma assíncrona depois do commit.
+ */
+@Service
+public class ServicoImportacaoUsuarios {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicoImportacaoUsuarios.class);
+
+    private static final String SQL_INSERIR_USUARIO =
+            "INSERT INTO tb_usuarios (id, nome, email, senha, cpf) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_INSERIR_SALDO = """
+            INSERT INTO tb_saldos (conta_id, saldo_inicial, saldo, lancamentos_efetivados, atualizado_em)
+            VALUES (?, ?, ?, 0, now())
+            ON CONFLICT (conta_id) DO NOTHING
+            """;
+
+    @Autowired
+    private RepositorioUsuario repository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ClienteSaldoMock mockSaldoClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("executorHashSenha")
+    private Executor executorHashSenha;
+
+    @Autowired
+    @Qualifier("executorContasExternas")
+    private Executor executorContasExternas;
+
+    @Value("${kivo.importacao.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    public RelatorioImportacaoDTO importar(MultipartFile arquivo) {
+        Path temporario = null;
+        try {
+            temporario = Files.createTempFile("kivo-importacao-", ".xlsx");
+            arquivo.transferTo(temporario);
+
+            log.info("Iniciando leitura do Excel...");
+            Importacao importacao = new Importacao(
+                    new HashSet<>(repository.findTodosEmails()),
+                    new HashSet<>(repository.findTodosCpfs())
+            );
+
+            try (OPCPackage pacote = OPCPackage.open(temporario.toFile(), PackageAccess.READ)) {
+                XSSFReader leitor = new XSSFReader(pacote);
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        leitor.getStylesTable(),
+                        new ReadOnlySharedStringsTable(pacote),
+                        importacao,
+                        new DataFormatter(),
+                        false
+                ));
+
+                try (InputStream planilha = leitor.getSheetsData().next()) {
+                    parser.parse(new InputSource(planilha));
+                }
+            }
+            importacao.processarPendentes();
+
+            RelatorioImportacaoDTO relatorio = importacao.relatorio();
+            log.info("Importação concluída: {} linhas, {} importadas, {} rejeitadas",
+                    relatorio.totalLinhas(), relatorio.importados(), relatorio.rejeitados());
+            return relatorio;
+
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao processar arquivo Excel: " + e.getMessage());
+        } finally {
+            if (temporario != null) {
+                temporario.toFile().delete();
+            }
+        }
+    }
+
+    private record LinhaPlanilha(int numero, String nome, String email, String senha, String cpf) {
+        boolean incompleta() {
+            return nome.isEmpty() || email.isEmpty() || cpf.isEmpty();
+        }
+    }
+
+    private record NovoUsuario(LinhaPlanilha linha, UUID id, String senhaCriptografada, BigDecimal saldoInicial) {}
+
+    private class Importacao implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Set<String> emails;
+        private final Set<String> cpfs;
+        private final List<LinhaPlanilha> pendentes = new ArrayList<>();
+        private final List<LinhaImportacao> resultados = new ArrayList<>();
+        private final String[] celulas = new String[4];
+        private int importados;
+
+        Importacao(Set<String> emails, Set<String> cpfs) {
+            this.emails = emails;
+            this.cpfs = cpfs;
+        }
+
+        @Override
+        public void startRow(int numeroLinha) {
+            Arrays.fill(celulas, "");
+        }
+
+        @Override
+        public void cell(String referencia, String valorFormatado, XSSFComment comentario) {
+            int coluna = new CellReference(referencia).getCol();
+            if (coluna < celulas.length && valorFormatado != null) {
+                celulas[coluna] = valorFormatado;
+            }
+        }
+
+        @Override
+        public void endRow(int numeroLinha) {
+            if (numeroLinha == 0 || (celulas[0].isEmpty() && celulas[1].isEmpty())) {
+                return;
+            }
+
+            pendentes.add(new LinhaPlanilha(numeroLinha + 1, celulas[0], celulas[1], celulas[2], celulas[3]));
+            if (pendentes.size() >= tamanhoLote) {
+                processarPendentes();
+            }
+        }
+
+        void processarPendentes() {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+
+            List<LinhaPlanilha> validas = new ArrayList<>(pendentes.size());
+            for (LinhaPlanilha linha : pendentes) {
+                if (linha.incompleta()) {
+                    registrar(linha, StatusLinha.INCOMPLETO, "Nome, email e CPF são obrigatórios");
+                } else if (!emails.add(linha.email())) {
+                    registrar(linha, StatusLinha.DUPLICADO, "Email já cadastrado");
+                } else if (!cpfs.add(linha.cpf())) {
+                    emails.remove(linha.email());
+                    registrar(linha, StatusLinha.DUPLICADO, "CPF já cadastrado");
+                } else {
+                    validas.add(linha);
+                }
+            }
+            pendentes.clear();
+
+            List<CompletableFuture<NovoUsuario>> cifrados = validas.stream()
+                    .map(linha -> CompletableFuture.supplyAsync(
+                            () -> new NovoUsuario(linha, GeradorUuidV7.gerar(), passwordEncoder.encode(linha.senha()),
+                                    ServicoUsuario.gerarSaldoInicialAleatorio()),
+                            executorHashSenha))
+                    .toList();
+
+            inserir(cifrados.stream().map(CompletableFuture::join).toList());
+        }
+
+        private void inserir(List<NovoUsuario> novos) {
+            if (novos.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(SQL_INSERIR_USUARIO, novos, novos.size(), (ps, novo) -> {
+                        ps.setObject(1, novo.id());
+                        ps.setString(2, novo.linha().nome());
+                        ps.setString(3, novo.linha().email());
+                        ps.setString(4, novo.senhaCriptografada());
+                        ps.setString(5, novo.linha().cpf());
+                    });
+                    jdbcTemplate.batchUpdate(SQL_INSERIR_SALDO, novos, novos.size(), (ps, novo) -> {
+                        ps.setObject(1, novo.id());
+                        ps.setBigDecimal(2, novo.saldoInicial());
+                        ps.setBigDecimal(3, novo.saldoInicial());
+                    });
+                });
+                novos.forEach(this::confirmar);
+
+            } catch (DataAccessException e) {
+                log.warn("Falha no lote de importação, repetindo linha a linha: {}", e.getMessage());
+                novos.forEach(this::inserirIndividualmente);
+            }
+        }
+
+        private void inserirIndividualmente(NovoUsuario novo) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(SQL_INSERIR_USUARIO,
+                            novo.id(), novo.linha().nome(), novo.linha().email(), novo.senhaCriptografada(), novo.linha().cpf());
+                    jdbcTemplate.update(SQL_INSERIR_SALDO, novo.id(), novo.saldoInicial(), novo.saldoInicial());
+                });
+                confirmar(novo);
+            } catch (DataAccessException e) {
+                registrar(novo.linha(), StatusLinha.ERRO, e.getMostSpecificCause().getMessage());
+            }
+        }
+
+        private void confirmar(NovoUsuario novo) {
+            importados++;
+            registrar(novo.linha(), StatusLinha.IMPORTADO, null);
+
+            String usuarioId = novo.id().toString();
+            executorContasExternas.execute(() -> mockSaldoClient.criarConta(usuarioId, novo.saldoInicial()));
+        }
+
+        private void registrar(LinhaPlanilha linha, StatusLinha status, String mensagem) {
+            resultados.add(new LinhaImportacao(linha.numero(), linha.email(), status, mensagem));
+        }
+
+        RelatorioImportacaoDTO relatorio() {
+            return new RelatorioImportacaoDTO(resultados.size(), importados, resultados.size() - importados, resultados);
+        }
+    }
+}
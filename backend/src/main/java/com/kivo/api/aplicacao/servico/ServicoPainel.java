@@ -0,0 +1,145 @@
+package com.kivo.api.aplicacao.servico;
+
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
+import com.kivo.api.aplicacao.dto.PainelDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Monta o painel do usuário numa única chamada.
+ *
+ * Série diária, gastos por categoria e, numa consulta só, saldo e transações recentes são
+ * buscados em paralelo, cada consulta com o próprio prazo, contado a partir do seu início e
+ * numa conexão JDBC própria. Saldo e recentes são leves e dividem a mesma transação, então
+ * cada painel ocupa no máximo três conexões; o executor limita quantas ficam ocupadas. Um
+ * componente que estoura o prazo, falha ou é recusado pelo executor (sem vaga) vem nulo e é
+ * listado como indisponível, sem derrubar a resposta inteira. A consulta que estoura o
+ * prazo é cancelada: a thread é interrompida e o timeout da transação corta o comando
+ * no banco.
+ */
+@Service
+public class ServicoPainel {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicoPainel.class);
+
+    private final ServicoTransacao transacaoService;
+    private final AsyncTaskExecutor executor;
+    private final MeterRegistry registry;
+    private final Duration prazo;
+    private final TransactionTemplate transacaoComPrazo;
+
+    public ServicoPainel(ServicoTransacao transacaoService,
+                         @Qualifier("executorPainel") AsyncTaskExecutor executor,
+                         MeterRegistry registry,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${kivo.painel.prazo-componente:800ms}") Duration prazo) {
+        this.transacaoService = transacaoService;
+        this.executor = executor;
+        this.registry = registry;
+        this.prazo = prazo;
+        // Não é só leitura: o saldo de uma conta sem snapshot é semeado na primeira consulta.
+        // O timeout de transação é em segundos inteiros; o prazo fino fica com o cancelamento.
+        this.transacaoComPrazo = new TransactionTemplate(transactionManager);
+        this.transacaoComPrazo.setTimeout((int) Math.max(1, (prazo.toMillis() + 999) / 1000));
+    }
+
+    public PainelDTO montar(UUID usuarioId, LocalDate inicio, LocalDate fim, int recentes) {
+        String usuario = transacaoService.buscarNomeUsuario(usuarioId);
+
+        var conta = iniciar(() -> new SaldoERecentes(
+                transacaoService.consultarSaldo(usuarioId),
+                transacaoService.listarRecentes(usuarioId, recentes)));
+        var serieDiaria = iniciar(() -> transacaoService.analisarPeriodo(usuarioId, inicio, fim));
+        var categorias = iniciar(() -> transacaoService.analisarPorCategoria(usuarioId, inicio, fim));
+
+        List<String> indisponiveis = new ArrayList<>();
+        SaldoERecentes saldoERecentes = aguardar(conta, indisponiveis, "saldo", "recentes");
+        return new PainelDTO(
+                usuario,
+                saldoERecentes != null ? saldoERecentes.saldo() : null,
+                saldoERecentes != null ? saldoERecentes.recentes() : null,
+                aguardar(serieDiaria, indisponiveis, "serieDiaria"),
+                aguardar(categorias, indisponiveis, "categorias"),
+                indisponiveis
+        );
+    }
+
+    private <T> Componente<T> iniciar(Supplier<T> consulta) {
+        Componente<T> componente = new Componente<>();
+        try {
+            componente.futuro = executor.submit(() -> {
+                componente.inicio = System.nanoTime();
+                componente.iniciado.countDown();
+                return transacaoComPrazo.execute(status -> consulta.get());
+            });
+        } catch (TaskRejectedException e) {
+            // Sem futuro: o componente é dado como recusado em aguardar.
+        }
+        return componente;
+    }
+
+    private <T> T aguardar(Componente<T> consulta, List<String> indisponiveis, String... componentes) {
+        String componente = String.join("/", componentes);
+        if (consulta.futuro == null) {
+            log.warn("Componente {} do painel recusado: executor sem vaga", componente);
+            return indisponivel(componentes, "recusado", indisponiveis);
+        }
+        try {
+            // Submetida sem fila, a consulta começa logo; o prazo corre a partir daí.
+            if (!consulta.iniciado.await(prazo.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException();
+            }
+            long restante = prazo.toNanos() - (System.nanoTime() - consulta.inicio);
+            return consulta.futuro.get(Math.max(restante, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            consulta.futuro.cancel(true);
+            log.warn("Componente {} do painel excedeu o prazo de {}", componente, prazo);
+            return indisponivel(componentes, "prazo", indisponiveis);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            log.warn("Componente {} do painel falhou: {}", componente, causa.getMessage());
+            return indisponivel(componentes, "erro", indisponiveis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            consulta.futuro.cancel(true);
+            return indisponivel(componentes, "erro", indisponiveis);
+        }
+    }
+
+    private <T> T indisponivel(String[] componentes, String motivo, List<String> indisponiveis) {
+        for (String componente : componentes) {
+            registry.counter("kivo.painel.indisponivel", "componente", componente, "motivo", motivo).increment();
+            indisponiveis.add(componente);
+        }
+        return null;
+    }
+
+    private record SaldoERecentes(BigDecimal saldo, List<LinhaExtratoDTO> recentes) {}
+
+    private static final class Componente<T> {
+        private final CountDownLatch iniciado = new CountDownLatch(1);
+        private volatile long inicio;
+        private Future<T> futuro;
+    }
+}
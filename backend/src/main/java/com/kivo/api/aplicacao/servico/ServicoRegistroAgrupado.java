@@ -0,0 +1,201 @@
+package com.kivo.api.aplicacao.servico;
+
+import com.kivo.api.aplicacao.dto.TransacaoEntradaDTO;
+import com.kivo.api.dominio.modelo.Transacao;
+import com.kivo.api.dominio.modelo.Usuario;
+import com.kivo.api.dominio.repositorio.RepositorioUsuario;
+import com.kivo.api.infraestrutura.persistencia.ColetorLote;
+import com.kivo.api.infraestrutura.persistencia.EscritorTransacoes;
+import com.kivo.api.infraestrutura.persistencia.GeradorUuidV7;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ponto de entrada do registro de transações.
+ *
+ * Com {@code kivo.registro.agrupado.habilitado=false} cada chamada é uma transação própria
+ * em {@link ServicoTransacao#registrar}. Habilitado, as regras que não dependem do banco e
+ * a cotação são resolvidas na thread do chamador e o pedido entra num {@link ColetorLote}:
+ * os usuários do lote são buscados numa consulta só e transações, partidas e outbox são
+ * gravados em JDBC batch com um único commit. Em troca, cada registro espera até
+ * {@code janela} pelo fechamento do lote.
+ *
+ * Se o lote falhar no banco, os pedidos são regravados um a um e só os que falharem de
+ * novo recebem o erro.
+ */
+@Service
+public class ServicoRegistroAgrupado {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicoRegistroAgrupado.class);
+
+    private record Pedido(TransacaoEntradaDTO dados, BigDecimal taxaCambio, boolean comDestinatario) {}
+
+    private final ServicoTransacao transacaoService;
+    private final RepositorioUsuario usuarioRepository;
+    private final EscritorTransacoes escritor;
+    private final MetricasRegistro metricas;
+    private final ColetorLote<Pedido, Transacao> coletor;
+    private final DistributionSummary tamanhoLote;
+    private final Timer esperaLote;
+
+    public ServicoRegistroAgrupado(ServicoTransacao transacaoService,
+                                   RepositorioUsuario usuarioRepository,
+                                   EscritorTransacoes escritor,
+                                   MetricasRegistro metricas,
+                                   MeterRegistry registry,
+                                   @Value("${kivo.registro.agrupado.habilitado:false}") boolean habilitado,
+                                   @Value("${kivo.registro.agrupado.janela:2ms}") Duration janela,
+                                   @Value("${kivo.registro.agrupado.tamanho-lote:200}") int tamanhoMaximo,
+                                   @Value("${kivo.registro.agrupado.fila:5000}") int capacidadeFila,
+                                   @Value("${kivo.registro.agrupado.escritores:2}") int escritores) {
+        this.transacaoService = transacaoService;
+        this.usuarioRepository = usuarioRepository;
+        this.escritor = escritor;
+        this.metricas = metricas;
+        this.coletor = habilitado
+                ? new ColetorLote<>("kivo-registro", janela, tamanhoMaximo, capacidadeFila, escritores, this::gravar)
+                : null;
+
+        this.tamanhoLote = DistributionSummary.builder("kivo.registro.lote.tamanho")
+                .description("Transações gravadas por commit no registro agrupado")
+                .register(registry);
+        this.esperaLote = Timer.builder("kivo.registro.lote.espera")
+                .description("Tempo entre a chegada do pedido e o início da gravação do lote")
+                .register(registry);
+        if (coletor != null) {
+            Gauge.builder("kivo.registro.lote.fila", coletor, ColetorLote::pendentes)
+                    .description("Pedidos de registro aguardando lote")
+                    .register(registry);
+        }
+    }
+
+    public Transacao registrar(TransacaoEntradaDTO dados) {
+        long inicio = System.nanoTime();
+        boolean sucesso = false;
+        try {
+            Transacao transacao = coletor == null ? transacaoService.registrar(dados) : registrarEmLote(dados);
+            sucesso = true;
+            return transacao;
+        } finally {
+            metricas.registrarDuracao(coletor == null ? "individual" : "agrupado", dados.tipo(), dados.moeda(),
+                    sucesso, System.nanoTime() - inicio);
+        }
+    }
+
+    private Transacao registrarEmLote(TransacaoEntradaDTO dados) {
+        boolean comDestinatario = transacaoService.validarDestinatario(dados);
+        BigDecimal taxaCambio = metricas.etapa("cambio", dados.tipo(), dados.moeda(),
+                () -> transacaoService.obterTaxaCambio(dados.moeda()));
+        try {
+            return metricas.etapa("lote", dados.tipo(), dados.moeda(),
+                    () -> coletor.enviar(new Pedido(dados, taxaCambio, comDestinatario)).join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private void gravar(List<ColetorLote.Pendente<Pedido, Transacao>> lote) {
+        long inicio = System.nanoTime();
+        lote.forEach(pendente -> esperaLote.record(inicio - pendente.chegada(), TimeUnit.NANOSECONDS));
+
+        Set<UUID> ids = new HashSet<>();
+        for (ColetorLote.Pendente<Pedido, Transacao> pendente : lote) {
+            ids.add(pendente.pedido().dados().usuarioId());
+            if (pendente.pedido().comDestinatario()) {
+                ids.add(pendente.pedido().dados().destinatarioId());
+            }
+        }
+        Map<UUID, Usuario> usuarios = usuarioRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Usuario::getId, Function.identity()));
+
+        List<ColetorLote.Pendente<Pedido, Transacao>> aceitos = new ArrayList<>(lote.size());
+        List<Transacao> transacoes = new ArrayList<>(lote.size());
+        for (ColetorLote.Pendente<Pedido, Transacao> pendente : lote) {
+            Transacao transacao = montar(pendente.pedido(), usuarios);
+            if (transacao == null) {
+                pendente.falhar(erroUsuario(pendente.pedido(), usuarios));
+                continue;
+            }
+            aceitos.add(pendente);
+            transacoes.add(transacao);
+        }
+        if (transacoes.isEmpty()) {
+            return;
+        }
+
+        try {
+            escritor.inserir(transacoes);
+            tamanhoLote.record(transacoes.size());
+            for (int i = 0; i < aceitos.size(); i++) {
+                aceitos.get(i).concluir(transacoes.get(i));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Falha no lote de {} registros, repetindo um a um: {}", transacoes.size(), e.getMessage());
+            for (int i = 0; i < aceitos.size(); i++) {
+                gravarIndividualmente(aceitos.get(i), transacoes.get(i));
+            }
+        }
+    }
+
+    private void gravarIndividualmente(ColetorLote.Pendente<Pedido, Transacao> pendente, Transacao transacao) {
+        try {
+            escritor.inserir(List.of(transacao));
+            tamanhoLote.record(1);
+            pendente.concluir(transacao);
+        } catch (DataAccessException e) {
+            pendente.falhar(e);
+        }
+    }
+
+    private static Transacao montar(Pedido pedido, Map<UUID, Usuario> usuarios) {
+        TransacaoEntradaDTO dados = pedido.dados();
+        Usuario usuario = usuarios.get(dados.usuarioId());
+        Usuario destinatario = pedido.comDestinatario() ? usuarios.get(dados.destinatarioId()) : null;
+        if (usuario == null || (pedido.comDestinatario() && destinatario == null)) {
+            return null;
+        }
+
+        Transacao transacao = new Transacao(dados.valor(), dados.tipo(), dados.categoria(),
+                usuario, destinatario, pedido.taxaCambio(), dados.moeda());
+        transacao.setId(GeradorUuidV7.gerar());
+        return transacao;
+    }
+
+    private static EntityNotFoundException erroUsuario(Pedido pedido, Map<UUID, Usuario> usuarios) {
+        return usuarios.containsKey(pedido.dados().usuarioId())
+                ? new EntityNotFoundException("Destinatário não encontrado")
+                : new EntityNotFoundException("Usuário não encontrado");
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (coletor != null) {
+            coletor.close();
+        }
+    }
+}
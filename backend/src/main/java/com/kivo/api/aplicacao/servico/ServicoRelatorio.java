@@ -1,19 +1,22 @@
 package com.kivo.api.aplicacao.servico;
 
 import com.kivo.api.aplicacao.dto.ExtratoDTO;
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
 import com.kivo.api.dominio.modelo.TipoTransacao;
-import com.kivo.api.dominio.modelo.Transacao;
 import com.lowagie.text.*;
+import com.lowagie.text.pdf.BaseFont;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfTemplate;
 import com.lowagie.text.pdf.PdfWriter;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.UUID;
 
 @Service
 public class ServicoRelatorio {
@@ -23,25 +26,173 @@ public class ServicoRelatorio {
     private static final Color CINZA_TEXTO = new Color(60, 60, 60);
     private static final Color CINZA_LINHA = new Color(210, 210, 210);
     private static final Color ZEBRA = new Color(248, 248, 248);
+    private static final Color VERDE = new Color(18, 120, 55);
+    private static final Color VERMELHO = new Color(180, 40, 40);
+    private static final Color LARANJA = new Color(190, 105, 10);
+    private static final Color AZUL = new Color(30, 90, 170);
+    private static final Color OCRE = new Color(140, 110, 10);
+
+    private static final Font FONTE_TITULO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, Color.WHITE);
+    private static final Font FONTE_SUBTITULO = FontFactory.getFont(FontFactory.HELVETICA, 11, new Color(220, 230, 245));
+    private static final Font FONTE_TEXTO = FontFactory.getFont(FontFactory.HELVETICA, 11, CINZA_TEXTO);
+    private static final Font FONTE_LABEL = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, AZUL_ESCURO);
+    private static final Font FONTE_CABECALHO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Color.WHITE);
+    private static final Font FONTE_CELULA = FontFactory.getFont(FontFactory.HELVETICA, 10, CINZA_TEXTO);
+    private static final Font FONTE_DEPOSITO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, VERDE);
+    private static final Font FONTE_SAQUE = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, VERMELHO);
+    private static final Font FONTE_COMPRA = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, LARANJA);
+    private static final Font FONTE_ENVIADA = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, AZUL);
+    private static final Font FONTE_RECEBIDA = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, OCRE);
+
+    private static final DateTimeFormatter FORMATO_EMISSAO = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMATO_TABELA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final float LARGURA_TOTAL = 140f;
+    private static final float ALTURA_TOTAL = 14f;
+    private static final int LINHAS_POR_DESCARGA = 100;
+
+    /**
+     * Abre o PDF do extrato escrevendo direto em {@code out}. As linhas são enviadas com
+     * {@link ExtratoPdf#adicionar(LinhaExtratoDTO)} e descarregadas em blocos; os totais do resumo
+     * são acumulados na mesma passada e preenchidos ao final em {@link ExtratoPdf#concluir()}.
+     */
+    public ExtratoPdf iniciarExtrato(ExtratoDTO cabecalho, UUID contaId, OutputStream out) {
+        return new ExtratoPdf(cabecalho, contaId, out);
+    }
+
+    /**
+     * Entradas e saídas do extrato do ponto de vista da conta: depósitos e transferências
+     * recebidas entram, saques, compras e transferências enviadas saem.
+     */
+    public static class TotaisExtrato {
+
+        private final UUID contaId;
+        private BigDecimal entradas = BigDecimal.ZERO;
+        private BigDecimal saidas = BigDecimal.ZERO;
+
+        public TotaisExtrato(UUID contaId) {
+            this.contaId = contaId;
+        }
+
+        public void somar(LinhaExtratoDTO t) {
+            if (t.tipo() == TipoTransacao.DEPOSITO
+                    || (t.tipo() == TipoTransacao.TRANSFERENCIA && !contaId.equals(t.remetenteId()))) {
+                entradas = entradas.add(t.valor());
+            } else {
+                saidas = saidas.add(t.valor());
+            }
+        }
+
+        public BigDecimal entradas() { return entradas; }
+        public BigDecimal saidas() { return saidas; }
+    }
 
-    public byte[] gerarExtratoPdf(ExtratoDTO extrato) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    public static class ExtratoPdf {
+
+        private final UUID contaId;
+        private final Document document;
+        private final PdfTemplate templateEntradas;
+        private final PdfTemplate templateSaidas;
+        private final PdfPTable table;
+        private final TotaisExtrato totais;
+        private int linhas;
+
+        private ExtratoPdf(ExtratoDTO cabecalho, UUID contaId, OutputStream out) {
+            this.contaId = contaId;
+            this.totais = new TotaisExtrato(contaId);
+            try {
+                document = new Document(PageSize.A4, 36, 36, 54, 36);
+                PdfWriter writer = PdfWriter.getInstance(document, out);
+
+                document.open();
+
+                document.addTitle("Extrato Financeiro - Kivo");
+                document.addAuthor("Kivo");
+
+                templateEntradas = writer.getDirectContent().createTemplate(LARGURA_TOTAL, ALTURA_TOTAL);
+                templateSaidas = writer.getDirectContent().createTemplate(LARGURA_TOTAL, ALTURA_TOTAL);
+
+                adicionarCabecalho();
+                adicionarResumo(cabecalho);
+                adicionarSeparador();
+
+                table = new PdfPTable(5);
+                table.setWidthPercentage(100);
+                table.setWidths(new float[]{2.2f, 2.2f, 4.2f, 2.0f, 2.2f});
+                table.setHeaderRows(1);
+                table.setComplete(false);
+
+                addHeader(table, "Data/Hora");
+                addHeader(table, "Categoria");
+                addHeader(table, "Tipo / Detalhes");
+                addHeader(table, "Moeda / Cotação");
+                addHeader(table, "Valor (R$)");
+
+            } catch (Exception e) {
+                throw new RuntimeException("Erro ao gerar PDF", e);
+            }
+        }
+
+        public void adicionar(LinhaExtratoDTO t) {
+            boolean zebra = (linhas % 2 == 1);
+            totais.somar(t);
+
+            String catDisplay = (t.categoria() != null) ? t.categoria().toString() : "OUTROS";
+
+            String detalhesDisplay;
+            Font fonteValor;
+
+            if (t.tipo() == TipoTransacao.DEPOSITO) {
+                fonteValor = FONTE_DEPOSITO;
+                detalhesDisplay = "DEPÓSITO";
+            } else if (t.tipo() == TipoTransacao.SAQUE) {
+                fonteValor = FONTE_SAQUE;
+                detalhesDisplay = "SAQUE";
+            } else if (t.tipo() == TipoTransacao.COMPRA) {
+                fonteValor = FONTE_COMPRA;
+                detalhesDisplay = "COMPRA";
+            } else if (contaId.equals(t.remetenteId())) {
+                fonteValor = FONTE_ENVIADA;
+                String idDestinatario = (t.destinatarioId() != null) ? t.destinatarioId().toString() : "N/A";
+                detalhesDisplay = "TRANSFERÊNCIA (ENVIADA)\nPara: " + idDestinatario;
+            } else {
+                fonteValor = FONTE_RECEBIDA;
+                detalhesDisplay = "TRANSFERÊNCIA (RECEBIDA)\nDe: " + t.remetenteId();
+            }
+
+            String taxaDisplay;
+            BigDecimal taxa = t.taxaCambio();
+            String moeda = (t.moeda() != null) ? t.moeda() : "BRL";
 
-            Document document = new Document(PageSize.A4, 36, 36, 54, 36);
-            PdfWriter.getInstance(document, out);
+            if (taxa == null || taxa.compareTo(BigDecimal.ONE) == 0 || taxa.compareTo(BigDecimal.ZERO) == 0) {
+                taxaDisplay = "BRL (1:1)";
+            } else {
+                taxaDisplay = moeda + " " + taxa;
+            }
 
-            document.open();
+            addCell(table, t.data().format(FORMATO_TABELA), FONTE_CELULA, zebra);
+            addCell(table, catDisplay, FONTE_CELULA, zebra);
+            addCell(table, detalhesDisplay, FONTE_CELULA, zebra);
+            addCell(table, taxaDisplay, FONTE_CELULA, zebra);
+            addCell(table, "R$ " + t.valor(), fonteValor, zebra);
 
-            document.addTitle("Extrato Financeiro - Kivo");
-            document.addAuthor("Kivo");
+            linhas++;
+            if (linhas % LINHAS_POR_DESCARGA == 0) {
+                document.add(table);
+            }
+        }
+
+        public void concluir() {
+            table.setComplete(true);
+            document.add(table);
 
-            Font fonteTitulo = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, Color.WHITE);
-            Font fonteSubtitulo = FontFactory.getFont(FontFactory.HELVETICA, 11, new Color(220, 230, 245));
-            Font fonteTexto = FontFactory.getFont(FontFactory.HELVETICA, 11, CINZA_TEXTO);
-            Font fonteLabel = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, AZUL_ESCURO);
-            Font fonteValorPositivo = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, new Color(18, 120, 55));
-            Font fonteValorNegativo = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, new Color(180, 40, 40));
+            escreverTotal(templateEntradas, totais.entradas(), FONTE_DEPOSITO);
+            escreverTotal(templateSaidas, totais.saidas(), FONTE_SAQUE);
 
+            document.close();
+        }
+
+        private void adicionarCabecalho() {
             PdfPTable cabecalho = new PdfPTable(1);
             cabecalho.setWidthPercentage(100);
 
@@ -50,11 +201,10 @@ public class ServicoRelatorio {
             celCab.setBorder(Rectangle.NO_BORDER);
             celCab.setPadding(16);
 
-            Paragraph pTitulo = new Paragraph("Relatório Financeiro", fonteTitulo);
+            Paragraph pTitulo = new Paragraph("Relatório Financeiro", FONTE_TITULO);
             pTitulo.setSpacingAfter(6);
 
-            DateTimeFormatter formatoEmissao = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            Paragraph pSub = new Paragraph("Emitido em " + LocalDate.now().format(formatoEmissao), fonteSubtitulo);
+            Paragraph pSub = new Paragraph("Emitido em " + LocalDate.now().format(FORMATO_EMISSAO), FONTE_SUBTITULO);
 
             celCab.addElement(pTitulo);
             celCab.addElement(pSub);
@@ -62,7 +212,9 @@ public class ServicoRelatorio {
 
             document.add(cabecalho);
             document.add(Chunk.NEWLINE);
+        }
 
+        private void adicionarResumo(ExtratoDTO extrato) throws DocumentException {
             PdfPTable resumo = new PdfPTable(2);
             resumo.setWidthPercentage(100);
             resumo.setWidths(new float[]{3.2f, 1.8f});
@@ -73,12 +225,12 @@ public class ServicoRelatorio {
             boxInfo.setPadding(12);
             boxInfo.setBackgroundColor(Color.WHITE);
 
-            boxInfo.addElement(new Paragraph("Cliente", fonteLabel));
-            boxInfo.addElement(new Paragraph(extrato.usuario(), fonteTexto));
+            boxInfo.addElement(new Paragraph("Cliente", FONTE_LABEL));
+            boxInfo.addElement(new Paragraph(extrato.usuario(), FONTE_TEXTO));
             boxInfo.addElement(Chunk.NEWLINE);
 
-            boxInfo.addElement(new Paragraph("Saldo bancário (externo)", fonteLabel));
-            boxInfo.addElement(new Paragraph("R$ " + extrato.saldoAtual(), fonteTexto));
+            boxInfo.addElement(new Paragraph("Saldo atual", FONTE_LABEL));
+            boxInfo.addElement(new Paragraph("R$ " + extrato.saldoAtual(), FONTE_TEXTO));
 
             PdfPCell boxTotais = new PdfPCell();
             boxTotais.setBorderColor(CINZA_LINHA);
@@ -86,37 +238,17 @@ public class ServicoRelatorio {
             boxTotais.setPadding(12);
             boxTotais.setBackgroundColor(AZUL_CLARO);
 
-            BigDecimal entradas = BigDecimal.ZERO;
-            BigDecimal saidas = BigDecimal.ZERO;
-
-            for (Transacao t : extrato.transacoes()) {
-                if (t.getTipo() == TipoTransacao.DEPOSITO) {
-                    entradas = entradas.add(t.getValor());
-                } else if (t.getTipo() == TipoTransacao.SAQUE || t.getTipo() == TipoTransacao.COMPRA) {
-                    saidas = saidas.add(t.getValor());
-                } else {
-                    String nomeDonoExtrato = extrato.usuario();
-                    String nomeRemetente = t.getUsuario().getNome();
-                    boolean fuiEuQueMandei = nomeRemetente.equalsIgnoreCase(nomeDonoExtrato);
-                    if (fuiEuQueMandei) {
-                        saidas = saidas.add(t.getValor());
-                    } else {
-                        entradas = entradas.add(t.getValor());
-                    }
-                }
-            }
-
-            boxTotais.addElement(new Paragraph("Resumo do período", fonteLabel));
+            boxTotais.addElement(new Paragraph("Resumo do período", FONTE_LABEL));
             boxTotais.addElement(Chunk.NEWLINE);
 
             PdfPTable mini = new PdfPTable(2);
             mini.setWidthPercentage(100);
             mini.setWidths(new float[]{1.2f, 1.2f});
 
-            mini.addCell(celMini("Entradas", fonteTexto, Rectangle.NO_BORDER, 6, Color.WHITE));
-            mini.addCell(celMini("R$ " + entradas, fonteValorPositivo, Rectangle.NO_BORDER, 6, Color.WHITE));
-            mini.addCell(celMini("Saídas", fonteTexto, Rectangle.NO_BORDER, 6, Color.WHITE));
-            mini.addCell(celMini("R$ " + saidas, fonteValorNegativo, Rectangle.NO_BORDER, 6, Color.WHITE));
+            mini.addCell(celMini(new Phrase("Entradas", FONTE_TEXTO)));
+            mini.addCell(celMini(templateEntradas));
+            mini.addCell(celMini(new Phrase("Saídas", FONTE_TEXTO)));
+            mini.addCell(celMini(templateSaidas));
 
             boxTotais.addElement(mini);
 
@@ -125,7 +257,9 @@ public class ServicoRelatorio {
 
             document.add(resumo);
             document.add(Chunk.NEWLINE);
+        }
 
+        private void adicionarSeparador() {
             PdfPTable linha = new PdfPTable(1);
             linha.setWidthPercentage(100);
             PdfPCell celLinha = new PdfPCell(new Phrase(""));
@@ -135,84 +269,21 @@ public class ServicoRelatorio {
             linha.addCell(celLinha);
             document.add(linha);
             document.add(Chunk.NEWLINE);
+        }
 
-            PdfPTable table = new PdfPTable(5);
-            table.setWidthPercentage(100);
-            table.setWidths(new float[]{2.2f, 2.2f, 4.2f, 2.0f, 2.2f});
-
-            addHeader(table, "Data/Hora");
-            addHeader(table, "Categoria");
-            addHeader(table, "Tipo / Detalhes");
-            addHeader(table, "Moeda / Cotação");
-            addHeader(table, "Valor (R$)");
-
-            DateTimeFormatter formatterTabela = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-
-            int i = 0;
-            for (Transacao t : extrato.transacoes()) {
-                boolean zebra = (i % 2 == 1);
-
-                String catDisplay = (t.getCategoria() != null) ? t.getCategoria().toString() : "OUTROS";
-
-                String detalhesDisplay;
-                Font fonteValor;
-
-                String nomeDonoExtrato = extrato.usuario();
-                String nomeRemetente = t.getUsuario().getNome();
-
-                if (t.getTipo() == TipoTransacao.DEPOSITO) {
-                    fonteValor = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, new Color(18, 120, 55));
-                    detalhesDisplay = "DEPÓSITO";
-                } else if (t.getTipo() == TipoTransacao.SAQUE) {
-                    fonteValor = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, new Color(180, 40, 40));
-                    detalhesDisplay = "SAQUE";
-                } else if (t.getTipo() == TipoTransacao.COMPRA) {
-                    fonteValor = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, new Color(190, 105, 10));
-                    detalhesDisplay = "COMPRA";
-                } else {
-                    boolean fuiEuQueMandei = nomeRemetente.equalsIgnoreCase(nomeDonoExtrato);
-                    if (fuiEuQueMandei) {
-                        fonteValor = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, new Color(30, 90, 170));
-                        String idDestinatario = (t.getDestinatario() != null) ? t.getDestinatario().getId().toString() : "N/A";
-                        detalhesDisplay = "TRANSFERÊNCIA (ENVIADA)\nPara: " + idDestinatario;
-                    } else {
-                        fonteValor = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, new Color(140, 110, 10));
-                        String idRemetente = t.getUsuario().getId().toString();
-                        detalhesDisplay = "TRANSFERÊNCIA (RECEBIDA)\nDe: " + idRemetente;
-                    }
-                }
-
-                String taxaDisplay;
-                BigDecimal taxa = t.getTaxaCambio();
-                String moeda = (t.getMoeda() != null) ? t.getMoeda() : "BRL";
-
-                if (taxa == null || taxa.compareTo(BigDecimal.ONE) == 0 || taxa.compareTo(BigDecimal.ZERO) == 0) {
-                    taxaDisplay = "BRL (1:1)";
-                } else {
-                    taxaDisplay = moeda + " " + taxa;
-                }
-
-                addCell(table, t.getData().format(formatterTabela), FontFactory.getFont(FontFactory.HELVETICA, 10, CINZA_TEXTO), zebra);
-                addCell(table, catDisplay, FontFactory.getFont(FontFactory.HELVETICA, 10, CINZA_TEXTO), zebra);
-                addCell(table, detalhesDisplay, FontFactory.getFont(FontFactory.HELVETICA, 10, CINZA_TEXTO), zebra);
-                addCell(table, taxaDisplay, FontFactory.getFont(FontFactory.HELVETICA, 10, CINZA_TEXTO), zebra);
-                addCell(table, "R$ " + t.getValor(), fonteValor, zebra);
-
-                i++;
-            }
-
-            document.add(table);
-            document.close();
-
-            return out.toByteArray();
-
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao gerar PDF", e);
+        private static void escreverTotal(PdfTemplate template, BigDecimal total, Font fonte) {
+            BaseFont baseFont = fonte.getCalculatedBaseFont(false);
+            template.beginText();
+            template.setFontAndSize(baseFont, fonte.getSize());
+            template.setColorFill(fonte.getColor());
+            template.setTextMatrix(0, 3);
+            template.showText("R$ " + total);
+            template.endText();
         }
     }
 
-    private void addHeader(PdfPTable table, String headerTitle) {
-        PdfPCell header = new PdfPCell(new Phrase(headerTitle, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Color.WHITE)));
+    private static void addHeader(PdfPTable table, String headerTitle) {
+        PdfPCell header = new PdfPCell(new Phrase(headerTitle, FONTE_CABECALHO));
         header.setBackgroundColor(AZUL_ESCURO);
         header.setBorderColor(CINZA_LINHA);
         header.setBorderWidth(1);
@@ -222,7 +293,7 @@ public class ServicoRelatorio {
         table.addCell(header);
     }
 
-    private void addCell(PdfPTable table, String text, Font font, boolean zebra) {
+    private static void addCell(PdfPTable table, String text, Font font, boolean zebra) {
         PdfPCell cell = new PdfPCell(new Phrase(text, font));
         cell.setBorderColor(CINZA_LINHA);
         cell.setBorderWidth(1);
@@ -232,11 +303,23 @@ public class ServicoRelatorio {
         table.addCell(cell);
     }
 
-    private PdfPCell celMini(String text, Font font, int border, float padding, Color background) {
-        PdfPCell c = new PdfPCell(new Phrase(text, font));
-        c.setBorder(border);
-        c.setPadding(padding);
-        c.setBackgroundColor(background);
+    private static PdfPCell celMini(Phrase conteudo) {
+        PdfPCell c = new PdfPCell(conteudo);
+        c.setBorder(Rectangle.NO_BORDER);
+        c.setPadding(6);
+        c.setBackgroundColor(Color.WHITE);
         return c;
     }
+
+    private static PdfPCell celMini(PdfTemplate template) {
+        try {
+            PdfPCell c = new PdfPCell(Image.getInstance(template));
+            c.setBorder(Rectangle.NO_BORDER);
+            c.setPadding(6);
+            c.setBackgroundColor(Color.WHITE);
+            return c;
+        } catch (BadElementException e) {
+            throw new RuntimeException("Erro ao gerar PDF", e);
+        }
+    }
 }
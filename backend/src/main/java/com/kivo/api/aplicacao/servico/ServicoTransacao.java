@@ -1,60 +1,97 @@
 package com.kivo.api.aplicacao.servico;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kivo.api.aplicacao.dto.AnaliseCategoriaDTO;
 import com.kivo.api.aplicacao.dto.AnaliseDiariaDTO;
+import com.kivo.api.aplicacao.dto.CursorExtrato;
 import com.kivo.api.aplicacao.dto.ExtratoDTO;
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
 import com.kivo.api.aplicacao.dto.TransacaoEntradaDTO;
+import com.kivo.api.dominio.modelo.EventoOutbox;
+import com.kivo.api.dominio.modelo.LancamentoConta;
 import com.kivo.api.dominio.modelo.StatusTransacao;
 import com.kivo.api.dominio.modelo.TipoTransacao;
 import com.kivo.api.dominio.modelo.Transacao;
 import com.kivo.api.dominio.modelo.Usuario;
+import com.kivo.api.dominio.repositorio.RepositorioLancamento;
+import com.kivo.api.dominio.repositorio.RepositorioOutbox;
+import com.kivo.api.dominio.repositorio.RepositorioResumoDiario;
 import com.kivo.api.dominio.repositorio.RepositorioTransacao;
 import com.kivo.api.dominio.repositorio.RepositorioUsuario;
-import com.kivo.api.infraestrutura.cliente.ClienteBrasilApi;
-import com.kivo.api.infraestrutura.cliente.ClienteSaldoMock;
-import com.kivo.api.infraestrutura.mensageria.ProdutorTransacao;
+import com.kivo.api.infraestrutura.cliente.CacheCotacao;
+import com.kivo.api.infraestrutura.persistencia.ArquivoTransacoes;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ServicoTransacao {
 
     private static final Logger log = LoggerFactory.getLogger(ServicoTransacao.class);
+    private static final int LIMITE_MAXIMO_PAGINA = 200;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Autowired
     private RepositorioTransacao repository;
 
+    @Autowired
+    private RepositorioLancamento lancamentoRepository;
+
+    @Autowired
+    private RepositorioResumoDiario resumoRepository;
+
     @Autowired
     private RepositorioUsuario usuarioRepository;
 
     @Autowired
-    private ClienteBrasilApi brasilApiClient;
+    private ServicoRelatorio relatorioService;
+
+    @Autowired
+    private CacheCotacao cacheCotacao;
 
     @Autowired
-    private ClienteSaldoMock mockSaldoClient;
+    private MotorSaldo motorSaldo;
 
     @Autowired
-    private ProdutorTransacao transacaoProducer;
+    private RepositorioOutbox outboxRepository;
+
+    @Autowired
+    private ArquivoTransacoes arquivoTransacoes;
+
+    @Autowired
+    private MetricasRegistro metricas;
 
     @Transactional
     public Transacao registrar(TransacaoEntradaDTO dados) {
         log.info("Iniciando registro de transação ({}) - Tipo: {} - Categoria: {} - Usuário: {}",
                 dados.moeda(), dados.tipo(), dados.categoria(), dados.usuarioId());
 
-        Usuario usuario = usuarioRepository.findById(dados.usuarioId())
-                .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
+        TipoTransacao tipo = dados.tipo();
+        String moeda = dados.moeda();
 
-        Usuario destinatario = buscarDestinatario(dados);
-        BigDecimal taxaCambio = obterTaxaCambio(dados.moeda());
+        Usuario usuario = metricas.etapa("usuario", tipo, moeda, () -> usuarioRepository.findById(dados.usuarioId())
+                .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado")));
+
+        Usuario destinatario = metricas.etapa("destinatario", tipo, moeda, () -> buscarDestinatario(dados));
+        BigDecimal taxaCambio = metricas.etapa("cambio", tipo, moeda, () -> obterTaxaCambio(moeda));
 
         Transacao transacao = new Transacao(
                 dados.valor(),
@@ -67,41 +104,161 @@ public class ServicoTransacao {
         );
         transacao.setStatus(StatusTransacao.PENDING);
 
-        repository.save(transacao);
-        notificarKafka(transacao);
+        // O flush traz os INSERTs para dentro da etapa; o commit é medido à parte.
+        metricas.etapa("gravacao", tipo, moeda, () -> {
+            repository.save(transacao);
+            lancamentoRepository.saveAll(LancamentoConta.de(transacao));
+            outboxRepository.save(new EventoOutbox(transacao.getId()));
+            repository.flush();
+            return transacao;
+        });
+        metricas.medirCommit(tipo, moeda);
 
         return transacao;
     }
 
     public BigDecimal consultarSaldo(UUID usuarioId) {
-        return mockSaldoClient.buscarSaldo(usuarioId.toString());
+        return motorSaldo.consultar(usuarioId);
+    }
+
+    public ExtratoDTO buscarExtrato(UUID usuarioId, String cursor, int limite) {
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
+
+        int tamanhoPagina = Math.min(Math.max(limite, 1), LIMITE_MAXIMO_PAGINA);
+        CursorExtrato posicao = null;
+        List<LinhaExtratoDTO> pagina;
+
+        if (cursor == null || cursor.isBlank()) {
+            pagina = lancamentoRepository.findPrimeiraPaginaExtrato(usuarioId, Limit.of(tamanhoPagina));
+        } else {
+            posicao = CursorExtrato.decodificar(cursor);
+            pagina = lancamentoRepository.findPaginaExtratoApos(usuarioId, posicao.data(), posicao.id(), Limit.of(tamanhoPagina));
+        }
+        pagina = completarComArquivo(usuarioId, pagina, posicao, tamanhoPagina);
+
+        String proximoCursor = null;
+        if (pagina.size() == tamanhoPagina) {
+            LinhaExtratoDTO ultima = pagina.get(pagina.size() - 1);
+            proximoCursor = new CursorExtrato(ultima.data(), ultima.id()).codificar();
+        }
+
+        BigDecimal saldo = motorSaldo.consultar(usuarioId);
+        return new ExtratoDTO(usuario.getNome(), saldo, pagina, proximoCursor);
+    }
+
+    public List<LinhaExtratoDTO> listarRecentes(UUID usuarioId, int limite) {
+        int tamanho = Math.min(Math.max(limite, 1), LIMITE_MAXIMO_PAGINA);
+        List<LinhaExtratoDTO> recentes = lancamentoRepository.findPrimeiraPaginaExtrato(usuarioId, Limit.of(tamanho));
+        return completarComArquivo(usuarioId, recentes, null, tamanho);
+    }
+
+    /**
+     * Os meses arquivados são mais antigos que tudo o que está no banco, então uma página
+     * incompleta continua no arquivo a partir da última linha lida (ou do cursor recebido).
+     */
+    private List<LinhaExtratoDTO> completarComArquivo(UUID usuarioId, List<LinhaExtratoDTO> pagina,
+                                                      CursorExtrato posicao, int tamanhoPagina) {
+        if (pagina.size() >= tamanhoPagina) {
+            return pagina;
+        }
+
+        CursorExtrato apos = posicao;
+        if (!pagina.isEmpty()) {
+            LinhaExtratoDTO ultima = pagina.get(pagina.size() - 1);
+            apos = new CursorExtrato(ultima.data(), ultima.id());
+        }
+
+        List<LinhaExtratoDTO> arquivadas = arquivoTransacoes.ler(usuarioId, apos, tamanhoPagina - pagina.size());
+        if (arquivadas.isEmpty()) {
+            return pagina;
+        }
+        List<LinhaExtratoDTO> completa = new ArrayList<>(pagina);
+        completa.addAll(arquivadas);
+        return completa;
     }
 
-    public ExtratoDTO buscarExtrato(UUID usuarioId) {
+    public String buscarNomeUsuario(UUID usuarioId) {
+        return usuarioRepository.findById(usuarioId)
+                .map(Usuario::getNome)
+                .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
+    }
+
+    public ExtratoDTO buscarCabecalhoExtrato(UUID usuarioId) {
         Usuario usuario = usuarioRepository.findById(usuarioId)
                 .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
 
-        BigDecimal saldoMock = mockSaldoClient.buscarSaldo(usuarioId.toString());
-        List<Transacao> historico = repository.findHistoricoCompleto(usuarioId);
+        BigDecimal saldo = motorSaldo.consultar(usuarioId);
+        return new ExtratoDTO(usuario.getNome(), saldo, List.of(), null);
+    }
 
-        return new ExtratoDTO(usuario.getNome(), saldoMock, historico);
+    /**
+     * Percorre o histórico completo da conta em streaming, do mais recente para o mais
+     * antigo: primeiro o banco, depois os meses arquivados. As linhas são projeções, então
+     * nada se acumula no contexto de persistência.
+     */
+    @Transactional(readOnly = true)
+    public void percorrerHistorico(UUID usuarioId, Consumer<LinhaExtratoDTO> consumidor) {
+        try (Stream<LinhaExtratoDTO> historico = lancamentoRepository.streamHistoricoCompleto(usuarioId)) {
+            historico.forEach(consumidor);
+        }
+        arquivoTransacoes.percorrer(usuarioId, consumidor);
+    }
+
+    @Transactional(readOnly = true)
+    public void escreverExtratoJson(ExtratoDTO cabecalho, UUID usuarioId, OutputStream saida) throws IOException {
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+
+            gerador.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            gerador.writeStartObject();
+            gerador.writeStringField("usuario", cabecalho.usuario());
+            gerador.writeObjectField("saldoAtual", cabecalho.saldoAtual());
+            gerador.writeArrayFieldStart("transacoes");
+
+            percorrerHistorico(usuarioId, t -> {
+                try {
+                    gerador.writeObject(t);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            gerador.writeEndArray();
+            gerador.writeEndObject();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void escreverExtratoPdf(ExtratoDTO cabecalho, UUID usuarioId, OutputStream saida) {
+        ServicoRelatorio.ExtratoPdf pdf = relatorioService.iniciarExtrato(cabecalho, usuarioId, saida);
+        percorrerHistorico(usuarioId, pdf::adicionar);
+        pdf.concluir();
     }
 
     @Transactional(readOnly = true)
     public List<AnaliseDiariaDTO> analisarPeriodo(UUID usuarioId, LocalDate inicio, LocalDate fim) {
         log.info("Gerando análise de período para usuário {} entre {} e {}", usuarioId, inicio, fim);
 
-        var dataInicio = inicio.atStartOfDay();
-        var dataFim = fim.atTime(23, 59, 59);
-
-        return repository.agruparPorData(usuarioId, dataInicio, dataFim);
+        return resumoRepository.agruparPorData(usuarioId, inicio, fim);
     }
 
     private Usuario buscarDestinatario(TransacaoEntradaDTO dados) {
-        if (dados.tipo() != TipoTransacao.TRANSFERENCIA) {
+        if (!validarDestinatario(dados)) {
             return null;
         }
 
+        return usuarioRepository.findById(dados.destinatarioId())
+                .orElseThrow(() -> new EntityNotFoundException("Destinatário não encontrado"));
+    }
+
+    /**
+     * Regras do destinatário que não dependem do banco. Retorna se a transação tem destinatário.
+     */
+    boolean validarDestinatario(TransacaoEntradaDTO dados) {
+        if (dados.tipo() != TipoTransacao.TRANSFERENCIA) {
+            return false;
+        }
+
         if (dados.destinatarioId() == null) {
             throw new IllegalArgumentException("Destinatário é obrigatório para transferências");
         }
@@ -109,39 +266,22 @@ public class ServicoTransacao {
         if (dados.usuarioId().equals(dados.destinatarioId())) {
             throw new IllegalArgumentException("Remetente e destinatário não podem ser iguais");
         }
-
-        return usuarioRepository.findById(dados.destinatarioId())
-                .orElseThrow(() -> new EntityNotFoundException("Destinatário não encontrado"));
+        return true;
     }
 
-    private BigDecimal obterTaxaCambio(String moeda) {
+    BigDecimal obterTaxaCambio(String moeda) {
         if (moeda == null || moeda.equalsIgnoreCase("BRL")) {
             return BigDecimal.ONE;
         }
 
-        try {
-            var cambio = brasilApiClient.buscarCotacao(moeda);
-            return cambio != null ? cambio.valor() : BigDecimal.ZERO;
-        } catch (Exception e) {
-            log.warn("Falha ao buscar cotação para moeda {}, salvando com taxa 0. Erro: {}", moeda, e.getMessage());
+        return cacheCotacao.obterTaxa(moeda).orElseGet(() -> {
+            log.warn("Sem cotação disponível para moeda {}, salvando com taxa 0.", moeda);
             return BigDecimal.ZERO;
-        }
-    }
-
-    private void notificarKafka(Transacao transacao) {
-        try {
-            transacaoProducer.enviarEvento(transacao);
-            log.info("Evento de transação (ID: {}) enviado para o Kafka", transacao.getId());
-        } catch (Exception e) {
-            log.error("Erro ao enviar evento para o Kafka", e);
-        }
+        });
     }
 
     @Transactional(readOnly = true)
     public List<AnaliseCategoriaDTO> analisarPorCategoria(UUID usuarioId, LocalDate inicio, LocalDate fim) {
-        var dataInicio = inicio.atStartOfDay();
-        var dataFim = fim.atTime(23, 59, 59);
-
-        return repository.agruparPorCategoria(usuarioId, dataInicio, dataFim);
+        return resumoRepository.agruparPorCategoria(usuarioId, inicio, fim);
     }
 }
\ No newline at end of file
@@ -2,12 +2,15 @@ package com.kivo.api.aplicacao.servico;
 
 import com.kivo.api.dominio.modelo.Usuario;
 import com.kivo.api.dominio.repositorio.RepositorioUsuario;
+import com.kivo.api.aplicacao.dto.RelatorioImportacaoDTO;
 import com.kivo.api.aplicacao.dto.UsuarioEntradaDTO;
 import com.kivo.api.infraestrutura.cliente.ClienteSaldoMock;
+import com.kivo.api.infraestrutura.seguranca.CachePrincipal;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -26,6 +29,15 @@ public class ServicoUsuario {
     @Autowired
     private ClienteSaldoMock mockSaldoClient;
 
+    @Autowired
+    private MotorSaldo motorSaldo;
+
+    @Autowired
+    private CachePrincipal cachePrincipal;
+
+    @Autowired
+    private ServicoImportacaoUsuarios importacaoService;
+
     @Transactional
     public Usuario cadastrar(UsuarioEntradaDTO dados) {
         if (repository.existsByEmail(dados.email())) {
@@ -46,6 +58,7 @@ public class ServicoUsuario {
 
         Usuario usuarioSalvo = repository.save(novoUsuario);
         BigDecimal saldoInicial = gerarSaldoInicialAleatorio();
+        motorSaldo.registrarConta(usuarioSalvo.getId(), saldoInicial);
         mockSaldoClient.criarConta(usuarioSalvo.getId().toString(), saldoInicial);
 
         return usuarioSalvo;
@@ -63,6 +76,7 @@ public class ServicoUsuario {
     @Transactional
     public Usuario atualizarUsuario(UUID id, UsuarioEntradaDTO dados) {
         Usuario usuario = buscar(id);
+        cachePrincipal.invalidar(usuario.getEmail());
 
         usuario.setNome(dados.nome());
         usuario.setEmail(dados.email());
@@ -74,49 +88,15 @@ public class ServicoUsuario {
     @Transactional
     public void remover(UUID id) {
         Usuario usuario = buscar(id);
+        cachePrincipal.invalidar(usuario.getEmail());
         repository.delete(usuario);
     }
 
-    @Transactional
-    public void importarUsuariosPorExcel(org.springframework.web.multipart.MultipartFile arquivo) {
-        try {
-            org.apache.poi.ss.usermodel.Workbook workbook = new org.apache.poi.xssf.usermodel.XSSFWorkbook(arquivo.getInputStream());
-            org.apache.poi.ss.usermodel.Sheet sheet = workbook.getSheetAt(0);
-            org.apache.poi.ss.usermodel.DataFormatter dataFormatter = new org.apache.poi.ss.usermodel.DataFormatter();
-
-            System.out.println("Iniciando leitura do Excel...");
-
-            for (org.apache.poi.ss.usermodel.Row row : sheet) {
-                if (row.getRowNum() == 0) continue;
-
-                if (row.getCell(0) == null && row.getCell(1) == null) continue;
-
-                try {
-                    String nome = dataFormatter.formatCellValue(row.getCell(0));
-                    String email = dataFormatter.formatCellValue(row.getCell(1));
-                    String senha = dataFormatter.formatCellValue(row.getCell(2));
-                    String cpf = dataFormatter.formatCellValue(row.getCell(3));
-
-                    if (nome.isEmpty() || email.isEmpty() || cpf.isEmpty()) {
-                        continue;
-                    }
-
-                    UsuarioEntradaDTO dto = new UsuarioEntradaDTO(nome, email, senha, cpf);
-                    cadastrar(dto);
-                    System.out.println("Usuário criado via Excel: " + nome);
-
-                } catch (Exception e) {
-                    System.err.println("Erro na linha " + row.getRowNum() + ": " + e.getMessage());
-                }
-            }
-            workbook.close();
-
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao processar arquivo Excel: " + e.getMessage());
-        }
+    public RelatorioImportacaoDTO importarUsuariosPorExcel(MultipartFile arquivo) {
+        return importacaoService.importar(arquivo);
     }
 
-    private BigDecimal gerarSaldoInicialAleatorio() {
+    static BigDecimal gerarSaldoInicialAleatorio() {
         double min = 1000.0;
         double max = 10000.0;
         double randomValue = min + (Math.random() * (max - min));
@@ -0,0 +1,43 @@
+package com.kivo.api.apresentacao.controle;
+
+import com.kivo.api.aplicacao.dto.PainelDTO;
+import com.kivo.api.aplicacao.servico.ServicoPainel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/dashboard")
+public class ControlePainel {
+
+    @Autowired
+    private ServicoPainel service;
+
+    @Value("${kivo.painel.dias:30}")
+    private int diasPadrao;
+
+    @Value("${kivo.painel.recentes:10}")
+    private int recentesPadrao;
+
+    @GetMapping
+    public ResponseEntity<PainelDTO> montar(
+            @RequestParam UUID usuarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) Integer recentes
+    ) {
+        LocalDate ate = fim != null ? fim : LocalDate.now();
+        LocalDate desde = inicio != null ? inicio : ate.minusDays(diasPadrao);
+
+        PainelDTO painel = service.montar(usuarioId, desde, ate, recentes != null ? recentes : recentesPadrao);
+        return ResponseEntity.ok(painel);
+    }
+}
@@ -1,21 +1,33 @@
 package com.kivo.api.apresentacao.controle;
 
 import com.kivo.api.aplicacao.dto.*;
-import com.kivo.api.aplicacao.servico.ServicoRelatorio;
+import com.kivo.api.aplicacao.servico.ServicoExportacao;
+import com.kivo.api.aplicacao.servico.ServicoRegistroAgrupado;
 import com.kivo.api.aplicacao.servico.ServicoTransacao;
 import com.kivo.api.dominio.modelo.Transacao;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/transacoes")
@@ -25,11 +37,14 @@ public class ControleTransacao {
     private ServicoTransacao service;
 
     @Autowired
-    private ServicoRelatorio relatorioService;
+    private ServicoExportacao exportacaoService;
+
+    @Autowired
+    private ServicoRegistroAgrupado registroService;
 
     @PostMapping
     public ResponseEntity<TransacaoSaidaDTO> registrar(@RequestBody @Valid TransacaoEntradaDTO dados) {
-        Transacao transacao = service.registrar(dados);
+        Transacao transacao = registroService.registrar(dados);
 
         var response = new TransacaoSaidaDTO(
                 transacao.getId(),
@@ -51,11 +66,25 @@ public class ControleTransacao {
     }
 
     @GetMapping("/extrato")
-    public ResponseEntity<ExtratoDTO> consultarExtrato(@RequestParam UUID usuarioId) {
-        ExtratoDTO extrato = service.buscarExtrato(usuarioId);
+    public ResponseEntity<ExtratoDTO> consultarExtrato(
+            @RequestParam UUID usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limite
+    ) {
+        ExtratoDTO extrato = service.buscarExtrato(usuarioId, cursor, limite);
         return ResponseEntity.ok(extrato);
     }
 
+    @GetMapping("/extrato/stream")
+    public ResponseEntity<StreamingResponseBody> transmitirExtrato(@RequestParam UUID usuarioId) {
+        ExtratoDTO cabecalho = service.buscarCabecalhoExtrato(usuarioId);
+        StreamingResponseBody corpo = saida -> service.escreverExtratoJson(cabecalho, usuarioId, saida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(corpo);
+    }
+
     @GetMapping("/analise")
     public ResponseEntity<List<AnaliseDiariaDTO>> analisarPeriodo(
             @RequestParam UUID usuarioId,
@@ -77,13 +106,62 @@ public class ControleTransacao {
     }
 
     @GetMapping("/exportar")
-    public ResponseEntity<byte[]> exportarExtratoPdf(@RequestParam UUID usuarioId) {
-        var extrato = service.buscarExtrato(usuarioId);
-        byte[] pdfBytes = relatorioService.gerarExtratoPdf(extrato);
+    public ResponseEntity<StreamingResponseBody> exportarExtratoPdf(@RequestParam UUID usuarioId, HttpServletRequest request) {
+        var pronto = exportacaoService.buscarArquivoAtual(usuarioId);
+        if (pronto.isPresent()) {
+            Path arquivo = pronto.get();
+            return respostaPdfStream(usuarioId, saida -> Files.copy(arquivo, saida));
+        }
+
+        ExtratoDTO cabecalho = service.buscarCabecalhoExtrato(usuarioId);
+        ServicoExportacao.Reserva reserva = exportacaoService.reservarRenderizacao();
+        // O corpo pode nunca executar (executor cheio, timeout, cliente que desistiu antes):
+        // o fim da requisição assíncrona também libera a reserva.
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(reserva, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                reserva.close();
+            }
+        });
+        return respostaPdfStream(usuarioId, saida -> {
+            try (reserva) {
+                service.escreverExtratoPdf(cabecalho, usuarioId, saida);
+            }
+        });
+    }
+
+    @PostMapping("/exportar/jobs")
+    public ResponseEntity<JobExportacaoDTO> solicitarExportacao(@RequestParam UUID usuarioId) {
+        JobExportacaoDTO job = exportacaoService.solicitar(usuarioId);
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/transacoes/exportar/jobs/" + job.id())
+                .body(job);
+    }
+
+    @GetMapping("/exportar/jobs/{id}")
+    public ResponseEntity<JobExportacaoDTO> consultarExportacao(@PathVariable UUID id) {
+        return ResponseEntity.ok(exportacaoService.consultar(id));
+    }
+
+    @GetMapping("/exportar/jobs/{id}/arquivo")
+    public ResponseEntity<Resource> baixarExportacao(@PathVariable UUID id) {
+        var job = exportacaoService.consultar(id);
+        return exportacaoService.buscarArquivo(id)
+                .map(arquivo -> respostaPdf(job.usuarioId(), arquivo))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    private ResponseEntity<StreamingResponseBody> respostaPdfStream(UUID usuarioId, StreamingResponseBody corpo) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=extrato-" + usuarioId + ".pdf")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(corpo);
+    }
 
+    private ResponseEntity<Resource> respostaPdf(UUID usuarioId, Path arquivo) {
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=extrato-" + usuarioId + ".pdf")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+                .body(new FileSystemResource(arquivo));
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.kivo.api.apresentacao.controle;
 
+import com.kivo.api.aplicacao.dto.RelatorioImportacaoDTO;
 import com.kivo.api.aplicacao.dto.UsuarioEntradaDTO;
 import com.kivo.api.aplicacao.dto.UsuarioSaidaDTO;
 import com.kivo.api.aplicacao.servico.ServicoUsuario;
@@ -59,9 +60,9 @@ public class ControleUsuario {
     }
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<String> uploadUsuarios(@RequestParam("file") MultipartFile file) {
-        service.importarUsuariosPorExcel(file);
-        return ResponseEntity.ok("Upload realizado com sucesso! Verifique os logs para detalhes.");
+    public ResponseEntity<RelatorioImportacaoDTO> uploadUsuarios(@RequestParam("file") MultipartFile file) {
+        RelatorioImportacaoDTO relatorio = service.importarUsuariosPorExcel(file);
+        return ResponseEntity.ok(relatorio);
     }
 
     private UsuarioSaidaDTO toDTO(Usuario usuario) {
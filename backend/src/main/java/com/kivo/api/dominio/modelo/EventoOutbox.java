@@ -0,0 +1,54 @@
+package com.kivo.api.dominio.modelo;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento de transação pendente de publicação no Kafka. É gravado na mesma transação
+ * do registro e publicado depois pelo relay, que preenche {@code enviadoEm}.
+ * Com {@code credito}, é o crédito de uma transferência aprovada, gravado pelo consumidor
+ * e publicado na partição do destinatário.
+ */
+@Entity
+@Table(
+        name = "tb_outbox",
+        indexes = @Index(name = "idx_outbox_pendentes", columnList = "enviado_em, id")
+)
+public class EventoOutbox implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transacao_id", nullable = false)
+    private UUID transacaoId;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "enviado_em")
+    private LocalDateTime enviadoEm;
+
+    @Column(nullable = false)
+    private boolean credito;
+
+    public EventoOutbox() {}
+
+    public EventoOutbox(UUID transacaoId) {
+        this(transacaoId, false);
+    }
+
+    public EventoOutbox(UUID transacaoId, boolean credito) {
+        this.transacaoId = transacaoId;
+        this.criadoEm = LocalDateTime.now();
+        this.credito = credito;
+    }
+
+    public Long getId() { return id; }
+    public UUID getTransacaoId() { return transacaoId; }
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+    public LocalDateTime getEnviadoEm() { return enviadoEm; }
+    public boolean isCredito() { return credito; }
+}
@@ -0,0 +1,96 @@
+package com.kivo.api.dominio.modelo;
+
+import com.kivo.api.infraestrutura.persistencia.GeradorUuidV7;
+import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "tb_lancamentos",
+        indexes = @Index(name = "idx_lancamentos_conta_data", columnList = "conta_id, data, transacao_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_lancamentos_transacao_conta", columnNames = {"transacao_id", "conta_id"})
+)
+public class LancamentoConta implements Serializable {
+
+    @Id
+    @UuidGenerator(algorithm = GeradorUuidV7.class)
+    private UUID id;
+
+    // Sem FK no banco: tb_transacoes é particionada e meses antigos são descartados ao arquivar.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transacao_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Transacao transacao;
+
+    @Column(name = "conta_id", nullable = false)
+    private UUID contaId;
+
+    @Column(nullable = false)
+    private BigDecimal valor;
+
+    @Column(nullable = false)
+    private LocalDateTime data;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoTransacao tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CategoriaTransacao categoria;
+
+    // Já somada ao saldo da conta: ver MotorSaldo.
+    @Column(nullable = false)
+    private boolean efetivado;
+
+    public LancamentoConta() {}
+
+    public LancamentoConta(Transacao transacao, UUID contaId, BigDecimal valor) {
+        this.transacao = transacao;
+        this.contaId = contaId;
+        this.valor = valor;
+        this.data = transacao.getData();
+        this.tipo = transacao.getTipo();
+        this.categoria = transacao.getCategoria();
+    }
+
+    /**
+     * Partidas da transação: uma por conta afetada, com sinal (crédito positivo, débito negativo).
+     * Uma TRANSFERENCIA gera o débito do remetente e o crédito do destinatário.
+     */
+    public static List<LancamentoConta> de(Transacao transacao) {
+        List<LancamentoConta> lancamentos = new ArrayList<>(2);
+        UUID remetente = transacao.getUsuario().getId();
+
+        switch (transacao.getTipo()) {
+            case DEPOSITO -> lancamentos.add(new LancamentoConta(transacao, remetente, transacao.getValor()));
+            case SAQUE, COMPRA -> lancamentos.add(new LancamentoConta(transacao, remetente, transacao.getValor().negate()));
+            case TRANSFERENCIA -> {
+                lancamentos.add(new LancamentoConta(transacao, remetente, transacao.getValor().negate()));
+                if (transacao.getDestinatario() != null) {
+                    lancamentos.add(new LancamentoConta(transacao, transacao.getDestinatario().getId(), transacao.getValor()));
+                }
+            }
+        }
+        return lancamentos;
+    }
+
+    /** Para partidas geradas de transações já aprovadas, como no backfill. */
+    public void efetivar() {
+        this.efetivado = true;
+    }
+
+    public UUID getId() { return id; }
+    public Transacao getTransacao() { return transacao; }
+    public UUID getContaId() { return contaId; }
+    public BigDecimal getValor() { return valor; }
+    public LocalDateTime getData() { return data; }
+    public TipoTransacao getTipo() { return tipo; }
+    public CategoriaTransacao getCategoria() { return categoria; }
+    public boolean isEfetivado() { return efetivado; }
+}
@@ -0,0 +1,32 @@
+package com.kivo.api.dominio.modelo;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Totais dos lançamentos efetivados de uma conta que saíram de {@code tb_lancamentos}
+ * quando os meses deles foram arquivados. Mantém exata a reconstrução do saldo a partir
+ * do livro.
+ */
+@Entity
+@Table(name = "tb_lancamentos_arquivados")
+public class LancamentosArquivados implements Serializable {
+
+    @Id
+    @Column(name = "conta_id")
+    private UUID contaId;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Column(nullable = false)
+    private BigDecimal soma;
+
+    public LancamentosArquivados() {}
+
+    public UUID getContaId() { return contaId; }
+    public long getQuantidade() { return quantidade; }
+    public BigDecimal getSoma() { return soma; }
+}
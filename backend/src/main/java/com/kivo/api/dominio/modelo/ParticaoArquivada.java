@@ -0,0 +1,51 @@
+package com.kivo.api.dominio.modelo;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Mês de {@code tb_transacoes} cuja partição foi gravada em arquivo e descartada do banco.
+ */
+@Entity
+@Table(name = "tb_particoes_arquivadas")
+public class ParticaoArquivada implements Serializable {
+
+    @Id
+    @Column(length = 63)
+    private String particao;
+
+    @Column(nullable = false)
+    private LocalDate inicio;
+
+    @Column(nullable = false)
+    private LocalDate fim;
+
+    @Column(nullable = false, length = 500)
+    private String arquivo;
+
+    @Column(nullable = false)
+    private long linhas;
+
+    @Column(name = "arquivado_em", nullable = false)
+    private LocalDateTime arquivadoEm;
+
+    public ParticaoArquivada() {}
+
+    public ParticaoArquivada(String particao, LocalDate inicio, LocalDate fim, String arquivo, long linhas) {
+        this.particao = particao;
+        this.inicio = inicio;
+        this.fim = fim;
+        this.arquivo = arquivo;
+        this.linhas = linhas;
+        this.arquivadoEm = LocalDateTime.now();
+    }
+
+    public String getParticao() { return particao; }
+    public LocalDate getInicio() { return inicio; }
+    public LocalDate getFim() { return fim; }
+    public String getArquivo() { return arquivo; }
+    public long getLinhas() { return linhas; }
+    public LocalDateTime getArquivadoEm() { return arquivadoEm; }
+}
@@ -0,0 +1,68 @@
+package com.kivo.api.dominio.modelo;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_resumo_diario")
+public class ResumoDiario implements Serializable {
+
+    @EmbeddedId
+    private Chave id;
+
+    @Column(nullable = false)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    public ResumoDiario() {}
+
+    public Chave getId() { return id; }
+    public BigDecimal getTotal() { return total; }
+    public long getQuantidade() { return quantidade; }
+
+    @Embeddable
+    public static class Chave implements Serializable {
+
+        @Column(name = "conta_id", nullable = false)
+        private UUID contaId;
+
+        @Column(nullable = false)
+        private LocalDate dia;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private CategoriaTransacao categoria;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private TipoTransacao tipo;
+
+        public Chave() {}
+
+        public UUID getContaId() { return contaId; }
+        public LocalDate getDia() { return dia; }
+        public CategoriaTransacao getCategoria() { return categoria; }
+        public TipoTransacao getTipo() { return tipo; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave outra)) return false;
+            return Objects.equals(contaId, outra.contaId)
+                    && Objects.equals(dia, outra.dia)
+                    && categoria == outra.categoria
+                    && tipo == outra.tipo;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contaId, dia, categoria, tipo);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.kivo.api.dominio.modelo;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Snapshot do saldo de uma conta. {@code saldo} e {@code lancamentosEfetivados} são
+ * gravados pelo motor de saldos da instância dona da conta; o valor de referência continua
+ * sendo {@code saldoInicial} somado aos lançamentos efetivados.
+ */
+@Entity
+@Table(name = "tb_saldos")
+public class SaldoConta implements Serializable {
+
+    @Id
+    @Column(name = "conta_id")
+    private UUID contaId;
+
+    @Column(name = "saldo_inicial", nullable = false)
+    private BigDecimal saldoInicial;
+
+    @Column(nullable = false)
+    private BigDecimal saldo;
+
+    @Column(name = "lancamentos_efetivados", nullable = false)
+    private long lancamentosEfetivados;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+
+    public SaldoConta() {}
+
+    public UUID getContaId() { return contaId; }
+    public BigDecimal getSaldoInicial() { return saldoInicial; }
+    public BigDecimal getSaldo() { return saldo; }
+    public long getLancamentosEfetivados() { return lancamentosEfetivados; }
+    public LocalDateTime getAtualizadoEm() { return atualizadoEm; }
+}
@@ -1,6 +1,8 @@
 package com.kivo.api.dominio.modelo;
 
+import com.kivo.api.infraestrutura.persistencia.GeradorUuidV7;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,7 +13,7 @@ import java.util.UUID;
 public class Transacao implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidGenerator(algorithm = GeradorUuidV7.class)
     private UUID id;
 
     @Column(nullable = false)
@@ -35,11 +37,11 @@ public class Transacao implements Serializable {
     @Column(name = "moeda", length = 3)
     private String moeda;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "destinatario_id")
     private Usuario destinatario;
 
@@ -1,6 +1,8 @@
 package com.kivo.api.dominio.modelo;
 
+import com.kivo.api.infraestrutura.persistencia.GeradorUuidV7;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,7 +18,7 @@ import java.util.UUID;
 public class Usuario implements UserDetails, Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidGenerator(algorithm = GeradorUuidV7.class)
     private UUID id;
 
     @Column(nullable = false)
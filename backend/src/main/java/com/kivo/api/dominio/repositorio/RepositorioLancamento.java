@@ -0,0 +1,91 @@
+package com.kivo.api.dominio.repositorio;
+
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
+import com.kivo.api.aplicacao.dto.VersaoExtratoDTO;
+import com.kivo.api.dominio.modelo.LancamentoConta;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface RepositorioLancamento extends JpaRepository<LancamentoConta, UUID> {
+
+    @Query("""
+        SELECT new com.kivo.api.aplicacao.dto.LinhaExtratoDTO(
+            t.id, t.valor, t.tipo, t.categoria, t.status, t.moeda, t.taxaCambio, t.data, t.usuario.id, t.destinatario.id)
+        FROM LancamentoConta l JOIN l.transacao t ON t.data = l.data
+        WHERE l.contaId = :contaId
+        ORDER BY l.data DESC, t.id DESC
+    """)
+    List<LinhaExtratoDTO> findPrimeiraPaginaExtrato(@Param("contaId") UUID contaId, Limit limite);
+
+    @Query("""
+        SELECT new com.kivo.api.aplicacao.dto.LinhaExtratoDTO(
+            t.id, t.valor, t.tipo, t.categoria, t.status, t.moeda, t.taxaCambio, t.data, t.usuario.id, t.destinatario.id)
+        FROM LancamentoConta l JOIN l.transacao t ON t.data = l.data
+        WHERE l.contaId = :contaId
+        AND (l.data < :data OR (l.data = :data AND t.id < :id))
+        ORDER BY l.data DESC, t.id DESC
+    """)
+    List<LinhaExtratoDTO> findPaginaExtratoApos(
+            @Param("contaId") UUID contaId,
+            @Param("data") LocalDateTime data,
+            @Param("id") UUID id,
+            Limit limite
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.kivo.api.aplicacao.dto.LinhaExtratoDTO(
+            t.id, t.valor, t.tipo, t.categoria, t.status, t.moeda, t.taxaCambio, t.data, t.usuario.id, t.destinatario.id)
+        FROM LancamentoConta l JOIN l.transacao t ON t.data = l.data
+        WHERE l.contaId = :contaId
+        ORDER BY l.data DESC, t.id DESC
+    """)
+    Stream<LinhaExtratoDTO> streamHistoricoCompleto(@Param("contaId") UUID contaId);
+
+    /**
+     * Efetiva as partidas de quem originou as transações aprovadas. O crédito de uma
+     * transferência fica de fora: é efetivado pelo consumidor da partição do destinatário.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        UPDATE tb_lancamentos SET efetivado = true
+        WHERE transacao_id IN (:transacaoIds) AND NOT (tipo = 'TRANSFERENCIA' AND valor > 0)
+    """)
+    int efetivarOrigem(@Param("transacaoIds") Collection<UUID> transacaoIds);
+
+    @Query(nativeQuery = true, value = """
+        SELECT transacao_id FROM tb_lancamentos
+        WHERE transacao_id IN (:transacaoIds) AND tipo = 'TRANSFERENCIA' AND valor > 0 AND NOT efetivado
+        FOR UPDATE
+    """)
+    List<UUID> travarCreditosPendentes(@Param("transacaoIds") Collection<UUID> transacaoIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        UPDATE tb_lancamentos SET efetivado = true
+        WHERE transacao_id IN (:transacaoIds) AND tipo = 'TRANSFERENCIA' AND valor > 0
+    """)
+    int efetivarCreditos(@Param("transacaoIds") Collection<UUID> transacaoIds);
+
+    @Query("""
+        SELECT new com.kivo.api.aplicacao.dto.VersaoExtratoDTO(
+            COUNT(l), SUM(CASE WHEN l.efetivado = true THEN 1L ELSE 0L END), MAX(l.data))
+        FROM LancamentoConta l
+        WHERE l.contaId = :contaId
+    """)
+    VersaoExtratoDTO findVersaoExtrato(@Param("contaId") UUID contaId);
+}
@@ -0,0 +1,45 @@
+package com.kivo.api.dominio.repositorio;
+
+import com.kivo.api.dominio.modelo.EventoOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RepositorioOutbox extends JpaRepository<EventoOutbox, Long> {
+
+    @Query(nativeQuery = true, value = """
+        SELECT * FROM tb_outbox
+        WHERE enviado_em IS NULL
+        ORDER BY id
+        LIMIT :limite
+        FOR UPDATE SKIP LOCKED
+    """)
+    List<EventoOutbox> bloquearPendentes(@Param("limite") int limite);
+
+    /**
+     * Lock consultivo do Postgres, liberado no fim da transação. Garante que só uma
+     * instância publica por vez e, portanto, que a ordem do outbox é a ordem no Kafka.
+     */
+    @Query(nativeQuery = true, value = "SELECT pg_try_advisory_xact_lock(:chave)")
+    boolean adquirirLockPublicacao(@Param("chave") long chave);
+
+    @Modifying
+    @Query("UPDATE EventoOutbox e SET e.enviadoEm = :enviadoEm WHERE e.id IN :ids")
+    int marcarEnviados(@Param("ids") Collection<Long> ids, @Param("enviadoEm") LocalDateTime enviadoEm);
+
+    long countByEnviadoEmIsNull();
+
+    @Query("SELECT MIN(e.criadoEm) FROM EventoOutbox e WHERE e.enviadoEm IS NULL")
+    LocalDateTime findCriacaoMaisAntigaPendente();
+
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.enviadoEm < :limite")
+    int removerEnviadosAntesDe(@Param("limite") LocalDateTime limite);
+}
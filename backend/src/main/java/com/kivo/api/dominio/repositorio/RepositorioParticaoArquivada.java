@@ -0,0 +1,19 @@
+package com.kivo.api.dominio.repositorio;
+
+import com.kivo.api.dominio.modelo.ParticaoArquivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RepositorioParticaoArquivada extends JpaRepository<ParticaoArquivada, String> {
+
+    List<ParticaoArquivada> findAllByOrderByInicioDesc();
+
+    @Query("SELECT MAX(p.fim) FROM ParticaoArquivada p")
+    Optional<LocalDate> findLimiteArquivado();
+}
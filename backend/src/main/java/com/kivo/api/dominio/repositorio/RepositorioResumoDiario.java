@@ -0,0 +1,74 @@
+package com.kivo.api.dominio.repositorio;
+
+import com.kivo.api.aplicacao.dto.AnaliseCategoriaDTO;
+import com.kivo.api.aplicacao.dto.AnaliseDiariaDTO;
+import com.kivo.api.dominio.modelo.ResumoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RepositorioResumoDiario extends JpaRepository<ResumoDiario, ResumoDiario.Chave> {
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO tb_resumo_diario (conta_id, dia, categoria, tipo, total, quantidade)
+        SELECT l.conta_id, CAST(l.data AS date), l.categoria, l.tipo, SUM(ABS(l.valor)), COUNT(*)
+        FROM tb_lancamentos l
+        WHERE l.transacao_id IN (:transacaoIds)
+        GROUP BY l.conta_id, CAST(l.data AS date), l.categoria, l.tipo
+        ON CONFLICT (conta_id, dia, categoria, tipo) DO UPDATE
+        SET total = tb_resumo_diario.total + EXCLUDED.total,
+            quantidade = tb_resumo_diario.quantidade + EXCLUDED.quantidade
+    """)
+    int acumularTransacoes(@Param("transacaoIds") Collection<UUID> transacaoIds);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM tb_resumo_diario WHERE dia >= :desde")
+    int limpar(@Param("desde") LocalDate desde);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO tb_resumo_diario (conta_id, dia, categoria, tipo, total, quantidade)
+        SELECT l.conta_id, CAST(l.data AS date), l.categoria, l.tipo, SUM(ABS(l.valor)), COUNT(*)
+        FROM tb_lancamentos l
+        JOIN tb_transacoes t ON t.id = l.transacao_id AND t.data = l.data
+        WHERE t.status = 'APPROVED' AND l.data >= :desde
+        GROUP BY l.conta_id, CAST(l.data AS date), l.categoria, l.tipo
+    """)
+    int recalcularAPartirDosLancamentos(@Param("desde") LocalDate desde);
+
+    @Query("""
+        SELECT new com.kivo.api.aplicacao.dto.AnaliseDiariaDTO(r.id.dia, SUM(r.total))
+        FROM ResumoDiario r
+        WHERE r.id.contaId = :contaId
+        AND r.id.dia BETWEEN :inicio AND :fim
+        GROUP BY r.id.dia
+        ORDER BY r.id.dia ASC
+    """)
+    List<AnaliseDiariaDTO> agruparPorData(
+            @Param("contaId") UUID contaId,
+            @Param("inicio") LocalDate inicio,
+            @Param("fim") LocalDate fim
+    );
+
+    @Query("""
+        SELECT new com.kivo.api.aplicacao.dto.AnaliseCategoriaDTO(r.id.categoria, SUM(r.total))
+        FROM ResumoDiario r
+        WHERE r.id.contaId = :contaId
+        AND r.id.dia BETWEEN :inicio AND :fim
+        GROUP BY r.id.categoria
+    """)
+    List<AnaliseCategoriaDTO> agruparPorCategoria(
+            @Param("contaId") UUID contaId,
+            @Param("inicio") LocalDate inicio,
+            @Param("fim") LocalDate fim
+    );
+}
@@ -0,0 +1,39 @@
+package com.kivo.api.dominio.repositorio;
+
+import com.kivo.api.aplicacao.dto.TotalLancamentosDTO;
+import com.kivo.api.dominio.modelo.SaldoConta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Repository
+public interface RepositorioSaldo extends JpaRepository<SaldoConta, UUID> {
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO tb_saldos (conta_id, saldo_inicial, saldo, lancamentos_efetivados, atualizado_em)
+        VALUES (:contaId, :saldoInicial, :saldoInicial, 0, now())
+        ON CONFLICT (conta_id) DO NOTHING
+    """)
+    int inserirSeAusente(@Param("contaId") UUID contaId, @Param("saldoInicial") BigDecimal saldoInicial);
+
+    /**
+     * Lançamentos efetivados da conta no livro, somando os que já saíram de
+     * {@code tb_lancamentos} quando os meses deles foram arquivados.
+     */
+    @Query("""
+        SELECT new com.kivo.api.aplicacao.dto.TotalLancamentosDTO(
+            COUNT(l) + COALESCE((SELECT a.quantidade FROM LancamentosArquivados a WHERE a.contaId = :contaId), 0),
+            COALESCE(SUM(l.valor), 0) + COALESCE((SELECT a.soma FROM LancamentosArquivados a WHERE a.contaId = :contaId), 0))
+        FROM LancamentoConta l
+        WHERE l.contaId = :contaId AND l.efetivado = true
+    """)
+    TotalLancamentosDTO totalizarLancamentosEfetivados(@Param("contaId") UUID contaId);
+}
@@ -1,53 +1,64 @@
 package com.kivo.api.dominio.repositorio;
 
-import com.kivo.api.aplicacao.dto.AnaliseCategoriaDTO;
-import com.kivo.api.aplicacao.dto.AnaliseDiariaDTO;
+import com.kivo.api.dominio.modelo.StatusTransacao;
 import com.kivo.api.dominio.modelo.Transacao;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface RepositorioTransacao extends JpaRepository<Transacao, UUID> {
 
-    @Query("SELECT t FROM Transacao t WHERE t.usuario.id = :usuarioId OR t.destinatario.id = :usuarioId ORDER BY t.data DESC")
-    List<Transacao> findHistoricoCompleto(@Param("usuarioId") UUID usuarioId);
+    @Query("SELECT DISTINCT t.moeda FROM Transacao t WHERE t.moeda <> 'BRL' AND t.data >= :desde")
+    List<String> findMoedasUtilizadasDesde(@Param("desde") LocalDateTime desde);
 
     @Query("""
-        SELECT new com.kivo.api.aplicacao.dto.AnaliseDiariaDTO(
-            CAST(t.data AS LocalDate),
-            SUM(t.valor)
-        )
-        FROM Transacao t
-        WHERE (t.usuario.id = :usuarioId OR t.destinatario.id = :usuarioId)
-        AND t.data BETWEEN :inicio AND :fim
-        GROUP BY CAST(t.data AS LocalDate)
-        ORDER BY CAST(t.data AS LocalDate) ASC
+        SELECT t FROM Transacao t
+        WHERE t.id > :ultimoId
+        AND NOT EXISTS (SELECT 1 FROM LancamentoConta l WHERE l.transacao = t)
+        ORDER BY t.id
     """)
-    List<AnaliseDiariaDTO> agruparPorData(
-            @Param("usuarioId") UUID usuarioId,
-            @Param("inicio") LocalDateTime inicio,
-            @Param("fim") LocalDateTime fim
-    );
+    List<Transacao> findSemLancamentosApos(@Param("ultimoId") UUID ultimoId, Limit limite);
 
+    /**
+     * A chave de tb_transacoes é (id, data) e a tabela é particionada por mês em data: o
+     * intervalo [desde, ate] das datas das transações deixa o banco visitar só as partições
+     * envolvidas, em vez de procurar cada id em todas elas. Vale também para os UPDATEs abaixo.
+     */
+    @Query(nativeQuery = true, value = """
+        SELECT id FROM tb_transacoes
+        WHERE id IN (:ids) AND data BETWEEN :desde AND :ate AND status = 'PENDING'
+        FOR UPDATE
+    """)
+    List<UUID> travarPendentes(@Param("ids") Collection<UUID> ids,
+                               @Param("desde") LocalDateTime desde,
+                               @Param("ate") LocalDateTime ate);
+
+    @Modifying
+    @Query("UPDATE Transacao t SET t.status = :status WHERE t.id IN :ids AND t.data BETWEEN :desde AND :ate")
+    int atualizarStatus(@Param("ids") Collection<UUID> ids,
+                        @Param("desde") LocalDateTime desde,
+                        @Param("ate") LocalDateTime ate,
+                        @Param("status") StatusTransacao status);
+
+    @Modifying
     @Query("""
-        SELECT new com.kivo.api.aplicacao.dto.AnaliseCategoriaDTO(
-            t.categoria,
-            SUM(t.valor)
-        )
-        FROM Transacao t
-        WHERE (t.usuario.id = :usuarioId OR t.destinatario.id = :usuarioId)
-        AND t.data BETWEEN :inicio AND :fim
-        GROUP BY t.categoria
+        UPDATE Transacao t SET t.status = com.kivo.api.dominio.modelo.StatusTransacao.ERROR
+        WHERE t.id = :id AND t.data BETWEEN :desde AND :ate
+        AND t.status = com.kivo.api.dominio.modelo.StatusTransacao.PENDING
     """)
-    List<AnaliseCategoriaDTO> agruparPorCategoria(
-            @Param("usuarioId") UUID usuarioId,
-            @Param("inicio") LocalDateTime inicio,
-            @Param("fim") LocalDateTime fim
-    );
-}
\ No newline at end of file
+    int marcarErroSePendente(@Param("id") UUID id,
+                             @Param("desde") LocalDateTime desde,
+                             @Param("ate") LocalDateTime ate);
+
+    @Query("SELECT t.id FROM Transacao t WHERE t.id IN :ids")
+    List<UUID> findIdsExistentes(@Param("ids") Collection<UUID> ids);
+}
@@ -2,12 +2,20 @@ package com.kivo.api.dominio.repositorio;
 
 import com.kivo.api.dominio.modelo.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface RepositorioUsuario extends JpaRepository<Usuario, UUID> {
     boolean existsByEmail(String email);
     boolean existsByCpf(String cpf);
     UserDetails findByEmail(String email);
+
+    @Query("SELECT u.email FROM Usuario u")
+    List<String> findTodosEmails();
+
+    @Query("SELECT u.cpf FROM Usuario u")
+    List<String> findTodosCpfs();
 }
\ No newline at end of file
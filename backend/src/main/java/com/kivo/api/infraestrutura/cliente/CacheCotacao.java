@@ -0,0 +1,183 @@
+package com.kivo.api.infraestrutura.cliente;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.kivo.api.aplicacao.dto.CambioDTO;
+import com.kivo.api.dominio.repositorio.RepositorioTransacao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cache local de cotações da BrasilAPI.
+ *
+ * Guarda o resultado de cada (moeda, dia útil) — inclusive os dias sem boletim —
+ * e a cotação vigente por moeda, que é renovada em segundo plano pelo job de
+ * pré-carga. Assim o registro de transações só espera pela BrasilAPI na primeira
+ * vez que uma moeda aparece, e mesmo assim por no máximo {@code espera-maxima}.
+ */
+@Component
+public class CacheCotacao {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCotacao.class);
+
+    private final ClienteBrasilApi brasilApiClient;
+    private final RepositorioTransacao transacaoRepository;
+    private final Cache<ChaveCotacao, Optional<BigDecimal>> cotacoesPorDia;
+    private final AsyncLoadingCache<String, CambioDTO> cotacoesVigentes;
+    private final Set<String> moedasObservadas = ConcurrentHashMap.newKeySet();
+    private final Timer latenciaConsulta;
+    private final Timer latenciaBrasilApi;
+    private final Duration esperaMaxima;
+    private final int diasRetroativos;
+
+    public CacheCotacao(ClienteBrasilApi brasilApiClient,
+                        RepositorioTransacao transacaoRepository,
+                        MeterRegistry registry,
+                        @Qualifier("executorCambio") Executor executor,
+                        @Value("${kivo.cambio.cache.ttl-dia-atual:30m}") Duration ttlDiaAtual,
+                        @Value("${kivo.cambio.cache.ttl-dia-fechado:24h}") Duration ttlDiaFechado,
+                        @Value("${kivo.cambio.cache.ttl-sem-cotacao:1h}") Duration ttlSemCotacao,
+                        @Value("${kivo.cambio.cache.tamanho-maximo:1000}") long tamanhoMaximo,
+                        @Value("${kivo.cambio.cache.espera-maxima:2s}") Duration esperaMaxima,
+                        @Value("${kivo.cambio.dias-retroativos:5}") int diasRetroativos,
+                        @Value("${kivo.cambio.prefetch.moedas:}") List<String> moedasPrefetch) {
+        this.brasilApiClient = brasilApiClient;
+        this.transacaoRepository = transacaoRepository;
+        this.esperaMaxima = esperaMaxima;
+        this.diasRetroativos = diasRetroativos;
+
+        moedasPrefetch.stream()
+                .filter(moeda -> !moeda.isBlank())
+                .map(String::toUpperCase)
+                .forEach(moedasObservadas::add);
+
+        this.cotacoesPorDia = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(Expiry.creating((ChaveCotacao chave, Optional<BigDecimal> cotacao) -> {
+                    if (chave.data().isBefore(LocalDate.now())) {
+                        return ttlDiaFechado;
+                    }
+                    return cotacao.isPresent() ? ttlDiaAtual : ttlSemCotacao;
+                }))
+                .recordStats()
+                .build();
+
+        this.cotacoesVigentes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .refreshAfterWrite(ttlDiaAtual)
+                .expireAfterWrite(ttlDiaFechado)
+                .executor(executor)
+                .recordStats()
+                .buildAsync(new CacheLoader<String, CambioDTO>() {
+                    @Override
+                    public CambioDTO load(String moeda) {
+                        return resolverCotacaoVigente(moeda);
+                    }
+
+                    @Override
+                    public CambioDTO reload(String moeda, CambioDTO anterior) {
+                        CambioDTO atual = resolverCotacaoVigente(moeda);
+                        return atual != null ? atual : anterior;
+                    }
+                });
+
+        CaffeineCacheMetrics.monitor(registry, cotacoesPorDia, "cambio.dias");
+        CaffeineCacheMetrics.monitor(registry, cotacoesVigentes, "cambio.vigentes");
+
+        this.latenciaConsulta = Timer.builder("kivo.cambio.consulta")
+                .description("Tempo gasto pelo registro de transações para obter a taxa de câmbio")
+                .register(registry);
+        this.latenciaBrasilApi = Timer.builder("kivo.cambio.brasilapi")
+                .description("Latência das chamadas à BrasilAPI disparadas pelo cache")
+                .register(registry);
+    }
+
+    /**
+     * Taxa de câmbio vigente para a moeda. Nunca espera mais que {@code espera-maxima};
+     * se a cotação ainda estiver sendo carregada, ela fica no cache para as próximas chamadas.
+     */
+    public Optional<BigDecimal> obterTaxa(String moeda) {
+        String codigo = moeda.toUpperCase();
+
+        return latenciaConsulta.record(() -> {
+            try {
+                CambioDTO cambio = cotacoesVigentes.get(codigo)
+                        .get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+                return Optional.ofNullable(cambio).map(CambioDTO::valor);
+            } catch (TimeoutException e) {
+                log.warn("Cotação de {} não ficou pronta em {}", codigo, esperaMaxima);
+            } catch (ExecutionException e) {
+                log.warn("Falha ao obter cotação de {}: {}", codigo, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.empty();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registrarMoedasUtilizadas() {
+        try {
+            transacaoRepository.findMoedasUtilizadasDesde(LocalDateTime.now().minusDays(30))
+                    .forEach(moeda -> moedasObservadas.add(moeda.toUpperCase()));
+        } catch (Exception e) {
+            log.warn("Não foi possível carregar as moedas utilizadas: {}", e.getMessage());
+        }
+        preCarregarCotacoes();
+    }
+
+    @Scheduled(initialDelayString = "${kivo.cambio.prefetch.intervalo:15m}",
+            fixedDelayString = "${kivo.cambio.prefetch.intervalo:15m}")
+    public void preCarregarCotacoes() {
+        log.debug("Pré-carregando cotações de {}", moedasObservadas);
+        moedasObservadas.forEach(moeda -> cotacoesVigentes.synchronous().refresh(moeda));
+    }
+
+    private CambioDTO resolverCotacaoVigente(String moeda) {
+        LocalDate dataParaBuscar = LocalDate.now();
+
+        for (int i = 0; i < diasRetroativos; i++) {
+            Optional<BigDecimal> cotacao = cotacoesPorDia.get(new ChaveCotacao(moeda, dataParaBuscar), this::consultarBrasilApi);
+
+            if (cotacao.isPresent()) {
+                moedasObservadas.add(moeda);
+                return new CambioDTO(moeda, cotacao.get());
+            }
+            dataParaBuscar = dataParaBuscar.minusDays(1);
+        }
+
+        log.error("Nenhuma cotação de {} nos últimos {} dias.", moeda, diasRetroativos);
+        return null;
+    }
+
+    private Optional<BigDecimal> consultarBrasilApi(ChaveCotacao chave) {
+        return latenciaBrasilApi.record(() -> brasilApiClient.buscarCotacaoNaData(chave.moeda(), chave.data()));
+    }
+
+    private record ChaveCotacao(String moeda, LocalDate data) {}
+}
@@ -1,16 +1,17 @@
 package com.kivo.api.infraestrutura.cliente;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.kivo.api.aplicacao.dto.CambioDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 
 @Component
 public class ClienteBrasilApi {
@@ -24,38 +25,32 @@ public class ClienteBrasilApi {
         this.restClient = restClient;
     }
 
-    public CambioDTO buscarCotacao(String moeda) {
-        LocalDate dataParaBuscar = LocalDate.now();
-
-        for (int i = 0; i < 5; i++) {
-            String dataFormatada = dataParaBuscar.format(formatter);
-
-            try {
-                log.info("Tentando buscar cotação de {} para a data: {}", moeda, dataFormatada);
-
-                JsonNode json = restClient.get()
-                        .uri("/cambio/v1/cotacao/{moeda}/{data}", moeda, dataFormatada)
-                        .retrieve()
-                        .body(JsonNode.class);
-
-                JsonNode listaCotacoes = json.get("cotacoes");
-
-                if (listaCotacoes != null && listaCotacoes.isArray() && !listaCotacoes.isEmpty()) {
-                    JsonNode ultimaCotacao = listaCotacoes.get(listaCotacoes.size() - 1);
-                    BigDecimal valorCotacao = new BigDecimal(ultimaCotacao.get("cotacao_venda").asText());
-
-                    log.info("Cotação encontrada com sucesso: R$ {}", valorCotacao);
-                    return new CambioDTO(moeda, valorCotacao);
-                }
+    /**
+     * Busca a cotação de venda de um único dia. Retorna vazio quando a BrasilAPI
+     * informa que não há boletim na data (fim de semana/feriado); falhas de rede
+     * são propagadas para que não sejam memorizadas como "sem cotação".
+     */
+    public Optional<BigDecimal> buscarCotacaoNaData(String moeda, LocalDate data) {
+        String dataFormatada = data.format(formatter);
+        log.debug("Buscando cotação de {} para a data: {}", moeda, dataFormatada);
+
+        JsonNode json;
+        try {
+            json = restClient.get()
+                    .uri("/cambio/v1/cotacao/{moeda}/{data}", moeda, dataFormatada)
+                    .retrieve()
+                    .body(JsonNode.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
 
-            } catch (Exception e) {
-                log.warn("Sem cotação para {}. Erro/Feriado. Tentando dia anterior...", dataFormatada);
-            }
+        JsonNode listaCotacoes = json != null ? json.get("cotacoes") : null;
 
-            dataParaBuscar = dataParaBuscar.minusDays(1);
+        if (listaCotacoes != null && listaCotacoes.isArray() && !listaCotacoes.isEmpty()) {
+            JsonNode ultimaCotacao = listaCotacoes.get(listaCotacoes.size() - 1);
+            return Optional.of(new BigDecimal(ultimaCotacao.get("cotacao_venda").asText()));
         }
 
-        log.error("Falha ao buscar cotação de {} após várias tentativas. Seguindo sem taxa.", moeda);
-        return null;
+        return Optional.empty();
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,26 @@
 package com.kivo.api.infraestrutura.cliente;
 
 import com.kivo.api.aplicacao.dto.SaldoExternoDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
 import java.math.BigDecimal;
 import java.util.List;
 
 @Component
 public class ClienteSaldoMock {
 
+    private static final Logger log = LoggerFactory.getLogger(ClienteSaldoMock.class);
+
     private final RestClient restClient;
     private final String RESOURCE = "/saldoInicial";
 
-    public ClienteSaldoMock() {
-        String baseUrl = "https://697aa3ae0e6ff62c3c59d0e6.mockapi.io/api/v1";
-        this.restClient = RestClient.builder()
-                .baseUrl(baseUrl)
-                .build();
+    public ClienteSaldoMock(@Qualifier("mockApiRestClient") RestClient restClient) {
+        this.restClient = restClient;
     }
 
     public void criarConta(String usuarioId, BigDecimal saldoInicial) {
@@ -30,12 +33,16 @@ public class ClienteSaldoMock {
                     .retrieve()
                     .toBodilessEntity();
 
-            System.out.println("DEBUG: Conta criada no MockAPI com saldo R$ " + saldoInicial);
+            log.debug("Conta {} criada no MockAPI com saldo R$ {}", usuarioId, saldoInicial);
         } catch (Exception e) {
-            System.err.println("ERRO MOCKAPI POST: " + e.getMessage());
+            log.warn("Falha ao criar conta {} no MockAPI: {}", usuarioId, e.getMessage());
         }
     }
 
+    /**
+     * Saldo inicial cadastrado no MockAPI. Usado só para semear contas que ainda não têm
+     * saldo local, então falhas são propagadas em vez de virar saldo zero.
+     */
     public BigDecimal buscarSaldo(String usuarioId) {
         try {
             List<SaldoExternoDTO> contas = restClient.get()
@@ -47,9 +54,9 @@ public class ClienteSaldoMock {
                 return contas.get(0).saldo();
             }
             return BigDecimal.ZERO;
-        } catch (Exception e) {
-            System.err.println("ERRO MOCKAPI GET: " + e.getMessage());
-            return BigDecimal.ZERO;
+        } catch (RestClientException e) {
+            log.warn("Falha ao buscar saldo de {} no MockAPI: {}", usuarioId, e.getMessage());
+            throw new RuntimeException("Saldo inicial indisponível no MockAPI", e);
         }
     }
 }
\ No newline at end of file
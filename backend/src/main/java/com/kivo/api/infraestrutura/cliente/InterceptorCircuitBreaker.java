@@ -0,0 +1,47 @@
+package com.kivo.api.infraestrutura.cliente;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+
+/**
+ * Passa cada chamada de um upstream pelo circuit breaker dele. Com o circuito aberto a
+ * chamada falha na hora com {@code CallNotPermittedException}, sem ocupar conexão nem
+ * esperar timeout. Respostas 5xx, timeouts e erros de I/O contam como falha.
+ */
+public class InterceptorCircuitBreaker implements ClientHttpRequestInterceptor {
+
+    private final CircuitBreaker circuitBreaker;
+
+    public InterceptorCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        circuitBreaker.acquirePermission();
+        long inicio = circuitBreaker.getCurrentTimestamp();
+
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            long duracao = circuitBreaker.getCurrentTimestamp() - inicio;
+
+            if (response.getStatusCode().is5xxServerError()) {
+                circuitBreaker.onError(duracao, circuitBreaker.getTimestampUnit(),
+                        new HttpServerErrorException(response.getStatusCode()));
+            } else {
+                circuitBreaker.onSuccess(duracao, circuitBreaker.getTimestampUnit());
+            }
+            return response;
+
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - inicio, circuitBreaker.getTimestampUnit(), e);
+            throw e;
+        }
+    }
+}
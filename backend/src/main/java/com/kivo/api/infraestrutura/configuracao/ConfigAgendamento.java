@@ -0,0 +1,16 @@
+package com.kivo.api.infraestrutura.configuracao;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tarefas agendadas (relay do outbox, snapshots de saldo, manutenção de partições...).
+ * Desligáveis com {@code kivo.agendamento.habilitado=false}, usado pelos testes que
+ * medem as consultas de um endpoint sem o ruído das tarefas de fundo.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "kivo.agendamento.habilitado", havingValue = "true", matchIfMissing = true)
+public class ConfigAgendamento {
+}
@@ -1,16 +1,181 @@
 package com.kivo.api.infraestrutura.configuracao;
 
+import com.kivo.api.infraestrutura.cliente.InterceptorCircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Clientes HTTP de saída.
+ *
+ * Todos os upstreams compartilham um único pool de conexões keep-alive; cada um tem a
+ * própria URL, limite de conexões, timeouts e circuit breaker, configurados em
+ * {@code kivo.http.<upstream>.*}. Os RestClients partem do builder do Spring Boot, então
+ * latência e erros de cada upstream aparecem em {@code http.client.requests}
+ * (tag {@code client.name}) e o estado dos breakers em {@code resilience4j.circuitbreaker.*}.
+ */
 @Configuration
 public class ConfigClienteRest {
 
+    public static final String BRASIL_API = "brasilapi";
+    public static final String MOCK_API = "mockapi";
+
+    @Autowired
+    private Environment environment;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClientCompartilhado(
+            @Value("${kivo.http.pool.max-conexoes:100}") int maxConexoes,
+            @Value("${kivo.http.pool.ociosidade-maxima:30s}") Duration ociosidadeMaxima) {
+
+        Map<String, Upstream> porRota = Stream.of(BRASIL_API, MOCK_API)
+                .map(this::upstream)
+                .collect(Collectors.toMap(Upstream::rota, Function.identity(), (primeiro, outro) -> primeiro));
+
+        PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager();
+        pool.setMaxTotal(maxConexoes);
+        pool.setDefaultMaxPerRoute(maxConexoes);
+        pool.setConnectionConfigResolver(rota -> {
+            Upstream upstream = porRota.get(rota.getTargetHost().toHostString());
+            return upstream != null ? upstream.configuracaoConexao() : ConnectionConfig.DEFAULT;
+        });
+        porRota.values().forEach(upstream -> pool.setMaxPerRoute(upstream.rotaHttp(), upstream.maxConexoes()));
+
+        return HttpClients.custom()
+                .setConnectionManager(pool)
+                .evictIdleConnections(TimeValue.of(ociosidadeMaxima))
+                .evictExpiredConnections()
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public CircuitBreakerRegistry registroCircuitBreakers(
+            MeterRegistry meterRegistry,
+            @Value("${kivo.http.circuit-breaker.taxa-falhas:50}") float taxaFalhas,
+            @Value("${kivo.http.circuit-breaker.limite-lentidao:2s}") Duration limiteLentidao,
+            @Value("${kivo.http.circuit-breaker.janela:20}") int janela,
+            @Value("${kivo.http.circuit-breaker.espera-aberto:30s}") Duration esperaAberto) {
+
+        CircuitBreakerRegistry registro = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(taxaFalhas)
+                .slowCallRateThreshold(taxaFalhas)
+                .slowCallDurationThreshold(limiteLentidao)
+                .slidingWindowSize(janela)
+                .minimumNumberOfCalls(Math.min(janela, 10))
+                .waitDurationInOpenState(esperaAberto)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registro).bindTo(meterRegistry);
+        return registro;
+    }
+
+    @Bean
+    public RestClient brasilApiRestClient(RestClient.Builder builder,
+                                          CloseableHttpClient httpClientCompartilhado,
+                                          CircuitBreakerRegistry registroCircuitBreakers,
+                                          @Value("${kivo.http.pool.espera-conexao:1s}") Duration esperaConexao) {
+        return criar(upstream(BRASIL_API), builder, httpClientCompartilhado, registroCircuitBreakers, esperaConexao);
+    }
+
     @Bean
-    public RestClient brasilApiRestClient() {
-        return RestClient.builder()
-                .baseUrl("https://brasilapi.com.br/api")
+    public RestClient mockApiRestClient(RestClient.Builder builder,
+                                        CloseableHttpClient httpClientCompartilhado,
+                                        CircuitBreakerRegistry registroCircuitBreakers,
+                                        @Value("${kivo.http.pool.espera-conexao:1s}") Duration esperaConexao) {
+        return criar(upstream(MOCK_API), builder, httpClientCompartilhado, registroCircuitBreakers, esperaConexao);
+    }
+
+    private Upstream upstream(String nome) {
+        return Upstream.ler(environment, nome);
+    }
+
+    private RestClient criar(Upstream upstream,
+                             RestClient.Builder builder,
+                             CloseableHttpClient httpClient,
+                             CircuitBreakerRegistry registro,
+                             Duration esperaConexao) {
+        HttpComponentsClientHttpRequestFactory fabrica = new HttpComponentsClientHttpRequestFactory(httpClient);
+        fabrica.setConnectionRequestTimeout(esperaConexao);
+        fabrica.setReadTimeout(upstream.timeoutLeitura());
+
+        return builder.clone()
+                .baseUrl(upstream.url().toString())
+                .requestFactory(fabrica)
+                .requestInterceptor(new InterceptorCircuitBreaker(registro.circuitBreaker(upstream.nome())))
                 .build();
     }
-}
\ No newline at end of file
+
+    public record Upstream(String nome, URI url, Duration timeoutConexao, Duration timeoutLeitura, int maxConexoes) {
+
+        static Upstream ler(Environment environment, String nome) {
+            String prefixo = "kivo.http." + nome + ".";
+            String url = environment.getProperty(prefixo + "url");
+            if (url == null) {
+                throw new IllegalStateException("Propriedade " + prefixo + "url não configurada");
+            }
+            return new Upstream(
+                    nome,
+                    URI.create(url),
+                    environment.getProperty(prefixo + "timeout-conexao", Duration.class, Duration.ofSeconds(2)),
+                    environment.getProperty(prefixo + "timeout-leitura", Duration.class, Duration.ofSeconds(5)),
+                    environment.getProperty(prefixo + "max-conexoes", Integer.class, 20)
+            );
+        }
+
+        /**
+         * Host e porta no formato de {@code HttpHost.toHostString()}, para localizar o upstream pela rota do pool.
+         */
+        String rota() {
+            return url.getHost() + ":" + porta();
+        }
+
+        HttpRoute rotaHttp() {
+            return new HttpRoute(new HttpHost(url.getScheme(), url.getHost(), porta()), null, seguro());
+        }
+
+        private boolean seguro() {
+            return "https".equalsIgnoreCase(url.getScheme());
+        }
+
+        private int porta() {
+            if (url.getPort() != -1) {
+                return url.getPort();
+            }
+            return seguro() ? 443 : 80;
+        }
+
+        ConnectionConfig configuracaoConexao() {
+            return ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(timeoutConexao))
+                    .setSocketTimeout(Timeout.of(timeoutLeitura))
+                    .setTimeToLive(TimeValue.ofMinutes(5))
+                    .build();
+        }
+    }
+}
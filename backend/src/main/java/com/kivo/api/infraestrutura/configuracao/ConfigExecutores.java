@@ -0,0 +1,103 @@
+package com.kivo.api.infraestrutura.configuracao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executores internos.
+ *
+ * Com {@code spring.threads.virtual.enabled=true} numa JVM 21+, os executores de trabalho
+ * bloqueante (chamadas HTTP de saída, consultas do painel) passam a usar threads virtuais, mantendo o mesmo
+ * limite de concorrência. Os de trabalho de CPU continuam em pools de threads de plataforma.
+ */
+@Configuration
+public class ConfigExecutores {
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    public ThreadPoolTaskExecutor executorHashSenha(
+            @Value("${kivo.importacao.threads-hash:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(10_000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("hash-senha-");
+        return executor;
+    }
+
+    @Bean
+    public AsyncTaskExecutor executorContasExternas(
+            @Value("${kivo.importacao.threads-contas-externas:4}") int threads) {
+        return executorBloqueante("conta-externa-", threads, false);
+    }
+
+    @Bean
+    public AsyncTaskExecutor executorCambio(
+            @Value("${kivo.cambio.threads:2}") int threads) {
+        return executorBloqueante("cambio-", threads, false);
+    }
+
+    /**
+     * Sem fila e recusando o excedente: a requisição do painel nunca espera vaga nem executa
+     * a consulta na própria thread, o componente recusado só vem indisponível. Cada tarefa
+     * segura uma conexão JDBC, então sem {@code kivo.painel.threads} o limite é metade do
+     * pool do Hikari, deixando a outra metade para o resto da API.
+     */
+    @Bean
+    public AsyncTaskExecutor executorPainel(
+            @Value("${kivo.painel.threads:0}") int threads,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexoes) {
+        return executorBloqueante("painel-", threads > 0 ? threads : Math.max(1, conexoes / 2), true);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor executorRelatorios(
+            @Value("${kivo.exportacao.renderizacoes-simultaneas:2}") int threads,
+            @Value("${kivo.exportacao.tamanho-fila:20}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("relatorio-");
+        return executor;
+    }
+
+    /**
+     * Em modo virtual cada tarefa ganha uma thread virtual e quem submete espera quando o
+     * limite é atingido; em modo plataforma, pool fixo com o chamador executando o excedente.
+     * Com {@code recusar}, o excedente é recusado com {@code TaskRejectedException} nos dois modos.
+     * No modo AOT o modo precisa ser o mesmo do build, ver {@link ModoThreadsAot}.
+     */
+    private AsyncTaskExecutor executorBloqueante(String prefixo, int limite, boolean recusar) {
+        ModoThreadsAot.verificar(environment);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefixo);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(limite);
+            executor.setRejectTasksWhenLimitReached(recusar);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(limite);
+        executor.setMaxPoolSize(limite);
+        executor.setQueueCapacity(recusar ? 0 : 10_000);
+        executor.setRejectedExecutionHandler(recusar
+                ? new ThreadPoolExecutor.AbortPolicy()
+                : new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix(prefixo);
+        return executor;
+    }
+}
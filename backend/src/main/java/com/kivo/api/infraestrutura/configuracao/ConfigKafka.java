@@ -0,0 +1,107 @@
+package com.kivo.api.infraestrutura.configuracao;
+
+import com.kivo.api.aplicacao.servico.MotorSaldo;
+import com.kivo.api.infraestrutura.mensageria.MetricasKafka;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.RetryListener;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.time.Duration;
+import java.util.Collection;
+
+@Configuration
+public class ConfigKafka {
+
+    @Value("${kivo.kafka.topico.particoes:6}")
+    private int particoes;
+
+    @Value("${kivo.kafka.topico.replicas:1}")
+    private int replicas;
+
+    /**
+     * O número de partições limita a concorrência útil dos consumidores: cada partição é
+     * lida por uma única thread do grupo. Aumentar depois redistribui as chaves, então
+     * eventos em trânsito de uma conta podem mudar de partição durante a troca.
+     */
+    @Bean
+    public NewTopic topicoTransacao(@Value("${topic.name.transacao}") String nome) {
+        return TopicBuilder.name(nome).partitions(particoes).replicas(replicas).build();
+    }
+
+    @Bean
+    public NewTopic topicoDlqTransacao(@Value("${topic.name.transacao.dlq}") String nome) {
+        return TopicBuilder.name(nome).partitions(particoes).replicas(replicas).build();
+    }
+
+    /**
+     * Fábrica dos listeners em lote: cada poll é entregue inteiro ao listener e os
+     * offsets são confirmados uma vez por lote, depois que ele retorna sem erro.
+     * A fábrica padrão do Spring Boot continua servindo os listeners de um registro só.
+     *
+     * Um lote que falha é entregue de novo ao listener, com espera exponencial até
+     * {@code kivo.kafka.consumidor.retentativas.espera-maxima} entre tentativas, enquanto
+     * o consumidor fica pausado nas mesmas posições; as partições do lote não avançam e a
+     * ordem por conta se mantém. Depois de {@code tempo-maximo} os registros vão para a DLQ.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaLoteListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaTemplate<Object, Object> kafkaTemplate,
+            MotorSaldo motorSaldo,
+            MetricasKafka metricasKafka,
+            @Value("${topic.name.transacao.dlq}") String topicoDlq,
+            @Value("${kivo.kafka.consumidor.retentativas.espera-inicial:1s}") Duration esperaInicial,
+            @Value("${kivo.kafka.consumidor.retentativas.espera-maxima:30s}") Duration esperaMaxima,
+            @Value("${kivo.kafka.consumidor.retentativas.tempo-maximo:10m}") Duration tempoMaximo) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        ExponentialBackOff espera = new ExponentialBackOff(esperaInicial.toMillis(), 2.0);
+        espera.setMaxInterval(esperaMaxima.toMillis());
+        espera.setMaxElapsedTime(tempoMaximo.toMillis());
+        DefaultErrorHandler tratador = new DefaultErrorHandler(
+                new DeadLetterPublishingRecoverer(kafkaTemplate, (registro, erro) -> new TopicPartition(topicoDlq, -1)),
+                espera);
+        tratador.setRetryListeners(new RetryListener() {
+            @Override
+            public void failedDelivery(ConsumerRecord<?, ?> registro, Exception erro, int tentativa) {
+                metricasKafka.registrarRetentativa(registro.topic(), 1);
+            }
+
+            @Override
+            public void failedDelivery(ConsumerRecords<?, ?> registros, Exception erro, int tentativa) {
+                registros.partitions().forEach(particao ->
+                        metricasKafka.registrarRetentativa(particao.topic(), registros.records(particao).size()));
+            }
+        });
+        factory.setCommonErrorHandler(tratador);
+
+        // Roda na thread do consumidor que perdeu as partições, depois do último lote delas:
+        // a partir daqui outra instância pode movimentar essas contas.
+        factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                if (!partitions.isEmpty()) {
+                    motorSaldo.liberar(partitions.stream().map(TopicPartition::partition).toList());
+                }
+            }
+        });
+        return factory;
+    }
+}
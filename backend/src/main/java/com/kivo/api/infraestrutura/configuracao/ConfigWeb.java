@@ -0,0 +1,19 @@
+package com.kivo.api.infraestrutura.configuracao;
+
+import com.kivo.api.infraestrutura.web.InterceptorConsultas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ConfigWeb implements WebMvcConfigurer {
+
+    @Autowired
+    private InterceptorConsultas interceptorConsultas;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptorConsultas);
+    }
+}
@@ -0,0 +1,62 @@
+package com.kivo.api.infraestrutura.configuracao;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Guarda no jar AOT o modo de threads com que ele foi gerado e recusa a subida AOT em outro modo.
+ *
+ * O AOT fixa no build as {@code @ConditionalOnThreading} do Spring Boot (Tomcat, executores de tarefas),
+ * mas {@link ConfigExecutores} decide os seus em tempo de execução: sem esta verificação, um jar gerado
+ * com threads virtuais desligadas e executado com elas ligadas subiria misturando os dois modos.
+ * Registrado em {@code META-INF/spring/aot.factories}.
+ */
+public class ModoThreadsAot implements BeanFactoryInitializationAotProcessor {
+
+    static final String RECURSO = "META-INF/kivo/aot-threads.properties";
+    private static final String PROPRIEDADE = "spring.threads.virtual.enabled";
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        boolean virtuais = Threading.VIRTUAL.isActive(beanFactory.getBean(Environment.class));
+        return (generationContext, code) -> generationContext.getGeneratedFiles()
+                .addResourceFile(RECURSO, PROPRIEDADE + "=" + virtuais + "\n");
+    }
+
+    /**
+     * Sem efeito fora do modo AOT ({@code -Dspring.aot.enabled=true}).
+     */
+    public static void verificar(Environment environment) {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        ClassPathResource recurso = new ClassPathResource(RECURSO);
+        if (!recurso.exists()) {
+            return;
+        }
+        Properties gravado;
+        try {
+            gravado = PropertiesLoaderUtils.loadProperties(recurso);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        boolean noBuild = Boolean.parseBoolean(gravado.getProperty(PROPRIEDADE));
+        boolean agora = Threading.VIRTUAL.isActive(environment);
+        if (noBuild != agora) {
+            throw new IllegalStateException("Jar AOT gerado com " + PROPRIEDADE + "=" + noBuild
+                    + ", mas a subida pede threads virtuais " + (agora ? "ligadas" : "desligadas")
+                    + ". Suba sem -Dspring.aot.enabled=true ou gere o jar AOT com o mesmo valor"
+                    + " (mvn -Paot package -Daot.threads-virtuais=" + agora + ", num JDK 21+ para true).");
+        }
+    }
+}
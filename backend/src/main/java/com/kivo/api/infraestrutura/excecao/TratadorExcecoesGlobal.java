@@ -1,8 +1,13 @@
 package com.kivo.api.infraestrutura.excecao;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -37,6 +42,26 @@ public class TratadorExcecoesGlobal {
                 .body(new ErroRespostaDTO(ex.getMessage()));
     }
 
+    // O tipo explícito sobrepõe o de uma resposta em streaming (o PDF do extrato) recusada pelo executor.
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErroRespostaDTO> handleTaskRejected() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErroRespostaDTO("Muitas solicitações em processamento, tente novamente em instantes"));
+    }
+
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<ErroRespostaDTO> handleCircuitoAberto(CallNotPermittedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErroRespostaDTO("Serviço externo indisponível no momento, tente novamente em instantes"));
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErroRespostaDTO> handleBancoIndisponivel() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErroRespostaDTO("Banco de dados sobrecarregado, tente novamente em instantes"));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErroRespostaDTO> handleGeneralException(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,192 @@
+package com.kivo.api.infraestrutura.mensageria;
+
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Formato binário do {@link EventoTransacao}.
+ *
+ * <pre>
+ * v1: versão(1) flags(1: destinatário, taxa, crédito) id(16) usuarioId(16) [destinatarioId(16)]
+ *     tipo(1) categoria(1) moeda(1+n) valor(decimal) [taxaCambio(decimal)]
+ *     data(8 segundos + 4 nanos, hora local codificada como UTC)
+ * decimal: escala(2) tamanho(1) valor não escalado em complemento de dois(n)
+ * tamanhos de 1 byte (moeda, decimal) são sem sinal, até 255
+ * </pre>
+ *
+ * Os códigos de tipo e categoria são fixos nas tabelas abaixo, não no {@code ordinal()},
+ * para que reordenar ou incluir constantes nos enums não mude o significado dos bytes já
+ * publicados. Uma mudança incompatível do layout deve ganhar uma nova versão e o
+ * decodificador deve continuar lendo as anteriores.
+ */
+final class CodecEventoTransacao {
+
+    static final byte VERSAO_ATUAL = 1;
+
+    private static final int FLAG_DESTINATARIO = 1;
+    private static final int FLAG_TAXA = 1 << 1;
+    private static final int FLAG_CREDITO = 1 << 2;
+
+    private static final Map<TipoTransacao, Byte> CODIGOS_TIPO = new EnumMap<>(Map.of(
+            TipoTransacao.DEPOSITO, (byte) 1,
+            TipoTransacao.SAQUE, (byte) 2,
+            TipoTransacao.TRANSFERENCIA, (byte) 3,
+            TipoTransacao.COMPRA, (byte) 4
+    ));
+
+    private static final Map<CategoriaTransacao, Byte> CODIGOS_CATEGORIA = new EnumMap<>(Map.of(
+            CategoriaTransacao.ALIMENTACAO, (byte) 1,
+            CategoriaTransacao.TRANSPORTE, (byte) 2,
+            CategoriaTransacao.LAZER, (byte) 3,
+            CategoriaTransacao.SAUDE, (byte) 4,
+            CategoriaTransacao.EDUCACAO, (byte) 5,
+            CategoriaTransacao.INVESTIMENTO, (byte) 6,
+            CategoriaTransacao.CONTA, (byte) 7,
+            CategoriaTransacao.OUTROS, (byte) 8
+    ));
+
+    private static final TipoTransacao[] TIPOS_POR_CODIGO = inverter(CODIGOS_TIPO, new TipoTransacao[256]);
+    private static final CategoriaTransacao[] CATEGORIAS_POR_CODIGO = inverter(CODIGOS_CATEGORIA, new CategoriaTransacao[256]);
+
+    private CodecEventoTransacao() {}
+
+    static byte[] codificar(EventoTransacao evento) {
+        byte[] moeda = evento.moeda().getBytes(StandardCharsets.US_ASCII);
+        if (moeda.length > 255) {
+            throw new SerializationException("Moeda fora do limite do formato: " + moeda.length + " bytes");
+        }
+        byte[] valor = evento.valor().unscaledValue().toByteArray();
+        byte[] taxa = evento.taxaCambio() != null ? evento.taxaCambio().unscaledValue().toByteArray() : null;
+
+        int flags = 0;
+        int tamanho = 1 + 1 + 16 + 16 + 1 + 1 + 1 + moeda.length + 3 + valor.length + 12;
+        if (evento.destinatarioId() != null) {
+            flags |= FLAG_DESTINATARIO;
+            tamanho += 16;
+        }
+        if (taxa != null) {
+            flags |= FLAG_TAXA;
+            tamanho += 3 + taxa.length;
+        }
+        if (evento.credito()) {
+            flags |= FLAG_CREDITO;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        buffer.put(VERSAO_ATUAL);
+        buffer.put((byte) flags);
+        escreverUuid(buffer, evento.id());
+        escreverUuid(buffer, evento.usuarioId());
+        if (evento.destinatarioId() != null) {
+            escreverUuid(buffer, evento.destinatarioId());
+        }
+        buffer.put(codigo(CODIGOS_TIPO, evento.tipo(), "tipo"));
+        buffer.put(codigo(CODIGOS_CATEGORIA, evento.categoria(), "categoria"));
+        buffer.put((byte) moeda.length);
+        buffer.put(moeda);
+        escreverDecimal(buffer, evento.valor().scale(), valor);
+        if (taxa != null) {
+            escreverDecimal(buffer, evento.taxaCambio().scale(), taxa);
+        }
+        buffer.putLong(evento.data().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(evento.data().getNano());
+        return buffer.array();
+    }
+
+    static EventoTransacao decodificar(byte[] dados) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(dados);
+            byte versao = buffer.get();
+            if (versao != 1) {
+                throw new SerializationException("Versão de EventoTransacao não suportada: " + versao);
+            }
+            return decodificarV1(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("EventoTransacao malformado", e);
+        }
+    }
+
+    private static EventoTransacao decodificarV1(ByteBuffer buffer) {
+        int flags = buffer.get();
+        UUID id = lerUuid(buffer);
+        UUID usuarioId = lerUuid(buffer);
+        UUID destinatarioId = (flags & FLAG_DESTINATARIO) != 0 ? lerUuid(buffer) : null;
+        TipoTransacao tipo = lerCodigo(TIPOS_POR_CODIGO, buffer.get(), "tipo");
+        CategoriaTransacao categoria = lerCodigo(CATEGORIAS_POR_CODIGO, buffer.get(), "categoria");
+
+        byte[] moeda = lerBytes(buffer, Byte.toUnsignedInt(buffer.get()), "moeda");
+
+        BigDecimal valor = lerDecimal(buffer);
+        BigDecimal taxa = (flags & FLAG_TAXA) != 0 ? lerDecimal(buffer) : null;
+        LocalDateTime data = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+
+        return new EventoTransacao(id, usuarioId, destinatarioId, valor, tipo, categoria,
+                new String(moeda, StandardCharsets.US_ASCII), taxa, data, (flags & FLAG_CREDITO) != 0);
+    }
+
+    private static void escreverUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID lerUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void escreverDecimal(ByteBuffer buffer, int escala, byte[] naoEscalado) {
+        if (naoEscalado.length > 255 || escala != (short) escala) {
+            throw new SerializationException("Valor decimal fora do limite do formato");
+        }
+        buffer.putShort((short) escala);
+        buffer.put((byte) naoEscalado.length);
+        buffer.put(naoEscalado);
+    }
+
+    private static BigDecimal lerDecimal(ByteBuffer buffer) {
+        int escala = buffer.getShort();
+        byte[] naoEscalado = lerBytes(buffer, Byte.toUnsignedInt(buffer.get()), "decimal");
+        return new BigDecimal(new BigInteger(naoEscalado), escala);
+    }
+
+    private static byte[] lerBytes(ByteBuffer buffer, int tamanho, String campo) {
+        if (tamanho > buffer.remaining()) {
+            throw new SerializationException("Tamanho de " + campo + " além do fim do registro: " + tamanho);
+        }
+        byte[] bytes = new byte[tamanho];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static <E extends Enum<E>> byte codigo(Map<E, Byte> codigos, E constante, String campo) {
+        Byte codigo = codigos.get(constante);
+        if (codigo == null) {
+            throw new SerializationException("Sem código de " + campo + " para " + constante);
+        }
+        return codigo;
+    }
+
+    private static <E> E lerCodigo(E[] tabela, byte codigo, String campo) {
+        E valor = tabela[Byte.toUnsignedInt(codigo)];
+        if (valor == null) {
+            throw new SerializationException("Código de " + campo + " desconhecido: " + codigo);
+        }
+        return valor;
+    }
+
+    private static <E extends Enum<E>> E[] inverter(Map<E, Byte> codigos, E[] tabela) {
+        codigos.forEach((constante, codigo) -> tabela[Byte.toUnsignedInt(codigo)] = constante);
+        return tabela;
+    }
+}
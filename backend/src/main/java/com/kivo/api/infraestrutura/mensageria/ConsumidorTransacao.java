@@ -1,59 +1,254 @@
 package com.kivo.api.infraestrutura.mensageria;
 
+import com.kivo.api.aplicacao.servico.MetricasRegistro;
+import com.kivo.api.aplicacao.servico.MotorSaldo;
+import com.kivo.api.dominio.modelo.EventoOutbox;
 import com.kivo.api.dominio.modelo.StatusTransacao;
-import com.kivo.api.dominio.modelo.Transacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import com.kivo.api.dominio.repositorio.RepositorioLancamento;
+import com.kivo.api.dominio.repositorio.RepositorioOutbox;
+import com.kivo.api.dominio.repositorio.RepositorioResumoDiario;
 import com.kivo.api.dominio.repositorio.RepositorioTransacao;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.annotation.RetryableTopic;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Processa os eventos de transação.
+ *
+ * O tópico principal é consumido em lotes: as transações pendentes do lote passam pelo
+ * motor de saldos, que aprova ou rejeita por saldo insuficiente, o status é gravado com um
+ * UPDATE por status e os resumos diários são acumulados de uma vez, na mesma transação.
+ * Cada transferência aprovada grava no outbox o crédito do destinatário, que volta pelo
+ * mesmo tópico com a conta do destinatário como chave e é aplicado por quem consome a
+ * partição dela, em ordem com os demais eventos da conta.
+ *
+ * Se o lote falhar, o erro sobe para o tratador da fábrica de lotes ({@code ConfigKafka}),
+ * que entrega o mesmo lote de novo, com espera crescente, sem avançar as partições: nenhum
+ * evento de uma conta passa à frente de outro que falhou. Esgotadas as tentativas, os
+ * eventos vão para a DLQ, onde as transações ainda pendentes ficam em ERROR.
+ *
+ * Os eventos são particionados pela conta que movimentam; cada partição é atendida por
+ * uma única thread do grupo, então a concorrência pode crescer até o número de partições
+ * (somando todas as instâncias) sem reordenar eventos da mesma conta.
+ */
 @Component
 public class ConsumidorTransacao {
 
+    private static final Logger log = LoggerFactory.getLogger(ConsumidorTransacao.class);
+
+    /**
+     * Margem em volta das datas dos eventos nas consultas por (id, data): a data do evento
+     * pode ter mais precisão que a coluna, que guarda microssegundos.
+     */
+    private static final Duration FOLGA_DATA = Duration.ofSeconds(1);
+
     @Autowired
     private RepositorioTransacao repository;
 
-    @RetryableTopic(
-            attempts = "3",
-            backoff = @Backoff(delay = 1000, multiplier = 2.0),
-            autoCreateTopics = "true",
-            dltTopicSuffix = ".dlq"
-    )
-    @KafkaListener(topics = "${topic.name.transacao}", groupId = "beca-processador-transacao")
-    @Transactional
-    public void processarTransacao(Transacao transacaoPayload) {
-        System.out.println("PROCESSOR: Recebida transação ID: " + transacaoPayload.getId());
+    @Autowired
+    private RepositorioLancamento lancamentoRepository;
+
+    @Autowired
+    private RepositorioOutbox outboxRepository;
+
+    @Autowired
+    private RepositorioResumoDiario resumoRepository;
+
+    @Autowired
+    private MotorSaldo motorSaldo;
+
+    @Autowired
+    private MetricasRegistro metricas;
+
+    @Autowired
+    private MetricasKafka metricasKafka;
 
-        Transacao transacao = repository.findById(transacaoPayload.getId())
-                .orElseThrow(() -> new RuntimeException("Transação não encontrada no banco"));
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${topic.name.transacao}")
+    private String topicoTransacao;
 
+    @KafkaListener(
+            topics = "${topic.name.transacao}",
+            groupId = "beca-processador-transacao",
+            containerFactory = "kafkaLoteListenerContainerFactory",
+            concurrency = "${kivo.kafka.consumidor.concorrencia:3}",
+            properties = "max.poll.records=${kivo.kafka.consumidor.tamanho-lote:500}"
+    )
+    public void processarLote(List<ConsumerRecord<String, EventoTransacao>> registros) {
+        long inicio = System.nanoTime();
         try {
-            transacao.setStatus(StatusTransacao.APPROVED);
+            processarRegistros(registros);
+        } finally {
+            metricasKafka.registrarLote(topicoTransacao, registros.size(), System.nanoTime() - inicio);
+        }
+    }
 
-            System.out.println("PROCESSOR: Transação " + transacao.getTipo() + " processada e APROVADA ✅");
+    private void processarRegistros(List<ConsumerRecord<String, EventoTransacao>> registros) {
+        Map<Integer, List<EventoTransacao>> porParticao = new LinkedHashMap<>();
+        Set<UUID> transacoesVistas = new HashSet<>();
+        Set<UUID> creditosVistos = new HashSet<>();
+        for (ConsumerRecord<String, EventoTransacao> registro : registros) {
+            EventoTransacao evento = registro.value();
+            if (evento == null) {
+                log.error("Evento ilegível descartado em {}-{}@{}", registro.topic(), registro.partition(), registro.offset());
+                metricasKafka.registrarDescartado(registro.topic());
+                continue;
+            }
+            if ((evento.credito() ? creditosVistos : transacoesVistas).add(evento.id())) {
+                porParticao.computeIfAbsent(registro.partition(), p -> new ArrayList<>()).add(evento);
+            }
+        }
+        if (porParticao.isEmpty()) {
+            return;
+        }
+
+        // Uma falha aqui sobe para o tratador de erros, que repete o lote sem avançar as partições.
+        transactionTemplate.executeWithoutResult(status -> processarPendentes(porParticao));
+    }
+
+    @KafkaListener(
+            topics = "${topic.name.transacao.dlq}",
+            groupId = "beca-processador-transacao"
+    )
+    public void processarDLQ(EventoTransacao evento, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        metricasKafka.registrarDlq(topic);
 
-        } catch (Exception e) {
-            System.err.println("PROCESSOR: Erro inesperado: " + e.getMessage());
-            throw e;
+        if (evento.credito()) {
+            log.error("Crédito da transferência {} para {} esgotou as tentativas e foi para {} sem ser aplicado",
+                    evento.id(), evento.destinatarioId(), topic);
+            return;
         }
+        log.error("Transação {} esgotou as tentativas e foi para {}", evento.id(), topic);
 
-        repository.save(transacao);
+        repository.marcarErroSePendente(evento.id(),
+                evento.data().minus(FOLGA_DATA), evento.data().plus(FOLGA_DATA));
     }
 
-    @DltHandler
-    public void processarDLQ(Transacao transacao, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
-        System.err.println("DLQ ALERTA 🚨: Transação falhou e foi para: " + topic);
+    /**
+     * Trava as transações ainda pendentes e os créditos ainda não aplicados, aplica-os no
+     * motor de saldos na ordem do lote e grava o resultado: um UPDATE por status, as partidas
+     * efetivadas e os créditos das transferências aprovadas no outbox. Eventos de transações
+     * já concluídas e créditos já aplicados são entregas repetidas e ficam de fora.
+     */
+    private void processarPendentes(Map<Integer, List<EventoTransacao>> porParticao) {
+        Map<UUID, EventoTransacao> transacoes = new LinkedHashMap<>();
+        List<UUID> creditos = new ArrayList<>();
+        porParticao.values().forEach(eventos -> eventos.forEach(evento -> {
+            if (evento.credito()) {
+                creditos.add(evento.id());
+            } else {
+                transacoes.put(evento.id(), evento);
+            }
+        }));
+
+        // Intervalo das datas do lote: as transações são buscadas e atualizadas por (id, data).
+        LocalDateTime desde = null;
+        LocalDateTime ate = null;
+        for (EventoTransacao evento : transacoes.values()) {
+            desde = desde == null || evento.data().isBefore(desde) ? evento.data() : desde;
+            ate = ate == null || evento.data().isAfter(ate) ? evento.data() : ate;
+        }
+        if (desde != null) {
+            desde = desde.minus(FOLGA_DATA);
+            ate = ate.plus(FOLGA_DATA);
+        }
+
+        Set<UUID> pendentes = transacoes.isEmpty()
+                ? Set.of()
+                : new HashSet<>(repository.travarPendentes(transacoes.keySet(), desde, ate));
+        Set<UUID> creditosPendentes = creditos.isEmpty()
+                ? Set.of()
+                : new HashSet<>(lancamentoRepository.travarCreditosPendentes(creditos));
 
-        Transacao t = repository.findById(transacao.getId()).orElse(null);
-        if (t != null) {
-            t.setStatus(StatusTransacao.ERROR);
-            repository.save(t);
+        if (!pendentes.isEmpty() || !creditosPendentes.isEmpty()) {
+            // As contas de uma partição só são movimentadas pelos eventos dela.
+            List<UUID> aprovadas = new ArrayList<>();
+            List<UUID> rejeitadas = new ArrayList<>();
+            porParticao.forEach((particao, eventos) -> {
+                List<EventoTransacao> aplicaveis = eventos.stream()
+                        .filter(e -> (e.credito() ? creditosPendentes : pendentes).contains(e.id()))
+                        .toList();
+                if (!aplicaveis.isEmpty()) {
+                    MotorSaldo.ResultadoSaldo parcial = motorSaldo.processar(particao, aplicaveis);
+                    aprovadas.addAll(parcial.aprovadas());
+                    rejeitadas.addAll(parcial.rejeitadas());
+                }
+            });
+            MotorSaldo.ResultadoSaldo resultado = new MotorSaldo.ResultadoSaldo(aprovadas, rejeitadas);
+
+            if (!resultado.aprovadas().isEmpty()) {
+                repository.atualizarStatus(resultado.aprovadas(), desde, ate, StatusTransacao.APPROVED);
+                lancamentoRepository.efetivarOrigem(resultado.aprovadas());
+                resumoRepository.acumularTransacoes(resultado.aprovadas());
+                gravarCreditos(resultado.aprovadas(), transacoes);
+            }
+            if (!resultado.rejeitadas().isEmpty()) {
+                repository.atualizarStatus(resultado.rejeitadas(), desde, ate, StatusTransacao.REJECTED);
+            }
+            if (!creditosPendentes.isEmpty()) {
+                lancamentoRepository.efetivarCreditos(creditosPendentes);
+            }
+            log.debug("Lote de {} eventos: {} aprovadas, {} rejeitadas por saldo insuficiente, {} créditos aplicados",
+                    transacoes.size() + creditos.size(), resultado.aprovadas().size(), resultado.rejeitadas().size(), creditosPendentes.size());
+            registrarConclusaoAposCommit(transacoes, resultado);
+        }
+
+        if (pendentes.size() < transacoes.size()) {
+            Set<UUID> restantes = new HashSet<>(transacoes.keySet());
+            restantes.removeAll(pendentes);
+            repository.findIdsExistentes(restantes).forEach(restantes::remove);
+            // O outbox só publica depois do commit do registro: uma transação ausente não vai aparecer depois.
+            restantes.forEach(id -> {
+                log.error("Transação {} do evento não existe no banco, evento descartado", id);
+                metricasKafka.registrarDescartado(topicoTransacao);
+            });
+        }
+    }
+
+    private void gravarCreditos(List<UUID> aprovadas, Map<UUID, EventoTransacao> transacoes) {
+        List<EventoOutbox> creditos = aprovadas.stream()
+                .map(transacoes::get)
+                .filter(e -> e.tipo() == TipoTransacao.TRANSFERENCIA && e.destinatarioId() != null)
+                .map(e -> new EventoOutbox(e.id(), true))
+                .toList();
+        if (!creditos.isEmpty()) {
+            outboxRepository.saveAll(creditos);
         }
     }
-}
\ No newline at end of file
+
+    private void registrarConclusaoAposCommit(Map<UUID, EventoTransacao> transacoes, MotorSaldo.ResultadoSaldo resultado) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                resultado.aprovadas().forEach(id -> registrarConclusao(transacoes.get(id), StatusTransacao.APPROVED));
+                resultado.rejeitadas().forEach(id -> registrarConclusao(transacoes.get(id), StatusTransacao.REJECTED));
+            }
+        });
+    }
+
+    private void registrarConclusao(EventoTransacao evento, StatusTransacao status) {
+        metricas.registrarConclusao(evento.tipo(), evento.moeda(), status, evento.data());
+    }
+}
@@ -0,0 +1,11 @@
+package com.kivo.api.infraestrutura.mensageria;
+
+import org.apache.kafka.common.serialization.Deserializer;
+
+public class DesserializadorEventoTransacao implements Deserializer<EventoTransacao> {
+
+    @Override
+    public EventoTransacao deserialize(String topic, byte[] dados) {
+        return dados == null ? null : CodecEventoTransacao.decodificar(dados);
+    }
+}
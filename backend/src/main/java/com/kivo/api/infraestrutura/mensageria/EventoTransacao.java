@@ -0,0 +1,61 @@
+package com.kivo.api.infraestrutura.mensageria;
+
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import com.kivo.api.dominio.modelo.Transacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento publicado no Kafka quando uma transação é registrada. Carrega só o que o
+ * processamento precisa; o estado completo continua no banco.
+ *
+ * Com {@code credito}, é o crédito de uma transferência já aprovada, publicado depois da
+ * aprovação na partição do destinatário para ser aplicado em ordem com os eventos dele.
+ */
+public record EventoTransacao(
+        UUID id,
+        UUID usuarioId,
+        UUID destinatarioId,
+        BigDecimal valor,
+        TipoTransacao tipo,
+        CategoriaTransacao categoria,
+        String moeda,
+        BigDecimal taxaCambio,
+        LocalDateTime data,
+        boolean credito
+) {
+    public static EventoTransacao de(Transacao transacao) {
+        return new EventoTransacao(
+                transacao.getId(),
+                transacao.getUsuario().getId(),
+                transacao.getDestinatario() != null ? transacao.getDestinatario().getId() : null,
+                transacao.getValor(),
+                transacao.getTipo(),
+                transacao.getCategoria(),
+                transacao.getMoeda(),
+                transacao.getTaxaCambio(),
+                transacao.getData(),
+                false
+        );
+    }
+
+    /**
+     * Crédito ao destinatário de uma transferência aprovada.
+     */
+    public static EventoTransacao creditoDe(Transacao transacao) {
+        EventoTransacao evento = de(transacao);
+        return new EventoTransacao(evento.id, evento.usuarioId, evento.destinatarioId, evento.valor, evento.tipo,
+                evento.categoria, evento.moeda, evento.taxaCambio, evento.data, true);
+    }
+
+    /**
+     * Chave de particionamento: a conta movimentada pelo evento, ou seja, a de origem ou,
+     * num crédito, a do destinatário.
+     */
+    public String chave() {
+        return (credito ? destinatarioId : usuarioId).toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.kivo.api.infraestrutura.mensageria;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas do fluxo de eventos de transação, marcadas pelo {@code topico}:
+ *
+ * <ul>
+ *   <li>{@code kivo.kafka.envio}: do {@code send} até a confirmação do broker, com {@code resultado}.</li>
+ *   <li>{@code kivo.kafka.consumo.registros}: registros recebidos pelos listeners; a taxa sai do contador.</li>
+ *   <li>{@code kivo.kafka.consumo.lote}: duração de cada lote do tópico principal, com commit.</li>
+ *   <li>{@code kivo.kafka.processamento.registro}: tempo por registro (no lote, a duração dividida pelo tamanho).</li>
+ *   <li>{@code kivo.kafka.consumo.descartados}: eventos ilegíveis ou de transações inexistentes, ignorados.</li>
+ *   <li>{@code kivo.kafka.consumo.retentativas}: registros entregues de novo depois de uma falha do lote.</li>
+ *   <li>{@code kivo.kafka.dlq}: eventos que esgotaram as tentativas.</li>
+ * </ul>
+ *
+ * O lag por partição e as taxas dos próprios clientes vêm das métricas nativas do Kafka que o
+ * Spring Boot registra ({@code kafka.consumer.fetch.manager.records.lag}, {@code kafka.producer.*}).
+ */
+@Component
+public class MetricasKafka {
+
+    private final MeterRegistry registry;
+
+    public MetricasKafka(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void medirEnvio(String topico, CompletableFuture<?> envio) {
+        long inicio = System.nanoTime();
+        envio.whenComplete((resultado, erro) -> Timer.builder("kivo.kafka.envio")
+                .description("Tempo entre o envio do evento e a confirmação do Kafka")
+                .tag("topico", topico)
+                .tag("resultado", erro == null ? "sucesso" : "falha")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS));
+    }
+
+    public void registrarLote(String topico, int registros, long nanos) {
+        recebidos(topico).increment(registros);
+        Timer.builder("kivo.kafka.consumo.lote")
+                .description("Duração do processamento de um lote consumido")
+                .tag("topico", topico)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (registros > 0) {
+            porRegistro(topico).record(nanos / registros, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void registrarDescartado(String topico) {
+        Counter.builder("kivo.kafka.consumo.descartados")
+                .description("Eventos ilegíveis ou de transações inexistentes descartados pelo consumidor")
+                .tag("topico", topico)
+                .register(registry)
+                .increment();
+    }
+
+    public void registrarRetentativa(String topico, int registros) {
+        Counter.builder("kivo.kafka.consumo.retentativas")
+                .description("Registros entregues de novo ao listener depois de uma falha do lote")
+                .tag("topico", topico)
+                .register(registry)
+                .increment(registros);
+    }
+
+    public void registrarDlq(String topico) {
+        Counter.builder("kivo.kafka.dlq")
+                .description("Eventos que esgotaram as tentativas e foram para a DLQ")
+                .tag("topico", topico)
+                .register(registry)
+                .increment();
+    }
+
+    private Counter recebidos(String topico) {
+        return Counter.builder("kivo.kafka.consumo.registros")
+                .description("Registros recebidos pelos listeners")
+                .tag("topico", topico)
+                .register(registry);
+    }
+
+    private Timer porRegistro(String topico) {
+        return Timer.builder("kivo.kafka.processamento.registro")
+                .description("Tempo de processamento por registro consumido")
+                .tag("topico", topico)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -4,24 +4,42 @@ import com.kivo.api.dominio.modelo.Transacao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 public class ProdutorTransacao {
 
     @Autowired
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Autowired
+    private MetricasKafka metricas;
+
     @Value("${topic.name.transacao}")
     private String topicoTransacao;
 
-    public void enviarEvento(Transacao transacao) {
-        try {
-            kafkaTemplate.send(topicoTransacao, transacao);
+    /**
+     * Envia o evento sem bloquear; quem chama decide como aguardar a confirmação do broker.
+     * A chave é a conta de origem, então todos os eventos de uma conta caem na mesma
+     * partição e são consumidos na ordem em que foram publicados.
+     */
+    public CompletableFuture<SendResult<String, Object>> enviarEvento(Transacao transacao) {
+        return enviar(EventoTransacao.de(transacao));
+    }
+
+    /**
+     * Envia o crédito de uma transferência aprovada, com a conta do destinatário como chave.
+     */
+    public CompletableFuture<SendResult<String, Object>> enviarCredito(Transacao transacao) {
+        return enviar(EventoTransacao.creditoDe(transacao));
+    }
 
-            System.out.println("KAFKA PRODUCER: Mensagem enviada para o tópico " + topicoTransacao);
-        } catch (Exception e) {
-            System.err.println("ERRO KAFKA: Falha ao enviar mensagem: " + e.getMessage());
-        }
+    private CompletableFuture<SendResult<String, Object>> enviar(EventoTransacao evento) {
+        CompletableFuture<SendResult<String, Object>> envio = kafkaTemplate.send(topicoTransacao, evento.chave(), evento);
+        metricas.medirEnvio(topicoTransacao, envio);
+        return envio;
     }
-}
\ No newline at end of file
+}
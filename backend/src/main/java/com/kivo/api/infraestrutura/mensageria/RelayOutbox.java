@@ -0,0 +1,166 @@
+package com.kivo.api.infraestrutura.mensageria;
+
+import com.kivo.api.dominio.modelo.EventoOutbox;
+import com.kivo.api.dominio.modelo.Transacao;
+import com.kivo.api.dominio.repositorio.RepositorioOutbox;
+import com.kivo.api.dominio.repositorio.RepositorioTransacao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publica no Kafka os eventos gravados em {@code tb_outbox}.
+ *
+ * A cada {@code kivo.outbox.linger} o relay trava até {@code tamanho-lote} eventos
+ * pendentes, envia todos, espera as confirmações do broker e só então marca o lote como
+ * enviado. Se algum envio falhar, a transação é desfeita e o lote inteiro é reenviado
+ * na próxima rodada — a entrega é at-least-once e o consumidor ignora transações que
+ * não estão mais PENDING e créditos já aplicados.
+ *
+ * Só uma instância publica por vez (lock consultivo no banco); as demais pulam a rodada.
+ * Assim os eventos de uma mesma conta chegam ao Kafka na ordem em que foram gravados,
+ * inclusive os créditos de transferência que o consumidor grava ao aprovar uma.
+ */
+@Component
+public class RelayOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(RelayOutbox.class);
+    private static final long LOCK_PUBLICACAO = 0x6B69766F_6F757462L;
+
+    private final RepositorioOutbox outboxRepository;
+    private final RepositorioTransacao transacaoRepository;
+    private final ProdutorTransacao transacaoProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Duration esperaEnvio;
+    private final Duration retencao;
+    private final Timer atrasoPublicacao;
+    private final Counter publicados;
+    private final AtomicLong pendentes = new AtomicLong();
+    private final AtomicLong idadePendenteMaisAntigoMs = new AtomicLong();
+
+    public RelayOutbox(RepositorioOutbox outboxRepository,
+                       RepositorioTransacao transacaoRepository,
+                       ProdutorTransacao transacaoProducer,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry registry,
+                       @Value("${kivo.outbox.tamanho-lote:500}") int tamanhoLote,
+                       @Value("${kivo.outbox.espera-envio:10s}") Duration esperaEnvio,
+                       @Value("${kivo.outbox.retencao:24h}") Duration retencao) {
+        this.outboxRepository = outboxRepository;
+        this.transacaoRepository = transacaoRepository;
+        this.transacaoProducer = transacaoProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.esperaEnvio = esperaEnvio;
+        this.retencao = retencao;
+
+        this.atrasoPublicacao = Timer.builder("kivo.outbox.atraso")
+                .description("Tempo entre a gravação do evento no outbox e a confirmação do Kafka")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.publicados = Counter.builder("kivo.outbox.publicados")
+                .description("Eventos do outbox confirmados pelo Kafka")
+                .register(registry);
+        Gauge.builder("kivo.outbox.pendentes", pendentes, AtomicLong::get)
+                .description("Eventos do outbox ainda não publicados")
+                .register(registry);
+        Gauge.builder("kivo.outbox.pendente.idade", idadePendenteMaisAntigoMs, AtomicLong::get)
+                .description("Idade do evento pendente mais antigo")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${kivo.outbox.linger:100ms}")
+    public void publicarPendentes() {
+        try {
+            int enviados;
+            do {
+                enviados = transactionTemplate.execute(status -> publicarLote());
+            } while (enviados == tamanhoLote);
+        } catch (Exception e) {
+            log.warn("Falha ao publicar lote do outbox, nova tentativa na próxima rodada: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kivo.outbox.intervalo-metricas:15s}")
+    public void atualizarMetricas() {
+        pendentes.set(outboxRepository.countByEnviadoEmIsNull());
+        LocalDateTime maisAntigo = outboxRepository.findCriacaoMaisAntigaPendente();
+        idadePendenteMaisAntigoMs.set(maisAntigo == null ? 0 : Duration.between(maisAntigo, LocalDateTime.now()).toMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${kivo.outbox.intervalo-limpeza:1h}")
+    public void removerEnviados() {
+        Integer removidos = transactionTemplate.execute(status ->
+                outboxRepository.removerEnviadosAntesDe(LocalDateTime.now().minus(retencao)));
+        log.debug("{} eventos antigos removidos do outbox", removidos);
+    }
+
+    private int publicarLote() {
+        if (!outboxRepository.adquirirLockPublicacao(LOCK_PUBLICACAO)) {
+            return 0;
+        }
+
+        List<EventoOutbox> lote = outboxRepository.bloquearPendentes(tamanhoLote);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, Transacao> transacoes = transacaoRepository
+                .findAllById(lote.stream().map(EventoOutbox::getTransacaoId).toList())
+                .stream()
+                .collect(Collectors.toMap(Transacao::getId, Function.identity()));
+
+        List<CompletableFuture<?>> envios = new ArrayList<>(lote.size());
+        for (EventoOutbox evento : lote) {
+            Transacao transacao = transacoes.get(evento.getTransacaoId());
+            if (transacao == null) {
+                log.warn("Transação {} do outbox não existe mais, descartando evento", evento.getTransacaoId());
+                continue;
+            }
+            envios.add(evento.isCredito()
+                    ? transacaoProducer.enviarCredito(transacao)
+                    : transacaoProducer.enviarEvento(transacao));
+        }
+
+        try {
+            CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new))
+                    .get(esperaEnvio.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Publicação do outbox interrompida", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Kafka não confirmou o lote do outbox", e);
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        outboxRepository.marcarEnviados(lote.stream().map(EventoOutbox::getId).toList(), agora);
+
+        for (EventoOutbox evento : lote) {
+            atrasoPublicacao.record(Duration.between(evento.getCriadoEm(), agora));
+        }
+        publicados.increment(envios.size());
+
+        return lote.size();
+    }
+}
@@ -0,0 +1,11 @@
+package com.kivo.api.infraestrutura.mensageria;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+public class SerializadorEventoTransacao implements Serializer<EventoTransacao> {
+
+    @Override
+    public byte[] serialize(String topic, EventoTransacao evento) {
+        return evento == null ? null : CodecEventoTransacao.codificar(evento);
+    }
+}
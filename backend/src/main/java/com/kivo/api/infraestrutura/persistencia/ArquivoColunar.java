@@ -0,0 +1,361 @@
+package com.kivo.api.infraestrutura.persistencia;
+
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.StatusTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato dos arquivos de transações arquivadas.
+ *
+ * As linhas chegam ordenadas por conta e, dentro da conta, do mais recente para o mais
+ * antigo. Elas são gravadas em grupos de {@code linhasPorGrupo}; em cada grupo cada coluna
+ * é um bloco comprimido separado. O rodapé guarda, por grupo, a posição, a quantidade de
+ * linhas, a menor e a maior conta e o tamanho de cada coluna, então a leitura de uma
+ * conta só descomprime os grupos que podem contê-la e, neles, primeiro só a coluna de
+ * conta para achar o intervalo de linhas.
+ *
+ * <pre>
+ * KVA1 | grupo 1: coluna 1 .. coluna N | ... | rodapé | tamanho do rodapé (int) | KVA1
+ * </pre>
+ */
+public final class ArquivoColunar {
+
+    /** Ordem do tipo uuid do Postgres: bytes sem sinal, da esquerda para a direita. */
+    public static final Comparator<UUID> ORDEM_UUID = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private static final int MAGICO = 0x4B564131;
+    private static final int COLUNAS = 11;
+    private static final int CONTA = 0, ID = 1, DATA = 2, VALOR = 3, TIPO = 4, CATEGORIA = 5,
+            STATUS = 6, MOEDA = 7, TAXA = 8, REMETENTE = 9, DESTINATARIO = 10;
+
+    private ArquivoColunar() {}
+
+    public record Grupo(long posicao, int linhas, UUID menorConta, UUID maiorConta, int[] tamanhos) {
+
+        boolean podeConter(UUID conta) {
+            return ORDEM_UUID.compare(conta, menorConta) >= 0 && ORDEM_UUID.compare(conta, maiorConta) <= 0;
+        }
+    }
+
+    public record Rodape(List<Grupo> grupos) {
+
+        public long linhas() {
+            return grupos.stream().mapToLong(Grupo::linhas).sum();
+        }
+    }
+
+    public static Escritor escritor(OutputStream saida, int linhasPorGrupo) throws IOException {
+        return new Escritor(saida, linhasPorGrupo);
+    }
+
+    public static final class Escritor implements Closeable {
+
+        private final DataOutputStream saida;
+        private final int linhasPorGrupo;
+        private final List<Grupo> grupos = new ArrayList<>();
+        private final ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[COLUNAS];
+        private final DataOutputStream[] colunas = new DataOutputStream[COLUNAS];
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private long posicao;
+        private int linhasGrupo;
+        private UUID menorConta;
+        private UUID ultimaConta;
+
+        private Escritor(OutputStream saida, int linhasPorGrupo) throws IOException {
+            this.saida = new DataOutputStream(saida);
+            this.linhasPorGrupo = linhasPorGrupo;
+            for (int i = 0; i < COLUNAS; i++) {
+                buffers[i] = new ByteArrayOutputStream();
+                colunas[i] = new DataOutputStream(buffers[i]);
+            }
+            this.saida.writeInt(MAGICO);
+            this.posicao = Integer.BYTES;
+        }
+
+        public void escrever(UUID conta, LinhaExtratoDTO linha) throws IOException {
+            if (ultimaConta != null && ORDEM_UUID.compare(conta, ultimaConta) < 0) {
+                throw new IllegalArgumentException("Linhas do arquivo precisam chegar ordenadas por conta");
+            }
+            if (linhasGrupo == 0) {
+                menorConta = conta;
+            }
+
+            escreverUuid(colunas[CONTA], conta);
+            escreverUuid(colunas[ID], linha.id());
+            colunas[DATA].writeLong(microssegundos(linha.data()));
+            escreverDecimal(colunas[VALOR], linha.valor());
+            colunas[TIPO].writeUTF(linha.tipo().name());
+            colunas[CATEGORIA].writeUTF(linha.categoria().name());
+            colunas[STATUS].writeUTF(linha.status().name());
+            escreverTexto(colunas[MOEDA], linha.moeda());
+            escreverDecimal(colunas[TAXA], linha.taxaCambio());
+            escreverUuid(colunas[REMETENTE], linha.remetenteId());
+            escreverUuid(colunas[DESTINATARIO], linha.destinatarioId());
+
+            ultimaConta = conta;
+            if (++linhasGrupo == linhasPorGrupo) {
+                fecharGrupo();
+            }
+        }
+
+        private void fecharGrupo() throws IOException {
+            int[] tamanhos = new int[COLUNAS];
+            long inicio = posicao;
+            for (int i = 0; i < COLUNAS; i++) {
+                byte[] comprimido = comprimir(buffers[i].toByteArray());
+                saida.write(comprimido);
+                tamanhos[i] = comprimido.length;
+                posicao += comprimido.length;
+                buffers[i].reset();
+            }
+            grupos.add(new Grupo(inicio, linhasGrupo, menorConta, ultimaConta, tamanhos));
+            linhasGrupo = 0;
+        }
+
+        private byte[] comprimir(byte[] bruto) {
+            deflater.reset();
+            deflater.setInput(bruto);
+            deflater.finish();
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(Math.max(64, bruto.length / 4));
+            byte[] bloco = new byte[8192];
+            while (!deflater.finished()) {
+                comprimido.write(bloco, 0, deflater.deflate(bloco));
+            }
+            return comprimido.toByteArray();
+        }
+
+        public long linhas() {
+            return grupos.stream().mapToLong(Grupo::linhas).sum() + linhasGrupo;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (linhasGrupo > 0) {
+                fecharGrupo();
+            }
+
+            ByteArrayOutputStream bruto = new ByteArrayOutputStream();
+            DataOutputStream rodape = new DataOutputStream(bruto);
+            rodape.writeInt(grupos.size());
+            for (Grupo grupo : grupos) {
+                rodape.writeLong(grupo.posicao());
+                rodape.writeInt(grupo.linhas());
+                escreverUuid(rodape, grupo.menorConta());
+                escreverUuid(rodape, grupo.maiorConta());
+                for (int tamanho : grupo.tamanhos()) {
+                    rodape.writeInt(tamanho);
+                }
+            }
+            saida.write(bruto.toByteArray());
+            saida.writeInt(bruto.size());
+            saida.writeInt(MAGICO);
+            saida.flush();
+            deflater.end();
+        }
+    }
+
+    public static Rodape lerRodape(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanhoArquivo = canal.size();
+            ByteBuffer fim = lerBloco(canal, tamanhoArquivo - 2L * Integer.BYTES, 2 * Integer.BYTES);
+            int tamanhoRodape = fim.getInt();
+            if (fim.getInt() != MAGICO) {
+                throw new IOException("Arquivo de transações inválido: " + arquivo);
+            }
+
+            DataInputStream rodape = new DataInputStream(new ByteArrayInputStream(
+                    lerBloco(canal, tamanhoArquivo - 2L * Integer.BYTES - tamanhoRodape, tamanhoRodape).array()));
+            int quantidade = rodape.readInt();
+            List<Grupo> grupos = new ArrayList<>(quantidade);
+            for (int g = 0; g < quantidade; g++) {
+                long posicao = rodape.readLong();
+                int linhas = rodape.readInt();
+                UUID menor = lerUuid(rodape);
+                UUID maior = lerUuid(rodape);
+                int[] tamanhos = new int[COLUNAS];
+                for (int i = 0; i < COLUNAS; i++) {
+                    tamanhos[i] = rodape.readInt();
+                }
+                grupos.add(new Grupo(posicao, linhas, menor, maior, tamanhos));
+            }
+            return new Rodape(grupos);
+        }
+    }
+
+    /**
+     * Linhas da conta no arquivo, na ordem em que foram gravadas (mais recente primeiro).
+     */
+    public static List<LinhaExtratoDTO> ler(Path arquivo, Rodape rodape, UUID conta) throws IOException {
+        List<LinhaExtratoDTO> linhas = new ArrayList<>();
+        if (rodape.grupos().stream().noneMatch(grupo -> grupo.podeConter(conta))) {
+            return linhas;
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            for (Grupo grupo : rodape.grupos()) {
+                if (grupo.podeConter(conta)) {
+                    lerGrupo(canal, grupo, conta, linhas);
+                }
+            }
+        }
+        return linhas;
+    }
+
+    private static void lerGrupo(FileChannel canal, Grupo grupo, UUID conta, List<LinhaExtratoDTO> destino) throws IOException {
+        long[] inicioColuna = new long[COLUNAS];
+        long posicao = grupo.posicao();
+        for (int i = 0; i < COLUNAS; i++) {
+            inicioColuna[i] = posicao;
+            posicao += grupo.tamanhos()[i];
+        }
+
+        DataInputStream contas = coluna(canal, grupo, inicioColuna, CONTA);
+        int primeira = -1;
+        int ultima = -1;
+        for (int i = 0; i < grupo.linhas(); i++) {
+            if (lerUuid(contas).equals(conta)) {
+                if (primeira < 0) {
+                    primeira = i;
+                }
+                ultima = i;
+            } else if (primeira >= 0) {
+                break;
+            }
+        }
+        if (primeira < 0) {
+            return;
+        }
+
+        DataInputStream[] colunas = new DataInputStream[COLUNAS];
+        for (int i = ID; i < COLUNAS; i++) {
+            colunas[i] = coluna(canal, grupo, inicioColuna, i);
+        }
+        for (int i = 0; i <= ultima; i++) {
+            LinhaExtratoDTO linha = new LinhaExtratoDTO(
+                    lerUuid(colunas[ID]),
+                    lerDecimal(colunas[VALOR]),
+                    TipoTransacao.valueOf(colunas[TIPO].readUTF()),
+                    CategoriaTransacao.valueOf(colunas[CATEGORIA].readUTF()),
+                    StatusTransacao.valueOf(colunas[STATUS].readUTF()),
+                    lerTexto(colunas[MOEDA]),
+                    lerDecimal(colunas[TAXA]),
+                    dataHora(colunas[DATA].readLong()),
+                    lerUuid(colunas[REMETENTE]),
+                    lerUuid(colunas[DESTINATARIO])
+            );
+            if (i >= primeira) {
+                destino.add(linha);
+            }
+        }
+    }
+
+    private static DataInputStream coluna(FileChannel canal, Grupo grupo, long[] inicioColuna, int indice) throws IOException {
+        byte[] comprimido = lerBloco(canal, inicioColuna[indice], grupo.tamanhos()[indice]).array();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(comprimido);
+            ByteArrayOutputStream bruto = new ByteArrayOutputStream(comprimido.length * 4);
+            byte[] bloco = new byte[8192];
+            while (!inflater.finished()) {
+                int lidos = inflater.inflate(bloco);
+                if (lidos == 0 && inflater.needsInput()) {
+                    throw new IOException("Coluna truncada no arquivo de transações");
+                }
+                bruto.write(bloco, 0, lidos);
+            }
+            return new DataInputStream(new ByteArrayInputStream(bruto.toByteArray()));
+        } catch (DataFormatException e) {
+            throw new IOException("Coluna corrompida no arquivo de transações", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ByteBuffer lerBloco(FileChannel canal, long posicao, int tamanho) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicao + buffer.position()) < 0) {
+                throw new IOException("Fim inesperado do arquivo de transações");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static long microssegundos(LocalDateTime data) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), data);
+    }
+
+    private static LocalDateTime dataHora(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    private static void escreverUuid(DataOutputStream saida, UUID valor) throws IOException {
+        saida.writeBoolean(valor != null);
+        if (valor != null) {
+            saida.writeLong(valor.getMostSignificantBits());
+            saida.writeLong(valor.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID lerUuid(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean() ? new UUID(entrada.readLong(), entrada.readLong()) : null;
+    }
+
+    private static void escreverDecimal(DataOutputStream saida, BigDecimal valor) throws IOException {
+        saida.writeBoolean(valor != null);
+        if (valor != null) {
+            byte[] semEscala = valor.unscaledValue().toByteArray();
+            saida.writeByte(valor.scale());
+            saida.writeByte(semEscala.length);
+            saida.write(semEscala);
+        }
+    }
+
+    private static BigDecimal lerDecimal(DataInputStream entrada) throws IOException {
+        if (!entrada.readBoolean()) {
+            return null;
+        }
+        int escala = entrada.readByte();
+        byte[] semEscala = new byte[entrada.readUnsignedByte()];
+        entrada.readFully(semEscala);
+        return new BigDecimal(new BigInteger(semEscala), escala);
+    }
+
+    private static void escreverTexto(DataOutputStream saida, String valor) throws IOException {
+        saida.writeBoolean(valor != null);
+        if (valor != null) {
+            saida.writeUTF(valor);
+        }
+    }
+
+    private static String lerTexto(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean() ? entrada.readUTF() : null;
+    }
+}
@@ -0,0 +1,200 @@
+package com.kivo.api.infraestrutura.persistencia;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.kivo.api.aplicacao.dto.CursorExtrato;
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
+import com.kivo.api.dominio.modelo.ParticaoArquivada;
+import com.kivo.api.dominio.repositorio.RepositorioParticaoArquivada;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Leitura dos meses de {@code tb_transacoes} que já foram arquivados em disco.
+ *
+ * Os meses arquivados são sempre anteriores a qualquer partição viva, então o extrato
+ * lê primeiro o banco e só completa a página com o arquivo quando o banco se esgota.
+ * A lista de meses e os rodapés dos arquivos ficam em cache; cada leitura abre o
+ * arquivo e descomprime apenas os grupos que podem conter a conta.
+ *
+ * Todas as instâncias leem os mesmos arquivos, então {@code kivo.arquivo.diretorio} precisa
+ * ser um volume compartilhado e persistente; {@link #verificarDiretorio(boolean)} confere
+ * isso na subida pelo arquivo de marca registrado em {@code tb_arquivo_diretorio}.
+ */
+@Component
+public class ArquivoTransacoes {
+
+    private static final String ARQUIVO_MARCA = ".kivo-arquivo";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path diretorio;
+    private final LoadingCache<Boolean, List<ParticaoArquivada>> particoes;
+    private final LoadingCache<String, ArquivoColunar.Rodape> rodapes;
+
+    public ArquivoTransacoes(RepositorioParticaoArquivada particaoRepository,
+                             JdbcTemplate jdbcTemplate,
+                             @Value("${kivo.arquivo.diretorio:}") String diretorio,
+                             @Value("${kivo.arquivo.cache-particoes:1m}") Duration ttlParticoes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.diretorio = diretorio.isBlank() ? null : Path.of(diretorio);
+        this.particoes = Caffeine.newBuilder()
+                .expireAfterWrite(ttlParticoes)
+                .build(chave -> particaoRepository.findAllByOrderByInicioDesc().stream()
+                        .filter(particao -> particao.getLinhas() > 0)
+                        .toList());
+        this.rodapes = Caffeine.newBuilder()
+                .maximumSize(240)
+                .build(arquivo -> lerRodape(resolver(arquivo)));
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    public Path resolver(String arquivo) {
+        if (diretorio == null) {
+            throw new IllegalStateException("kivo.arquivo.diretorio não configurado");
+        }
+        return diretorio.resolve(arquivo);
+    }
+
+    /**
+     * Confere na subida que esta instância enxerga o mesmo diretório de arquivos das demais.
+     *
+     * Quem arquiva ({@code gravacao}) precisa de um diretório absoluto já existente e, se
+     * ainda não houver marca, grava o arquivo de marca e o registra no banco. Havendo marca
+     * registrada, toda instância, arquivando ou não, precisa encontrá-la no seu diretório:
+     * um diretório local ao contêiner ou de outro volume derruba a subida em vez de falhar
+     * depois, ao ler os meses arquivados.
+     */
+    public void verificarDiretorio(boolean gravacao) {
+        if (gravacao) {
+            if (diretorio == null || !diretorio.isAbsolute() || !Files.isDirectory(diretorio)) {
+                throw new IllegalStateException("Arquivamento habilitado exige kivo.arquivo.diretorio absoluto e já"
+                        + " existente, num volume compartilhado entre as instâncias: " + diretorio);
+            }
+            jdbcTemplate.update("""
+                    INSERT INTO tb_arquivo_diretorio (id, marca, criado_em) VALUES (1, ?, now())
+                    ON CONFLICT (id) DO NOTHING
+                    """, lerOuCriarMarca());
+        }
+
+        List<UUID> registrada = jdbcTemplate.queryForList("SELECT marca FROM tb_arquivo_diretorio", UUID.class);
+        if (registrada.isEmpty()) {
+            return;
+        }
+        UUID encontrada = diretorio != null ? lerMarca() : null;
+        if (!registrada.get(0).equals(encontrada)) {
+            throw new IllegalStateException("O diretório de arquivos " + diretorio + " não é o das outras instâncias"
+                    + " (marca " + registrada.get(0) + " ausente em " + ARQUIVO_MARCA + "); monte o volume"
+                    + " compartilhado e aponte kivo.arquivo.diretorio para ele");
+        }
+    }
+
+    /**
+     * Relê do diretório um arquivo recém-gravado e confere a quantidade de linhas, antes de o
+     * mês ser registrado como arquivado.
+     */
+    public void conferir(Path arquivo, long linhasEsperadas) throws IOException {
+        long linhas = ArquivoColunar.lerRodape(arquivo).linhas();
+        if (linhas != linhasEsperadas) {
+            throw new IOException("Arquivo " + arquivo + " com " + linhas + " linhas, esperadas " + linhasEsperadas);
+        }
+    }
+
+    /**
+     * Até {@code limite} linhas arquivadas da conta, da mais recente para a mais antiga,
+     * começando depois de {@code apos} (ou do início, se nulo).
+     */
+    public List<LinhaExtratoDTO> ler(UUID contaId, CursorExtrato apos, int limite) {
+        List<LinhaExtratoDTO> linhas = new ArrayList<>();
+        for (ParticaoArquivada particao : particoes.get(Boolean.TRUE)) {
+            if (linhas.size() >= limite) {
+                break;
+            }
+            if (apos != null && apos.data().toLocalDate().isBefore(particao.getInicio())) {
+                continue;
+            }
+
+            for (LinhaExtratoDTO linha : lerConta(particao, contaId)) {
+                if (apos == null || vemDepois(linha, apos)) {
+                    linhas.add(linha);
+                    if (linhas.size() >= limite) {
+                        break;
+                    }
+                }
+            }
+        }
+        return linhas;
+    }
+
+    public void percorrer(UUID contaId, Consumer<LinhaExtratoDTO> consumidor) {
+        for (ParticaoArquivada particao : particoes.get(Boolean.TRUE)) {
+            lerConta(particao, contaId).forEach(consumidor);
+        }
+    }
+
+    public void invalidar() {
+        particoes.invalidateAll();
+    }
+
+    private List<LinhaExtratoDTO> lerConta(ParticaoArquivada particao, UUID contaId) {
+        try {
+            return ArquivoColunar.ler(resolver(particao.getArquivo()), rodapes.get(particao.getArquivo()), contaId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o arquivo " + particao.getArquivo(), e);
+        }
+    }
+
+    private static boolean vemDepois(LinhaExtratoDTO linha, CursorExtrato cursor) {
+        int comparacao = linha.data().compareTo(cursor.data());
+        return comparacao < 0 || (comparacao == 0 && ArquivoColunar.ORDEM_UUID.compare(linha.id(), cursor.id()) < 0);
+    }
+
+    private UUID lerOuCriarMarca() {
+        Path marca = diretorio.resolve(ARQUIVO_MARCA);
+        try {
+            Files.writeString(marca, UUID.randomUUID().toString(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        } catch (FileAlreadyExistsException e) {
+            // Gravada antes, por esta ou por outra instância no mesmo volume.
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível gravar " + marca, e);
+        }
+        return lerMarca();
+    }
+
+    private UUID lerMarca() {
+        Path marca = diretorio.resolve(ARQUIVO_MARCA);
+        if (!Files.isRegularFile(marca)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(Files.readString(marca, StandardCharsets.UTF_8).trim());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Arquivo de marca ilegível: " + marca, e);
+        }
+    }
+
+    private static ArquivoColunar.Rodape lerRodape(Path arquivo) {
+        try {
+            return ArquivoColunar.lerRodape(arquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o rodapé de " + arquivo, e);
+        }
+    }
+}
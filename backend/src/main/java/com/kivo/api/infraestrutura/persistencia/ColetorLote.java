@@ -0,0 +1,186 @@
+package com.kivo.api.infraestrutura.persistencia;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Commit em grupo: pedidos de várias threads entram numa fila e são entregues ao
+ * processador em lotes, e cada chamador recebe o próprio resultado num futuro.
+ *
+ * Um lote começa no primeiro pedido que chega e fecha quando atinge {@code tamanhoMaximo}
+ * ou quando a {@code janela} se esgota, o que vier primeiro. Com janela zero o lote é só
+ * o que já estava na fila, então sob pouca carga nenhum pedido espera. Enquanto um lote
+ * está no banco os seguintes se acumulam, e o tamanho dos lotes cresce com a carga.
+ *
+ * Fila cheia recusa o pedido com {@link TaskRejectedException}. No encerramento os
+ * escritores esvaziam a fila antes de parar; o que ainda estiver na fila quando a espera
+ * do encerramento acabar falha com {@link TaskRejectedException}, para que nenhum chamador
+ * fique esperando um escritor que já não vai atendê-lo.
+ */
+public class ColetorLote<P, R> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ColetorLote.class);
+
+    @FunctionalInterface
+    public interface Processador<P, R> {
+
+        /** Deve concluir ou falhar cada pendente; os que sobrarem falham com erro genérico. */
+        void processar(List<Pendente<P, R>> lote);
+    }
+
+    public static final class Pendente<P, R> {
+
+        private final P pedido;
+        private final CompletableFuture<R> resultado = new CompletableFuture<>();
+        private final long chegada = System.nanoTime();
+
+        private Pendente(P pedido) {
+            this.pedido = pedido;
+        }
+
+        public P pedido() { return pedido; }
+        public long chegada() { return chegada; }
+
+        public void concluir(R valor) {
+            resultado.complete(valor);
+        }
+
+        public void falhar(Throwable erro) {
+            resultado.completeExceptionally(erro);
+        }
+    }
+
+    private final String nome;
+    private final BlockingQueue<Pendente<P, R>> fila;
+    private final long janelaNanos;
+    private final int tamanhoMaximo;
+    private final Processador<P, R> processador;
+    private final List<Thread> escritores = new ArrayList<>();
+    private volatile boolean ativo = true;
+
+    public ColetorLote(String nome, Duration janela, int tamanhoMaximo, int capacidadeFila, int escritores,
+                       Processador<P, R> processador) {
+        this.nome = nome;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.janelaNanos = janela.toNanos();
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.processador = processador;
+
+        for (int i = 1; i <= escritores; i++) {
+            Thread escritor = new Thread(this::executar, nome + "-" + i);
+            escritor.setDaemon(true);
+            escritor.start();
+            this.escritores.add(escritor);
+        }
+    }
+
+    public CompletableFuture<R> enviar(P pedido) {
+        Pendente<P, R> pendente = new Pendente<>(pedido);
+        if (!ativo || !fila.offer(pendente)) {
+            throw new TaskRejectedException("Fila de " + nome + " cheia");
+        }
+        if (!ativo && fila.remove(pendente)) {
+            // Encerrado durante o envio: talvez nenhum escritor veja mais a fila.
+            throw new TaskRejectedException(nome + " encerrado");
+        }
+        return pendente.resultado;
+    }
+
+    public int pendentes() {
+        return fila.size();
+    }
+
+    private void executar() {
+        List<Pendente<P, R>> lote = new ArrayList<>(tamanhoMaximo);
+        while (ativo || !fila.isEmpty()) {
+            try {
+                Pendente<P, R> primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                completar(lote, primeiro.chegada + janelaNanos);
+                processar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                processar(lote);
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void completar(List<Pendente<P, R>> lote, long prazo) throws InterruptedException {
+        while (lote.size() < tamanhoMaximo) {
+            fila.drainTo(lote, tamanhoMaximo - lote.size());
+            long restante = prazo - System.nanoTime();
+            if (lote.size() >= tamanhoMaximo || restante <= 0) {
+                return;
+            }
+            Pendente<P, R> proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proximo == null) {
+                return;
+            }
+            lote.add(proximo);
+        }
+    }
+
+    private void processar(List<Pendente<P, R>> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            processador.processar(lote);
+        } catch (RuntimeException | Error e) {
+            log.error("Falha ao processar lote de {} pedidos em {}", lote.size(), nome, e);
+            lote.forEach(pendente -> pendente.falhar(e));
+        } finally {
+            IllegalStateException semResposta = new IllegalStateException("Pedido não concluído pelo lote");
+            lote.forEach(pendente -> pendente.falhar(semResposta));
+        }
+    }
+
+    @Override
+    public void close() {
+        close(Duration.ofSeconds(10));
+    }
+
+    /** Para de aceitar pedidos e espera os escritores até {@code espera}, no total. */
+    public void close(Duration espera) {
+        ativo = false;
+        long prazo = System.nanoTime() + espera.toNanos();
+        try {
+            for (Thread escritor : escritores) {
+                long restante = prazo - System.nanoTime();
+                if (restante > 0) {
+                    TimeUnit.NANOSECONDS.timedJoin(escritor, restante);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            falharRestantes();
+        }
+    }
+
+    private void falharRestantes() {
+        List<Pendente<P, R>> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        if (restantes.isEmpty()) {
+            return;
+        }
+        log.warn("{} pedidos de {} ainda na fila no encerramento, recusados", restantes.size(), nome);
+        TaskRejectedException erro = new TaskRejectedException(nome + " encerrado antes de processar o pedido");
+        restantes.forEach(pendente -> pendente.falhar(erro));
+    }
+}
@@ -0,0 +1,70 @@
+package com.kivo.api.infraestrutura.persistencia;
+
+import com.kivo.api.dominio.modelo.LancamentoConta;
+import com.kivo.api.dominio.modelo.Transacao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Grava transações novas, com as partidas e o evento do outbox, em JDBC batch e numa
+ * única transação. É o caminho do registro agrupado: os ids já vêm preenchidos e os
+ * usuários já foram conferidos por quem chama.
+ */
+@Component
+public class EscritorTransacoes {
+
+    private static final String SQL_INSERIR_TRANSACAO = """
+        INSERT INTO tb_transacoes (id, valor, data, tipo, categoria, status, moeda, usuario_id, destinatario_id, taxa_cambio)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+    private static final String SQL_INSERIR_LANCAMENTO = """
+        INSERT INTO tb_lancamentos (id, transacao_id, conta_id, valor, data, tipo, categoria)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+    """;
+    private static final String SQL_INSERIR_OUTBOX = "INSERT INTO tb_outbox (transacao_id, criado_em) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public EscritorTransacoes(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void inserir(List<Transacao> transacoes) {
+        List<LancamentoConta> lancamentos = transacoes.stream()
+                .flatMap(transacao -> LancamentoConta.de(transacao).stream())
+                .toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(SQL_INSERIR_TRANSACAO, transacoes, transacoes.size(), (ps, t) -> {
+                ps.setObject(1, t.getId());
+                ps.setBigDecimal(2, t.getValor());
+                ps.setObject(3, t.getData());
+                ps.setString(4, t.getTipo().name());
+                ps.setString(5, t.getCategoria().name());
+                ps.setString(6, t.getStatus().name());
+                ps.setString(7, t.getMoeda());
+                ps.setObject(8, t.getUsuario().getId());
+                ps.setObject(9, t.getDestinatario() != null ? t.getDestinatario().getId() : null);
+                ps.setBigDecimal(10, t.getTaxaCambio());
+            });
+            jdbcTemplate.batchUpdate(SQL_INSERIR_LANCAMENTO, lancamentos, lancamentos.size(), (ps, l) -> {
+                ps.setObject(1, GeradorUuidV7.gerar());
+                ps.setObject(2, l.getTransacao().getId());
+                ps.setObject(3, l.getContaId());
+                ps.setBigDecimal(4, l.getValor());
+                ps.setObject(5, l.getData());
+                ps.setString(6, l.getTipo().name());
+                ps.setString(7, l.getCategoria().name());
+            });
+            jdbcTemplate.batchUpdate(SQL_INSERIR_OUTBOX, transacoes, transacoes.size(), (ps, t) -> {
+                ps.setObject(1, t.getId());
+                ps.setObject(2, t.getData());
+            });
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.kivo.api.infraestrutura.persistencia;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDs versão 7 (RFC 9562): os 48 bits mais altos são o instante em milissegundos, então
+ * chaves novas chegam sempre ao fim do índice em vez de cair em páginas aleatórias.
+ *
+ * Os 12 bits seguintes são um contador que mantém a ordem dentro do mesmo milissegundo;
+ * se ele estoura, o carimbo avança um milissegundo. Os 62 bits finais são aleatórios,
+ * o que mantém as chaves únicas entre instâncias sem nenhuma coordenação. Chaves v4 já
+ * gravadas continuam válidas: a coluna e a comparação não mudam.
+ */
+public class GeradorUuidV7 implements UuidValueGenerator {
+
+    private static final AtomicLong ULTIMO = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return gerar();
+    }
+
+    public static UUID gerar() {
+        long agora = System.currentTimeMillis() << 12;
+        long instante = ULTIMO.updateAndGet(anterior -> agora > anterior ? agora : anterior + 1);
+
+        long maisSignificativos = ((instante >>> 12) << 16) | 0x7000L | (instante & 0xFFFL);
+        long menosSignificativos = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+}
@@ -0,0 +1,58 @@
+package com.kivo.api.infraestrutura.seguranca;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kivo.api.dominio.modelo.Usuario;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Usuários autenticados por subject do token, para que o filtro de segurança não
+ * consulte o banco a cada requisição. Guarda só o {@link PrincipalUsuario} (id, e-mail e
+ * autoridades), nunca a entidade com o hash da senha. Alterações e remoções de usuário
+ * invalidam a entrada após o commit; o TTL limita a defasagem entre instâncias.
+ */
+@Component
+public class CachePrincipal {
+
+    private final Cache<String, PrincipalUsuario> principais;
+
+    public CachePrincipal(MeterRegistry registry,
+                          @Value("${kivo.seguranca.cache-principal.ttl:5m}") Duration ttl,
+                          @Value("${kivo.seguranca.cache-principal.tamanho-maximo:10000}") long tamanhoMaximo) {
+        this.principais = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, principais, "seguranca.principais");
+    }
+
+    public PrincipalUsuario obter(String subject, Function<String, Usuario> carregador) {
+        return principais.get(subject, chave -> {
+            Usuario usuario = carregador.apply(chave);
+            return usuario != null ? PrincipalUsuario.de(usuario) : null;
+        });
+    }
+
+    public void invalidar(String subject) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principais.invalidate(subject);
+                }
+            });
+        } else {
+            principais.invalidate(subject);
+        }
+    }
+}
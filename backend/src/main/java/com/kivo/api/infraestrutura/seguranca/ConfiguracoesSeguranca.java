@@ -1,5 +1,6 @@
 package com.kivo.api.infraestrutura.seguranca;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,11 +28,14 @@ public class ConfiguracoesSeguranca {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(req -> {
+                    req.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     req.requestMatchers(HttpMethod.POST, "/login").permitAll();
                     req.requestMatchers(HttpMethod.POST, "/usuarios").permitAll();
                     req.requestMatchers(HttpMethod.GET, "/transacoes/exportar").permitAll();
                     req.requestMatchers("/swagger-ui/**", "/swagger-ui.html").permitAll();
                     req.requestMatchers("/v3/api-docs/**").permitAll();
+                    // Coletado pelo Prometheus, sem token; restrinja o acesso na rede.
+                    req.requestMatchers(HttpMethod.GET, "/actuator/prometheus").permitAll();
 
                     req.anyRequest().authenticated();
                 })
@@ -1,5 +1,6 @@
 package com.kivo.api.infraestrutura.seguranca;
 
+import com.kivo.api.dominio.modelo.Usuario;
 import com.kivo.api.dominio.repositorio.RepositorioUsuario;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,16 +23,21 @@ public class FiltroSeguranca extends OncePerRequestFilter {
     @Autowired
     private RepositorioUsuario repository;
 
+    @Autowired
+    private CachePrincipal cachePrincipal;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         var tokenJWT = recuperarToken(request);
 
         if (tokenJWT != null) {
             var subject = tokenService.getSubject(tokenJWT);
-            var usuario = repository.findByEmail(subject);
+            var usuario = cachePrincipal.obter(subject, email -> (Usuario) repository.findByEmail(email));
 
-            var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (usuario != null) {
+                var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,35 @@
+package com.kivo.api.infraestrutura.seguranca;
+
+import com.kivo.api.dominio.modelo.Usuario;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal das requisições autenticadas por token: só o que a autorização usa, sem a
+ * entidade nem o hash da senha, que não ficam em memória no {@link CachePrincipal}.
+ */
+public record PrincipalUsuario(UUID id, String email, List<GrantedAuthority> autoridades) implements UserDetails {
+
+    public static PrincipalUsuario de(Usuario usuario) {
+        return new PrincipalUsuario(usuario.getId(), usuario.getEmail(), List.copyOf(usuario.getAuthorities()));
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return autoridades;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
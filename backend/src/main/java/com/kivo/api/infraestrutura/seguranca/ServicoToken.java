@@ -1,6 +1,7 @@
 package com.kivo.api.infraestrutura.seguranca;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
@@ -15,12 +16,18 @@ import java.time.ZoneOffset;
 @Service
 public class ServicoToken {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private final Algorithm algoritmo;
+    private final JWTVerifier verificador;
+
+    public ServicoToken(@Value("${api.security.token.secret}") String secret) {
+        this.algoritmo = Algorithm.HMAC256(secret);
+        this.verificador = JWT.require(algoritmo)
+                .withIssuer("kivo")
+                .build();
+    }
 
     public String gerar(Usuario usuario) {
         try {
-            Algorithm algoritmo = Algorithm.HMAC256(secret);
             return JWT.create()
                     .withIssuer("kivo")
                     .withSubject(usuario.getEmail())
@@ -33,12 +40,7 @@ public class ServicoToken {
 
     public String getSubject(String tokenJWT) {
         try {
-            Algorithm algoritmo = Algorithm.HMAC256(secret);
-            return JWT.require(algoritmo)
-                    .withIssuer("kivo")
-                    .build()
-                    .verify(tokenJWT)
-                    .getSubject();
+            return verificador.verify(tokenJWT).getSubject();
         } catch (JWTVerificationException exception) {
             throw new RuntimeException("Token JWT inválido ou expirado!");
         }
@@ -5,8 +5,12 @@ import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
+import org.springdoc.core.converters.ModelConverterRegistrar;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class OpenApiConfig {
@@ -26,4 +30,32 @@ public class OpenApiConfig {
                 ))
                 .addSecurityItem(new SecurityRequirement().addList("bearer-jwt"));
     }
+
+    /**
+     * Com {@code kivo.inicializacao.documentacao-adiada=true} os beans do springdoc e do OpenAPI
+     * só são criados no primeiro acesso a {@code /v3/api-docs} ou {@code /swagger-ui}, e não na subida.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor adiarDocumentacao(Environment environment) {
+        return beanFactory -> {
+            if (!environment.getProperty("kivo.inicializacao.documentacao-adiada", Boolean.class, false)) {
+                return;
+            }
+            for (String nome : beanFactory.getBeanDefinitionNames()) {
+                Class<?> tipo = beanFactory.getType(nome, false);
+                // O registrador grava os conversores no ModelConverters estático e ninguém depende dele:
+                // preguiçoso, não seria criado e o ResponseEntity deixaria de ser desembrulhado na documentação.
+                if (tipo == null || BeanPostProcessor.class.isAssignableFrom(tipo)
+                        || BeanFactoryPostProcessor.class.isAssignableFrom(tipo)
+                        || ModelConverterRegistrar.class.isAssignableFrom(tipo)) {
+                    continue;
+                }
+                String classe = tipo.getName();
+                if (classe.startsWith("org.springdoc.") || classe.startsWith("io.swagger.")
+                        || OpenApiConfig.class.isAssignableFrom(tipo)) {
+                    beanFactory.getBeanDefinition(nome).setLazyInit(true);
+                }
+            }
+        };
+    }
 }
@@ -0,0 +1,77 @@
+package com.kivo.api.infraestrutura.tarefa;
+
+import com.kivo.api.dominio.modelo.LancamentoConta;
+import com.kivo.api.dominio.modelo.StatusTransacao;
+import com.kivo.api.dominio.modelo.Transacao;
+import com.kivo.api.dominio.repositorio.RepositorioLancamento;
+import com.kivo.api.dominio.repositorio.RepositorioTransacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Gera as partidas de {@code tb_lancamentos} para transações gravadas antes do livro-razão.
+ * Roda uma vez na inicialização com {@code --kivo.lancamentos.backfill.habilitado=true},
+ * em lotes com commit próprio; pode ser interrompido e reexecutado sem duplicar partidas.
+ */
+@Component
+@ConditionalOnProperty(name = "kivo.lancamentos.backfill.habilitado", havingValue = "true")
+public class BackfillLancamentos implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BackfillLancamentos.class);
+
+    @Autowired
+    private RepositorioTransacao transacaoRepository;
+
+    @Autowired
+    private RepositorioLancamento lancamentoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${kivo.lancamentos.backfill.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Iniciando backfill de lançamentos (lotes de {})", tamanhoLote);
+
+        UUID ultimoId = new UUID(0L, 0L);
+        long totalTransacoes = 0;
+
+        while (true) {
+            UUID inicioLote = ultimoId;
+            List<Transacao> lote = transactionTemplate.execute(status -> {
+                List<Transacao> transacoes = transacaoRepository.findSemLancamentosApos(inicioLote, Limit.of(tamanhoLote));
+                for (Transacao t : transacoes) {
+                    List<LancamentoConta> lancamentos = LancamentoConta.de(t);
+                    if (t.getStatus() == StatusTransacao.APPROVED) {
+                        lancamentos.forEach(LancamentoConta::efetivar);
+                    }
+                    lancamentoRepository.saveAll(lancamentos);
+                }
+                return transacoes;
+            });
+
+            if (lote == null || lote.isEmpty()) {
+                break;
+            }
+
+            ultimoId = lote.get(lote.size() - 1).getId();
+            totalTransacoes += lote.size();
+            log.info("Backfill: {} transações processadas até {}", totalTransacoes, ultimoId);
+        }
+
+        log.info("Backfill de lançamentos concluído: {} transações", totalTransacoes);
+    }
+}
@@ -0,0 +1,290 @@
+package com.kivo.api.infraestrutura.tarefa;
+
+import com.kivo.api.aplicacao.dto.LinhaExtratoDTO;
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.StatusTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import com.kivo.api.infraestrutura.persistencia.ArquivoColunar;
+import com.kivo.api.infraestrutura.persistencia.ArquivoTransacoes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Manutenção das partições mensais de {@code tb_transacoes}.
+ *
+ * Na inicialização e a cada {@code kivo.particoes.intervalo-manutencao} garante que
+ * existam partições do mês corrente até {@code meses-futuros} à frente. Com o arquivamento
+ * habilitado, os meses anteriores ao horizonte são gravados em arquivo colunar no
+ * diretório {@code kivo.arquivo.diretorio} e a partição é descartada. Esse diretório é lido
+ * por todas as instâncias e precisa ser um volume compartilhado e persistente, conferido na
+ * subida por {@link ArquivoTransacoes#verificarDiretorio(boolean)}.
+ *
+ * Cada mês é arquivado numa única transação: a partição é travada contra escrita, as
+ * linhas vão para um arquivo temporário que só é renomeado depois do fsync, o arquivo é
+ * relido do diretório antes de o mês ser registrado, os totais efetivados por conta passam
+ * para {@code tb_lancamentos_arquivados}, os lançamentos do mês saem de {@code tb_lancamentos}
+ * e a partição é desanexada e removida. Um mês que ainda tenha transações PENDING ou
+ * créditos de transferência ainda não aplicados fica para a próxima rodada. Só uma
+ * instância arquiva por vez (lock consultivo no banco).
+ */
+@Component
+public class ManutencaoParticoes {
+
+    private static final Logger log = LoggerFactory.getLogger(ManutencaoParticoes.class);
+    private static final long LOCK_ARQUIVAMENTO = 0x6B69766F_61727176L;
+    private static final Pattern NOME_PARTICAO = Pattern.compile("tb_transacoes_(\\d{4})_(\\d{2})");
+
+    private static final String SQL_PARTICOES = """
+        SELECT c.relname
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'tb_transacoes'::regclass
+        ORDER BY c.relname
+    """;
+
+    private static final String SQL_LINHAS = """
+        SELECT l.conta_id, t.id, t.valor, t.tipo, t.categoria, t.status, t.moeda, t.taxa_cambio, t.data,
+               t.usuario_id, t.destinatario_id
+        FROM tb_lancamentos l JOIN %s t ON t.id = l.transacao_id AND t.data = l.data
+        ORDER BY l.conta_id, t.data DESC, t.id DESC
+    """;
+
+    private static final String SQL_PENDENCIAS = """
+        SELECT EXISTS (SELECT 1 FROM %s WHERE status = 'PENDING')
+            OR EXISTS (SELECT 1 FROM tb_lancamentos l JOIN %s t ON t.id = l.transacao_id AND t.data = l.data
+                       WHERE t.status = 'APPROVED' AND NOT l.efetivado)
+    """;
+
+    private static final String SQL_ACUMULAR_TOTAIS = """
+        INSERT INTO tb_lancamentos_arquivados (conta_id, quantidade, soma)
+        SELECT l.conta_id, COUNT(*), SUM(l.valor)
+        FROM tb_lancamentos l JOIN %s t ON t.id = l.transacao_id AND t.data = l.data
+        WHERE l.efetivado
+        GROUP BY l.conta_id
+        ON CONFLICT (conta_id) DO UPDATE
+        SET quantidade = tb_lancamentos_arquivados.quantidade + EXCLUDED.quantidade,
+            soma = tb_lancamentos_arquivados.soma + EXCLUDED.soma
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArquivoTransacoes arquivoTransacoes;
+    private final int mesesFuturos;
+    private final boolean arquivamentoHabilitado;
+    private final int horizonteMeses;
+    private final int linhasPorGrupo;
+
+    public ManutencaoParticoes(JdbcTemplate jdbcTemplate,
+                               ArquivoTransacoes arquivoTransacoes,
+                               @Value("${kivo.particoes.meses-futuros:3}") int mesesFuturos,
+                               @Value("${kivo.arquivo.habilitado:false}") boolean arquivamentoHabilitado,
+                               @Value("${kivo.arquivo.horizonte-meses:12}") int horizonteMeses,
+                               @Value("${kivo.arquivo.linhas-por-grupo:8192}") int linhasPorGrupo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.arquivoTransacoes = arquivoTransacoes;
+        this.mesesFuturos = mesesFuturos;
+        this.arquivamentoHabilitado = arquivamentoHabilitado;
+        this.horizonteMeses = horizonteMeses;
+        this.linhasPorGrupo = linhasPorGrupo;
+
+        arquivoTransacoes.verificarDiretorio(arquivamentoHabilitado);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${kivo.particoes.intervalo-manutencao:6h}")
+    public void executar() {
+        try {
+            garantirParticoesFuturas();
+            if (arquivamentoHabilitado) {
+                arquivarMesesAntigos();
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha na manutenção das partições de transações", e);
+        }
+    }
+
+    private void garantirParticoesFuturas() {
+        LocalDate mes = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= mesesFuturos; i++) {
+            jdbcTemplate.queryForObject("SELECT kivo_garantir_particao_transacoes(?)", String.class, mes.plusMonths(i));
+        }
+    }
+
+    private void arquivarMesesAntigos() {
+        LocalDate limite = LocalDate.now().withDayOfMonth(1).minusMonths(horizonteMeses);
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            if (!travar(conexao)) {
+                log.debug("Arquivamento de transações em andamento em outra instância");
+                return null;
+            }
+            try {
+                for (String particao : listarParticoes(conexao)) {
+                    LocalDate inicio = inicioDoMes(particao);
+                    if (inicio != null && !inicio.plusMonths(1).isAfter(limite)) {
+                        arquivar(conexao, particao, inicio);
+                    }
+                }
+            } finally {
+                destravar(conexao);
+            }
+            return null;
+        });
+    }
+
+    private void arquivar(Connection conexao, String particao, LocalDate inicio) throws SQLException {
+        boolean autoCommit = conexao.getAutoCommit();
+        conexao.setAutoCommit(false);
+        Path destino = arquivoTransacoes.resolver(particao + ".kva");
+        Path temporario = arquivoTransacoes.resolver(particao + ".kva.tmp");
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("LOCK TABLE " + particao + " IN SHARE MODE");
+
+            try (ResultSet pendentes = comando.executeQuery(SQL_PENDENCIAS.formatted(particao, particao))) {
+                pendentes.next();
+                if (pendentes.getBoolean(1)) {
+                    log.warn("Partição {} ainda tem transações PENDING ou créditos não aplicados, arquivamento adiado", particao);
+                    conexao.rollback();
+                    return;
+                }
+            }
+
+            long inicioArquivo = System.nanoTime();
+            long linhas = gravarArquivo(conexao, particao, temporario);
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            arquivoTransacoes.conferir(destino, linhas);
+
+            comando.executeUpdate(SQL_ACUMULAR_TOTAIS.formatted(particao));
+            int lancamentos = comando.executeUpdate(
+                    "DELETE FROM tb_lancamentos l USING " + particao + " t WHERE t.id = l.transacao_id AND t.data = l.data");
+            try (PreparedStatement registro = conexao.prepareStatement("""
+                    INSERT INTO tb_particoes_arquivadas (particao, inicio, fim, arquivo, linhas, arquivado_em)
+                    VALUES (?, ?, ?, ?, ?, now())
+                    """)) {
+                registro.setString(1, particao);
+                registro.setObject(2, inicio);
+                registro.setObject(3, inicio.plusMonths(1));
+                registro.setString(4, destino.getFileName().toString());
+                registro.setLong(5, linhas);
+                registro.executeUpdate();
+            }
+            comando.execute("ALTER TABLE tb_transacoes DETACH PARTITION " + particao);
+            comando.execute("DROP TABLE " + particao);
+            conexao.commit();
+
+            arquivoTransacoes.invalidar();
+            log.info("Partição {} arquivada em {}: {} linhas, {} lançamentos removidos, {} ms",
+                    particao, destino, linhas, lancamentos, (System.nanoTime() - inicioArquivo) / 1_000_000);
+        } catch (IOException | SQLException | RuntimeException e) {
+            conexao.rollback();
+            apagarTemporario(temporario);
+            log.error("Falha ao arquivar a partição {}", particao, e);
+        } finally {
+            conexao.setAutoCommit(autoCommit);
+        }
+    }
+
+    private long gravarArquivo(Connection conexao, String particao, Path temporario) throws SQLException, IOException {
+        Files.createDirectories(temporario.getParent());
+        try (FileChannel canal = FileChannel.open(temporario,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream saida = new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16);
+             PreparedStatement consulta = conexao.prepareStatement(SQL_LINHAS.formatted(particao))) {
+
+            consulta.setFetchSize(linhasPorGrupo);
+            long linhas;
+            try (ResultSet rs = consulta.executeQuery();
+                 ArquivoColunar.Escritor escritor = ArquivoColunar.escritor(saida, linhasPorGrupo)) {
+                while (rs.next()) {
+                    escritor.escrever(rs.getObject(1, UUID.class), linha(rs));
+                }
+                linhas = escritor.linhas();
+            }
+            saida.flush();
+            canal.force(true);
+            return linhas;
+        }
+    }
+
+    private static LinhaExtratoDTO linha(ResultSet rs) throws SQLException {
+        Timestamp data = rs.getTimestamp(9);
+        return new LinhaExtratoDTO(
+                rs.getObject(2, UUID.class),
+                rs.getBigDecimal(3),
+                TipoTransacao.valueOf(rs.getString(4)),
+                CategoriaTransacao.valueOf(rs.getString(5)),
+                StatusTransacao.valueOf(rs.getString(6)),
+                rs.getString(7),
+                rs.getBigDecimal(8),
+                data.toLocalDateTime(),
+                rs.getObject(10, UUID.class),
+                rs.getObject(11, UUID.class)
+        );
+    }
+
+    private static List<String> listarParticoes(Connection conexao) throws SQLException {
+        List<String> particoes = new ArrayList<>();
+        try (Statement consulta = conexao.createStatement(); ResultSet rs = consulta.executeQuery(SQL_PARTICOES)) {
+            while (rs.next()) {
+                particoes.add(rs.getString(1));
+            }
+        }
+        return particoes;
+    }
+
+    private static LocalDate inicioDoMes(String particao) {
+        Matcher nome = NOME_PARTICAO.matcher(particao);
+        if (!nome.matches()) {
+            return null;
+        }
+        return LocalDate.of(Integer.parseInt(nome.group(1)), Integer.parseInt(nome.group(2)), 1);
+    }
+
+    private static boolean travar(Connection conexao) throws SQLException {
+        try (PreparedStatement lock = conexao.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            lock.setLong(1, LOCK_ARQUIVAMENTO);
+            try (ResultSet rs = lock.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void destravar(Connection conexao) throws SQLException {
+        try (PreparedStatement lock = conexao.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            lock.setLong(1, LOCK_ARQUIVAMENTO);
+            lock.execute();
+        }
+    }
+
+    private static void apagarTemporario(Path temporario) {
+        try {
+            Files.deleteIfExists(temporario);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover {}", temporario, e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.kivo.api.infraestrutura.tarefa;
+
+import com.kivo.api.dominio.repositorio.RepositorioParticaoArquivada;
+import com.kivo.api.dominio.repositorio.RepositorioResumoDiario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Recalcula {@code tb_resumo_diario} a partir dos lançamentos de transações aprovadas.
+ * Executado com {@code --kivo.resumos.reconstruir=true}; a troca acontece numa única
+ * transação, então as consultas de análise nunca enxergam a tabela pela metade. Os dias
+ * de meses já arquivados não têm mais lançamentos no banco e são preservados.
+ */
+@Component
+@ConditionalOnProperty(name = "kivo.resumos.reconstruir", havingValue = "true")
+public class ReconstrucaoResumos implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconstrucaoResumos.class);
+
+    @Autowired
+    private RepositorioResumoDiario resumoRepository;
+
+    @Autowired
+    private RepositorioParticaoArquivada particaoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        LocalDate desde = particaoRepository.findLimiteArquivado().orElse(LocalDate.EPOCH);
+        log.info("Reconstruindo resumos diários a partir dos lançamentos desde {}", desde);
+
+        Integer linhas = transactionTemplate.execute(status -> {
+            resumoRepository.limpar(desde);
+            return resumoRepository.recalcularAPartirDosLancamentos(desde);
+        });
+
+        log.info("Resumos diários reconstruídos: {} linhas", linhas);
+    }
+}
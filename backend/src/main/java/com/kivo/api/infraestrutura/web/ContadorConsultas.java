@@ -0,0 +1,35 @@
+package com.kivo.api.infraestrutura.web;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os comandos SQL que o Hibernate prepara na thread atual enquanto uma contagem
+ * estiver aberta. Registrado em {@code hibernate.session_factory.statement_inspector};
+ * o Hibernate cria a instância, por isso o estado fica numa ThreadLocal estática.
+ */
+public class ContadorConsultas implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTAGEM = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] contagem = CONTAGEM.get();
+        if (contagem != null) {
+            contagem[0]++;
+        }
+        return sql;
+    }
+
+    public static void iniciar() {
+        CONTAGEM.set(new int[1]);
+    }
+
+    /**
+     * Fecha a contagem da thread e devolve o total, ou -1 se nenhuma estava aberta.
+     */
+    public static int encerrar() {
+        int[] contagem = CONTAGEM.get();
+        CONTAGEM.remove();
+        return contagem != null ? contagem[0] : -1;
+    }
+}
@@ -0,0 +1,135 @@
+package com.kivo.api.infraestrutura.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kivo.api.infraestrutura.excecao.ErroRespostaDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita quantas requisições a API processa ao mesmo tempo.
+ *
+ * Com threads virtuais cada conexão aceita vira uma thread e milhares delas disputariam
+ * as conexões JDBC do Hikari. Por isso o limite, por padrão, é o tamanho do pool do Hikari:
+ * uma requisição admitida encontra conexão livre em vez de esperar na fila do pool até o
+ * {@code connection-timeout}. Acima do limite a requisição espera até {@code espera-vaga}
+ * e, sem vaga, recebe 503 antes de tocar no banco. Respostas assíncronas (extrato em
+ * stream, PDF renderizado na hora) seguram a vaga até o fim do processamento assíncrono,
+ * não só até o primeiro dispatch voltar; o dispatch assíncrono não passa de novo pelo
+ * filtro. O actuator fica de fora para que health checks
+ * continuem respondendo sob carga.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FiltroConcorrencia extends OncePerRequestFilter {
+
+    private final Semaphore vagas;
+    private final long esperaNanos;
+    private final ObjectMapper objectMapper;
+    private final Counter rejeitadas;
+
+    public FiltroConcorrencia(ObjectMapper objectMapper,
+                              MeterRegistry registry,
+                              @Value("${kivo.web.requisicoes-simultaneas:${spring.datasource.hikari.maximum-pool-size:10}}") int limite,
+                              @Value("${kivo.web.espera-vaga:500ms}") Duration espera) {
+        this.objectMapper = objectMapper;
+        this.vagas = new Semaphore(limite, true);
+        this.esperaNanos = espera.toNanos();
+
+        Gauge.builder("kivo.web.requisicoes.ativas", vagas, v -> limite - v.availablePermits())
+                .description("Requisições em processamento")
+                .register(registry);
+        this.rejeitadas = Counter.builder("kivo.web.requisicoes.rejeitadas")
+                .description("Requisições recusadas por falta de vaga")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean obteve;
+        try {
+            obteve = vagas.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obteve = false;
+        }
+
+        if (!obteve) {
+            rejeitadas.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErroRespostaDTO("Servidor sobrecarregado, tente novamente em instantes"));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberaVagaAoFim());
+            } else {
+                vagas.release();
+            }
+        }
+    }
+
+    /** Devolve a vaga quando a requisição assíncrona termina, por qualquer caminho. */
+    private class LiberaVagaAoFim implements AsyncListener {
+
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Um novo startAsync descarta os listeners registrados.
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void liberar() {
+            if (liberada.compareAndSet(false, true)) {
+                vagas.release();
+            }
+        }
+    }
+}
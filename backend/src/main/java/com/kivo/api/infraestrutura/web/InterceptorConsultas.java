@@ -0,0 +1,68 @@
+package com.kivo.api.infraestrutura.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Registra quantos comandos SQL cada endpoint executou na thread da requisição, em
+ * {@code kivo.jpa.consultas} com a tag {@code uri}. O número deve ficar constante por
+ * endpoint, independente do tamanho do histórico; um valor que cresce com os dados é
+ * sinal de N+1. Trabalho feito em outras threads (streaming, painel) não entra na conta.
+ */
+@Component
+public class InterceptorConsultas implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(InterceptorConsultas.class);
+
+    private final MeterRegistry registry;
+    private final int limiteAlerta;
+
+    public InterceptorConsultas(MeterRegistry registry,
+                                @Value("${kivo.jpa.alerta-consultas-por-requisicao:20}") int limiteAlerta) {
+        this.registry = registry;
+        this.limiteAlerta = limiteAlerta;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            ContadorConsultas.iniciar();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContadorConsultas.encerrar();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int consultas = ContadorConsultas.encerrar();
+        if (consultas < 0) {
+            return;
+        }
+
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao != null ? padrao.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("kivo.jpa.consultas")
+                .description("Comandos SQL executados por requisição")
+                .tag("uri", uri)
+                .register(registry)
+                .record(consultas);
+
+        if (consultas > limiteAlerta) {
+            log.warn("{} {} executou {} comandos SQL", request.getMethod(), uri, consultas);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+-- Tabelas que vieram depois do esquema inicial: partidas por conta, resumos diários,
+-- outbox e saldos. Bancos que entram no Flyway com baseline na V1 ainda não as têm; os que
+-- rodaram versões intermediárias com ddl-auto=update podem já tê-las, daí o IF NOT EXISTS.
+
+CREATE TABLE IF NOT EXISTS tb_lancamentos (
+    id           uuid          NOT NULL,
+    transacao_id uuid          NOT NULL,
+    conta_id     uuid          NOT NULL,
+    valor        numeric(38,2) NOT NULL,
+    data         timestamp(6)  NOT NULL,
+    tipo         varchar(255)  NOT NULL,
+    categoria    varchar(255)  NOT NULL,
+    CONSTRAINT tb_lancamentos_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_lancamentos_transacao_conta UNIQUE (transacao_id, conta_id),
+    CONSTRAINT fk_lancamentos_transacao FOREIGN KEY (transacao_id) REFERENCES tb_transacoes (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_lancamentos_conta_data ON tb_lancamentos (conta_id, data, transacao_id);
+
+CREATE TABLE IF NOT EXISTS tb_resumo_diario (
+    conta_id   uuid          NOT NULL,
+    dia        date          NOT NULL,
+    categoria  varchar(255)  NOT NULL,
+    tipo       varchar(255)  NOT NULL,
+    total      numeric(38,2) NOT NULL,
+    quantidade bigint        NOT NULL,
+    CONSTRAINT tb_resumo_diario_pkey PRIMARY KEY (categoria, conta_id, dia, tipo)
+);
+
+CREATE TABLE IF NOT EXISTS tb_outbox (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    transacao_id uuid         NOT NULL,
+    criado_em    timestamp(6) NOT NULL,
+    enviado_em   timestamp(6),
+    CONSTRAINT tb_outbox_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_pendentes ON tb_outbox (enviado_em, id);
+
+CREATE TABLE IF NOT EXISTS tb_saldos (
+    conta_id               uuid          NOT NULL,
+    saldo_inicial          numeric(38,2) NOT NULL,
+    saldo                  numeric(38,2) NOT NULL,
+    lancamentos_efetivados bigint        NOT NULL,
+    atualizado_em          timestamp(6)  NOT NULL,
+    CONSTRAINT tb_saldos_pkey PRIMARY KEY (conta_id)
+);
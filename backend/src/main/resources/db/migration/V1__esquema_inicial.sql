@@ -0,0 +1,30 @@
+-- Esquema que o Hibernate gerava com ddl-auto=update na baseline: só usuários e transações.
+-- Bancos já existentes entram no Flyway com baseline nesta versão e não executam este script;
+-- as tabelas criadas depois vêm da V1_1.
+
+CREATE TABLE tb_usuarios (
+    id    uuid         NOT NULL,
+    nome  varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    senha varchar(255) NOT NULL,
+    cpf   varchar(14)  NOT NULL,
+    CONSTRAINT tb_usuarios_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_email UNIQUE (email),
+    CONSTRAINT uk_usuarios_cpf UNIQUE (cpf)
+);
+
+CREATE TABLE tb_transacoes (
+    id              uuid          NOT NULL,
+    valor           numeric(38,2) NOT NULL,
+    data            timestamp(6)  NOT NULL,
+    tipo            varchar(255)  NOT NULL,
+    categoria       varchar(255)  NOT NULL,
+    status          varchar(255)  NOT NULL,
+    moeda           varchar(3),
+    usuario_id      uuid          NOT NULL,
+    destinatario_id uuid,
+    taxa_cambio     numeric(38,2),
+    CONSTRAINT tb_transacoes_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_transacoes_usuario FOREIGN KEY (usuario_id) REFERENCES tb_usuarios (id),
+    CONSTRAINT fk_transacoes_destinatario FOREIGN KEY (destinatario_id) REFERENCES tb_usuarios (id)
+);
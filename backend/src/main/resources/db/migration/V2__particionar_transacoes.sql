@@ -0,0 +1,60 @@
+-- tb_transacoes passa a ser particionada por mês em "data". A chave primária precisa
+-- incluir a coluna de particionamento; a unicidade de id fica a cargo do gerador UUIDv7.
+-- Por isso tb_lancamentos deixa de ter FK para tb_transacoes (uma FK exigiria (id, data)
+-- e impediria descartar partições arquivadas).
+
+DO $$
+DECLARE
+    r record;
+BEGIN
+    FOR r IN SELECT conrelid::regclass AS tabela, conname
+             FROM pg_constraint
+             WHERE contype = 'f' AND confrelid = 'tb_transacoes'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', r.tabela, r.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE tb_transacoes RENAME TO tb_transacoes_legado;
+ALTER TABLE tb_transacoes_legado RENAME CONSTRAINT tb_transacoes_pkey TO tb_transacoes_legado_pkey;
+
+CREATE TABLE tb_transacoes (
+    id              uuid          NOT NULL,
+    valor           numeric(38,2) NOT NULL,
+    data            timestamp(6)  NOT NULL,
+    tipo            varchar(255)  NOT NULL,
+    categoria       varchar(255)  NOT NULL,
+    status          varchar(255)  NOT NULL,
+    moeda           varchar(3),
+    usuario_id      uuid          NOT NULL,
+    destinatario_id uuid,
+    taxa_cambio     numeric(38,2),
+    CONSTRAINT tb_transacoes_pkey PRIMARY KEY (id, data),
+    CONSTRAINT fk_transacoes_usuario FOREIGN KEY (usuario_id) REFERENCES tb_usuarios (id),
+    CONSTRAINT fk_transacoes_destinatario FOREIGN KEY (destinatario_id) REFERENCES tb_usuarios (id)
+) PARTITION BY RANGE (data);
+
+-- Cria (se ainda não existir) a partição do mês que contém "mes". Usada aqui e pela
+-- manutenção agendada da aplicação, que mantém alguns meses futuros criados.
+CREATE OR REPLACE FUNCTION kivo_garantir_particao_transacoes(mes date) RETURNS text
+LANGUAGE plpgsql AS $$
+DECLARE
+    inicio date := date_trunc('month', mes)::date;
+    nome   text := 'tb_transacoes_' || to_char(inicio, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF tb_transacoes FOR VALUES FROM (%L) TO (%L)',
+                   nome, inicio, (inicio + interval '1 month')::date);
+    RETURN nome;
+END $$;
+
+SELECT kivo_garantir_particao_transacoes(mes::date)
+FROM generate_series(
+         date_trunc('month', COALESCE((SELECT min(data) FROM tb_transacoes_legado), now())),
+         date_trunc('month', now()) + interval '3 months',
+         interval '1 month') AS mes;
+
+INSERT INTO tb_transacoes (id, valor, data, tipo, categoria, status, moeda, usuario_id, destinatario_id, taxa_cambio)
+SELECT id, valor, data, tipo, categoria, status, moeda, usuario_id, destinatario_id, taxa_cambio
+FROM tb_transacoes_legado;
+
+DROP TABLE tb_transacoes_legado;
@@ -0,0 +1,19 @@
+-- Meses de tb_transacoes que já foram para arquivos colunares em disco.
+CREATE TABLE tb_particoes_arquivadas (
+    particao     varchar(63)   NOT NULL,
+    inicio       date          NOT NULL,
+    fim          date          NOT NULL,
+    arquivo      varchar(500)  NOT NULL,
+    linhas       bigint        NOT NULL,
+    arquivado_em timestamp(6)  NOT NULL,
+    CONSTRAINT tb_particoes_arquivadas_pkey PRIMARY KEY (particao)
+);
+
+-- Quantidade e soma dos lançamentos aprovados que saíram de tb_lancamentos ao arquivar.
+-- O livro de uma conta passa a ser tb_lancamentos mais esta linha.
+CREATE TABLE tb_lancamentos_arquivados (
+    conta_id   uuid          NOT NULL,
+    quantidade bigint        NOT NULL,
+    soma       numeric(38,2) NOT NULL,
+    CONSTRAINT tb_lancamentos_arquivados_pkey PRIMARY KEY (conta_id)
+);
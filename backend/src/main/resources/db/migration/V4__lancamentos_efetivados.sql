@@ -0,0 +1,11 @@
+-- Uma partida efetivada já está somada ao saldo da conta dela. A partida de quem origina a
+-- transação é efetivada quando ela é aprovada; o crédito de uma transferência, quando o
+-- consumidor da partição do destinatário o aplica (evento de crédito vindo do outbox).
+ALTER TABLE tb_lancamentos ADD COLUMN efetivado boolean NOT NULL DEFAULT false;
+
+UPDATE tb_lancamentos l
+SET efetivado = true
+FROM tb_transacoes t
+WHERE t.id = l.transacao_id AND t.data = l.data AND t.status = 'APPROVED';
+
+ALTER TABLE tb_outbox ADD COLUMN credito boolean NOT NULL DEFAULT false;
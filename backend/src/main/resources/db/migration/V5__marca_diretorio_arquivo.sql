@@ -0,0 +1,10 @@
+-- Marca do diretório de arquivos colunares. A primeira instância que arquiva grava um arquivo
+-- de marca no diretório e registra o conteúdo aqui; toda instância confere, na subida, que
+-- enxerga o mesmo arquivo (volume compartilhado e persistente) antes de ler ou gravar meses.
+CREATE TABLE tb_arquivo_diretorio (
+    id        smallint     NOT NULL DEFAULT 1,
+    marca     uuid         NOT NULL,
+    criado_em timestamp(6) NOT NULL,
+    CONSTRAINT tb_arquivo_diretorio_pkey PRIMARY KEY (id),
+    CONSTRAINT ck_arquivo_diretorio_unico CHECK (id = 1)
+);
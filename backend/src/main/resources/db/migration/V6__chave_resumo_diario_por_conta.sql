@@ -0,0 +1,7 @@
+-- A chave de tb_resumo_diario saiu na ordem alfabética que o Hibernate deriva do
+-- ResumoDiario.Chave (categoria, conta_id, dia, tipo), e nenhum índice começava pela conta:
+-- as análises filtram por conta_id e intervalo de dia e liam a tabela inteira. A chave passa
+-- a começar por (conta_id, dia), as mesmas colunas do alvo do ON CONFLICT.
+ALTER TABLE tb_resumo_diario
+    DROP CONSTRAINT tb_resumo_diario_pkey,
+    ADD CONSTRAINT tb_resumo_diario_pkey PRIMARY KEY (conta_id, dia, categoria, tipo);
@@ -0,0 +1,99 @@
+package com.kivo.api.aplicacao.servico;
+
+import com.kivo.api.aplicacao.dto.TransacaoEntradaDTO;
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import com.kivo.api.dominio.modelo.Transacao;
+import com.kivo.api.dominio.modelo.Usuario;
+import com.kivo.api.dominio.repositorio.RepositorioUsuario;
+import com.kivo.api.infraestrutura.persistencia.EscritorTransacoes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registro agrupado sem banco: quando o insert do lote falha, cada pedido é regravado
+ * sozinho e só o que falhar de novo recebe o erro.
+ */
+class ServicoRegistroAgrupadoTest {
+
+    private static final BigDecimal VALOR_RECUSADO = new BigDecimal("666.00");
+
+    private final ServicoTransacao transacaoService = mock(ServicoTransacao.class);
+    private final RepositorioUsuario usuarioRepository = mock(RepositorioUsuario.class);
+    private final EscritorTransacoes escritor = mock(EscritorTransacoes.class);
+    private final List<Integer> insercoes = new CopyOnWriteArrayList<>();
+    private final Usuario usuario = new Usuario("Conta", "conta@teste.kivo", "-", "00000000001");
+
+    private ServicoRegistroAgrupado servico;
+
+    @BeforeEach
+    void preparar() {
+        ReflectionTestUtils.setField(usuario, "id", UUID.randomUUID());
+        when(transacaoService.obterTaxaCambio(any())).thenReturn(BigDecimal.ONE);
+        when(usuarioRepository.findAllById(anyIterable())).thenReturn(List.of(usuario));
+
+        // O banco recusa qualquer insert que contenha a transação de valor recusado.
+        doAnswer(invocacao -> {
+            List<Transacao> transacoes = invocacao.getArgument(0);
+            insercoes.add(transacoes.size());
+            if (transacoes.stream().anyMatch(t -> t.getValor().compareTo(VALOR_RECUSADO) == 0)) {
+                throw new DataIntegrityViolationException("violação simulada");
+            }
+            return null;
+        }).when(escritor).inserir(any());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Janela longa e lote de três: os três pedidos caem no mesmo lote.
+        servico = new ServicoRegistroAgrupado(transacaoService, usuarioRepository, escritor,
+                new MetricasRegistro(registry, Set.of("BRL")), registry,
+                true, Duration.ofSeconds(30), 3, 100, 1);
+    }
+
+    @AfterEach
+    void encerrar() {
+        servico.encerrar();
+    }
+
+    @Test
+    void loteQueFalhaNoBancoEhRegravadoUmAUm() throws Exception {
+        List<CompletableFuture<Transacao>> resultados = new ArrayList<>();
+        for (BigDecimal valor : List.of(new BigDecimal("10.00"), VALOR_RECUSADO, new BigDecimal("30.00"))) {
+            resultados.add(CompletableFuture.supplyAsync(() -> servico.registrar(compra(valor))));
+        }
+
+        assertThat(resultados.get(0).get(5, TimeUnit.SECONDS).getValor()).isEqualByComparingTo("10.00");
+        assertThat(resultados.get(2).get(5, TimeUnit.SECONDS).getValor()).isEqualByComparingTo("30.00");
+        assertThatThrownBy(() -> resultados.get(1).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(insercoes).containsExactly(3, 1, 1, 1);
+    }
+
+    private TransacaoEntradaDTO compra(BigDecimal valor) {
+        return new TransacaoEntradaDTO(valor, TipoTransacao.COMPRA, usuario.getId(), CategoriaTransacao.ALIMENTACAO, null, "BRL");
+    }
+}
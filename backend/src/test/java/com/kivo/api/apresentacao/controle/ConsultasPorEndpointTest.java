@@ -0,0 +1,144 @@
+package com.kivo.api.apresentacao.controle;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * As leituras de extrato, exportação e análise executam um número fixo de comandos SQL,
+ * qualquer que seja o tamanho do histórico da conta. Conta pelas estatísticas do Hibernate,
+ * com as tarefas agendadas e os consumidores Kafka desligados (perfil {@code teste}).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("teste")
+class ConsultasPorEndpointTest {
+
+    private static final int HISTORICO = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    private final List<UUID> contas = new ArrayList<>();
+
+    @BeforeEach
+    void preparar() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        jdbcTemplate.queryForList("SELECT kivo_garantir_particao_transacoes((now() - interval '1 day')::date)");
+        jdbcTemplate.queryForList("SELECT kivo_garantir_particao_transacoes(now()::date)");
+    }
+
+    /** Remove o que o teste semeou, para que cada execução veja o mesmo banco. */
+    @AfterEach
+    void limpar() {
+        for (UUID conta : contas) {
+            jdbcTemplate.update("DELETE FROM tb_saldos WHERE conta_id = ?", conta);
+            jdbcTemplate.update("DELETE FROM tb_resumo_diario WHERE conta_id = ?", conta);
+            jdbcTemplate.update("DELETE FROM tb_lancamentos WHERE conta_id = ?", conta);
+            jdbcTemplate.update("DELETE FROM tb_transacoes WHERE usuario_id = ?", conta);
+            jdbcTemplate.update("DELETE FROM tb_usuarios WHERE id = ?", conta);
+        }
+        contas.clear();
+    }
+
+    @Test
+    void quantidadeDeConsultasNaoDependeDoHistorico() throws Exception {
+        // Aquece caches de aplicação (partições arquivadas, metadados) que só consultam na primeira vez.
+        contarConsultas(criarConta(1));
+
+        Map<String, Long> pequeno = contarConsultas(criarConta(HISTORICO));
+        Map<String, Long> grande = contarConsultas(criarConta(HISTORICO * 10));
+
+        assertThat(pequeno.values()).allMatch(quantidade -> quantidade > 0);
+        assertThat(grande).isEqualTo(pequeno);
+    }
+
+    private Map<String, Long> contarConsultas(UUID conta) throws Exception {
+        LocalDate hoje = LocalDate.now();
+        String periodo = "&inicio=" + hoje.minusDays(HISTORICO * 10L) + "&fim=" + hoje;
+
+        Map<String, Long> consultas = new LinkedHashMap<>();
+        consultas.put("extrato", contar("/transacoes/extrato?usuarioId=" + conta, false));
+        consultas.put("extrato/stream", contar("/transacoes/extrato/stream?usuarioId=" + conta, true));
+        consultas.put("exportar", contar("/transacoes/exportar?usuarioId=" + conta, true));
+        consultas.put("analise", contar("/transacoes/analise?usuarioId=" + conta + periodo, false));
+        consultas.put("analise/categoria", contar("/transacoes/analise/categoria?usuarioId=" + conta + periodo, false));
+        return consultas;
+    }
+
+    private long contar(String url, boolean assincrono) throws Exception {
+        estatisticas.clear();
+        MvcResult resultado = mockMvc.perform(get(url)).andReturn();
+        if (assincrono) {
+            resultado.getAsyncResult();
+            mockMvc.perform(asyncDispatch(resultado)).andExpect(status().isOk());
+        } else {
+            assertThat(resultado.getResponse().getStatus()).isEqualTo(200);
+        }
+        return estatisticas.getPrepareStatementCount();
+    }
+
+    /**
+     * Conta com {@code transacoes} compras aprovadas, os lançamentos correspondentes, um resumo
+     * diário por transação (dias distintos) e o snapshot de saldo em dia.
+     */
+    private UUID criarConta(int transacoes) {
+        UUID conta = UUID.randomUUID();
+        contas.add(conta);
+        String cpf = String.format("%011d", Math.floorMod(conta.getLeastSignificantBits(), 100_000_000_000L));
+        jdbcTemplate.update("INSERT INTO tb_usuarios (id, nome, email, senha, cpf) VALUES (?, ?, ?, ?, ?)",
+                conta, "Conta " + transacoes, conta + "@teste.kivo", "-", cpf);
+
+        jdbcTemplate.update("""
+                INSERT INTO tb_transacoes (id, valor, data, tipo, categoria, status, moeda, usuario_id, taxa_cambio)
+                SELECT gen_random_uuid(), 10.00, localtimestamp - g * interval '1 second',
+                       'COMPRA', 'ALIMENTACAO', 'APPROVED', 'BRL', ?, 1
+                FROM generate_series(1, ?) g
+                """, conta, transacoes);
+        jdbcTemplate.update("""
+                INSERT INTO tb_lancamentos (id, transacao_id, conta_id, valor, data, tipo, categoria, efetivado)
+                SELECT gen_random_uuid(), id, usuario_id, -valor, data, tipo, categoria, true
+                FROM tb_transacoes WHERE usuario_id = ?
+                """, conta);
+        jdbcTemplate.update("""
+                INSERT INTO tb_resumo_diario (conta_id, dia, categoria, tipo, total, quantidade)
+                SELECT ?, current_date - g, 'ALIMENTACAO', 'COMPRA', 10.00, 1
+                FROM generate_series(0, ? - 1) g
+                """, conta, transacoes);
+        jdbcTemplate.update("""
+                INSERT INTO tb_saldos (conta_id, saldo_inicial, saldo, lancamentos_efetivados, atualizado_em)
+                VALUES (?, 1000.00, 1000.00 - 10.00 * ?, ?, localtimestamp)
+                """, conta, transacoes, transacoes);
+        return conta;
+    }
+}
@@ -0,0 +1,156 @@
+package com.kivo.api.infraestrutura.cliente;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.internal.CircuitBreakerStateMachine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Percorre o ciclo do circuito de um upstream pelo interceptor: falhas abrem o circuito,
+ * com ele aberto as chamadas falham sem chegar ao upstream e, passada a espera, as
+ * chamadas de teste do meio-aberto decidem se ele fecha ou volta a abrir. O relógio é
+ * manual, então a espera de aberto não depende de {@code sleep}.
+ */
+class InterceptorCircuitBreakerTest {
+
+    private static final Duration ESPERA_ABERTO = Duration.ofSeconds(30);
+    private static final int JANELA = 10;
+    private static final int CHAMADAS_MEIO_ABERTO = 3;
+
+    private final RelogioManual relogio = new RelogioManual();
+    private final AtomicInteger chamadasUpstream = new AtomicInteger();
+    private final MockClientHttpRequest requisicao = new MockClientHttpRequest(HttpMethod.GET, URI.create("/cotacao"));
+
+    private CircuitBreaker circuitBreaker;
+    private InterceptorCircuitBreaker interceptor;
+
+    @BeforeEach
+    void preparar() {
+        // Mesma forma da configuração de ConfigClienteRest, com janela e espera fixas.
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(50)
+                .slowCallRateThreshold(50)
+                .slowCallDurationThreshold(Duration.ofSeconds(2))
+                .slidingWindowSize(JANELA)
+                .minimumNumberOfCalls(JANELA)
+                .waitDurationInOpenState(ESPERA_ABERTO)
+                .permittedNumberOfCallsInHalfOpenState(CHAMADAS_MEIO_ABERTO)
+                .build();
+        circuitBreaker = new CircuitBreakerStateMachine("upstream", config, relogio);
+        interceptor = new InterceptorCircuitBreaker(circuitBreaker);
+    }
+
+    @Test
+    void abreComFalhasFalhaNaHoraERecuperaNoMeioAberto() throws IOException {
+        for (int i = 0; i < JANELA / 2; i++) {
+            assertThat(chamar(HttpStatus.OK).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        for (int i = 0; i < JANELA / 2; i++) {
+            assertThat(chamar(HttpStatus.SERVICE_UNAVAILABLE).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int antes = chamadasUpstream.get();
+        relogio.avancar(ESPERA_ABERTO.minusSeconds(1));
+        assertThatThrownBy(() -> chamar(HttpStatus.OK)).isInstanceOf(CallNotPermittedException.class);
+        assertThat(chamadasUpstream.get()).isEqualTo(antes);
+        assertThat(circuitBreaker.getMetrics().getNumberOfNotPermittedCalls()).isEqualTo(1);
+
+        relogio.avancar(Duration.ofSeconds(2));
+        for (int i = 0; i < CHAMADAS_MEIO_ABERTO; i++) {
+            assertThat(chamar(HttpStatus.OK).getStatusCode()).isEqualTo(HttpStatus.OK);
+            if (i < CHAMADAS_MEIO_ABERTO - 1) {
+                assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+            }
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(chamadasUpstream.get()).isEqualTo(antes + CHAMADAS_MEIO_ABERTO);
+    }
+
+    @Test
+    void meioAbertoVoltaAAbrirQuandoUpstreamContinuaFalhando() throws IOException {
+        for (int i = 0; i < JANELA; i++) {
+            assertThatThrownBy(() -> chamar(new SocketTimeoutException("Read timed out")))
+                    .isInstanceOf(SocketTimeoutException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        relogio.avancar(ESPERA_ABERTO.plusSeconds(1));
+        chamar(HttpStatus.OK);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        chamar(HttpStatus.BAD_GATEWAY);
+        chamar(HttpStatus.BAD_GATEWAY);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int antes = chamadasUpstream.get();
+        assertThatThrownBy(() -> chamar(HttpStatus.OK)).isInstanceOf(CallNotPermittedException.class);
+        assertThat(chamadasUpstream.get()).isEqualTo(antes);
+    }
+
+    @Test
+    void respostas4xxNaoContamComoFalha() throws IOException {
+        for (int i = 0; i < JANELA; i++) {
+            chamar(HttpStatus.NOT_FOUND);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+
+    private ClientHttpResponse chamar(HttpStatus status) throws IOException {
+        return interceptor.intercept(requisicao, new byte[0], (request, body) -> {
+            chamadasUpstream.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], status);
+        });
+    }
+
+    private ClientHttpResponse chamar(IOException erro) throws IOException {
+        return interceptor.intercept(requisicao, new byte[0], (request, body) -> {
+            chamadasUpstream.incrementAndGet();
+            throw erro;
+        });
+    }
+
+    private static class RelogioManual extends Clock {
+
+        private Instant agora = Instant.parse("2026-01-01T00:00:00Z");
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
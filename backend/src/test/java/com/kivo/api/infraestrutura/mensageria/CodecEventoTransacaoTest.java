@@ -0,0 +1,73 @@
+package com.kivo.api.infraestrutura.mensageria;
+
+import com.kivo.api.dominio.modelo.CategoriaTransacao;
+import com.kivo.api.dominio.modelo.TipoTransacao;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Registros malformados e eventos fora do formato falham com {@link SerializationException},
+ * que o deserializador de erro do Kafka encaminha para a DLQ, nunca com outra exceção.
+ */
+class CodecEventoTransacaoTest {
+
+    /** Posição do byte de tamanho da moeda num evento sem destinatário. */
+    private static final int POSICAO_TAMANHO_MOEDA = 1 + 1 + 16 + 16 + 1 + 1;
+
+    @Test
+    void decodificaOQueCodifica() {
+        EventoTransacao evento = evento("USD", TipoTransacao.TRANSFERENCIA, UUID.randomUUID(), new BigDecimal("5.4321"));
+
+        assertThat(CodecEventoTransacao.decodificar(CodecEventoTransacao.codificar(evento))).isEqualTo(evento);
+    }
+
+    @Test
+    void tamanhoDeMoedaComBitAltoNaoViraTamanhoNegativo() {
+        byte[] dados = CodecEventoTransacao.codificar(evento("BRL", TipoTransacao.COMPRA, null, null));
+        dados[POSICAO_TAMANHO_MOEDA] = (byte) 0x80;
+
+        assertThatThrownBy(() -> CodecEventoTransacao.decodificar(dados))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("moeda");
+    }
+
+    @Test
+    void registroTruncadoFalhaComoMalformado() {
+        byte[] dados = CodecEventoTransacao.codificar(evento("BRL", TipoTransacao.COMPRA, null, null));
+
+        assertThatThrownBy(() -> CodecEventoTransacao.decodificar(Arrays.copyOf(dados, dados.length - 5)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void codigoDeTipoDesconhecidoFalha() {
+        byte[] dados = CodecEventoTransacao.codificar(evento("BRL", TipoTransacao.COMPRA, null, null));
+        dados[POSICAO_TAMANHO_MOEDA - 2] = (byte) 0xFF;
+
+        assertThatThrownBy(() -> CodecEventoTransacao.decodificar(dados))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("tipo");
+    }
+
+    @Test
+    void codificarRecusaMoedaAlemDoLimiteETipoSemCodigo() {
+        assertThatThrownBy(() -> CodecEventoTransacao.codificar(evento("X".repeat(256), TipoTransacao.COMPRA, null, null)))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> CodecEventoTransacao.codificar(evento("BRL", null, null, null)))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("tipo");
+    }
+
+    private static EventoTransacao evento(String moeda, TipoTransacao tipo, UUID destinatarioId, BigDecimal taxa) {
+        return new EventoTransacao(UUID.randomUUID(), UUID.randomUUID(), destinatarioId, new BigDecimal("123.45"),
+                tipo, CategoriaTransacao.ALIMENTACAO, moeda, taxa, LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123_000_000), false);
+    }
+}
@@ -0,0 +1,161 @@
+package com.kivo.api.infraestrutura.persistencia;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Fechamento de lotes por tamanho e por janela, resultado e falha por pedido e encerramento
+ * com pedidos ainda na fila, sem banco: o processador é um lambda.
+ */
+class ColetorLoteTest {
+
+    private static final long ESPERA_SEGUNDOS = 5;
+
+    private final List<Integer> tamanhos = new CopyOnWriteArrayList<>();
+    private ColetorLote<Integer, Integer> coletor;
+
+    @AfterEach
+    void encerrar() {
+        if (coletor != null) {
+            coletor.close(Duration.ofSeconds(1));
+        }
+    }
+
+    @Test
+    void loteFechaAoAtingirOTamanhoSemEsperarAJanela() throws Exception {
+        coletor = new ColetorLote<>("teste", Duration.ofSeconds(30), 3, 100, 1, this::dobrar);
+
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Integer>> resultados = List.of(coletor.enviar(1), coletor.enviar(2), coletor.enviar(3));
+
+        assertThat(resultados.get(2).get(ESPERA_SEGUNDOS, TimeUnit.SECONDS)).isEqualTo(6);
+        assertThat(resultados.get(0).get()).isEqualTo(2);
+        assertThat(tamanhos).containsExactly(3);
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void loteIncompletoFechaQuandoAJanelaSeEsgota() throws Exception {
+        Duration janela = Duration.ofMillis(200);
+        coletor = new ColetorLote<>("teste", janela, 100, 100, 1, this::dobrar);
+
+        long inicio = System.nanoTime();
+        CompletableFuture<Integer> primeiro = coletor.enviar(1);
+        CompletableFuture<Integer> segundo = coletor.enviar(2);
+
+        assertThat(segundo.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS)).isEqualTo(4);
+        assertThat(primeiro.get()).isEqualTo(2);
+        assertThat(tamanhos).containsExactly(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(janela);
+    }
+
+    @Test
+    void cadaPedidoRecebeOProprioResultadoOuErro() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        coletor = new ColetorLote<>("teste", Duration.ofMillis(100), 10, 100, 1, lote -> {
+            aguardar(liberar);
+            lote.forEach(pendente -> {
+                if (pendente.pedido() % 2 == 0) {
+                    pendente.falhar(new IllegalArgumentException("par: " + pendente.pedido()));
+                } else {
+                    pendente.concluir(pendente.pedido());
+                }
+            });
+        });
+
+        CompletableFuture<Integer> impar = coletor.enviar(1);
+        CompletableFuture<Integer> par = coletor.enviar(2);
+        liberar.countDown();
+
+        assertThat(impar.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThatThrownBy(() -> par.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("par: 2");
+    }
+
+    @Test
+    void falhaDoProcessadorChegaATodosEPendenteEsquecidoNaoFicaSemResposta() throws Exception {
+        coletor = new ColetorLote<>("teste", Duration.ZERO, 1, 100, 1, lote -> {
+            ColetorLote.Pendente<Integer, Integer> pendente = lote.get(0);
+            if (pendente.pedido() == 1) {
+                throw new IllegalStateException("banco fora");
+            }
+            // Pedido 2: o processador retorna sem concluir nem falhar.
+        });
+
+        assertThatThrownBy(() -> coletor.enviar(1).get(ESPERA_SEGUNDOS, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("banco fora");
+        assertThatThrownBy(() -> coletor.enviar(2).get(ESPERA_SEGUNDOS, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("não concluído");
+    }
+
+    @Test
+    void encerramentoFalhaOQueSobrouNaFilaERecusaNovosPedidos() throws Exception {
+        CountDownLatch entrou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        coletor = new ColetorLote<>("teste", Duration.ZERO, 1, 100, 1, lote -> {
+            entrou.countDown();
+            aguardar(liberar);
+            lote.forEach(pendente -> pendente.concluir(pendente.pedido()));
+        });
+
+        CompletableFuture<Integer> emProcessamento = coletor.enviar(1);
+        assertThat(entrou.await(ESPERA_SEGUNDOS, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> naFila = coletor.enviar(2);
+
+        coletor.close(Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> naFila.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(TaskRejectedException.class);
+        assertThatThrownBy(() -> coletor.enviar(3)).isInstanceOf(TaskRejectedException.class);
+
+        liberar.countDown();
+        assertThat(emProcessamento.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS)).isEqualTo(1);
+    }
+
+    @Test
+    void filaCheiaRecusaOPedido() throws Exception {
+        CountDownLatch entrou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        coletor = new ColetorLote<>("teste", Duration.ZERO, 1, 1, 1, lote -> {
+            entrou.countDown();
+            aguardar(liberar);
+            lote.forEach(pendente -> pendente.concluir(pendente.pedido()));
+        });
+
+        coletor.enviar(1);
+        assertThat(entrou.await(ESPERA_SEGUNDOS, TimeUnit.SECONDS)).isTrue();
+        coletor.enviar(2);
+
+        assertThatThrownBy(() -> coletor.enviar(3)).isInstanceOf(TaskRejectedException.class);
+        liberar.countDown();
+    }
+
+    private void dobrar(List<ColetorLote.Pendente<Integer, Integer>> lote) {
+        tamanhos.add(lote.size());
+        lote.forEach(pendente -> pendente.concluir(pendente.pedido() * 2));
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(ESPERA_SEGUNDOS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}